@@ -0,0 +1,83 @@
+package com.Shakwa.benchmark;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.Shakwa.config.JwtProperties;
+import com.Shakwa.config.JwtService;
+import com.Shakwa.config.TokenClaims;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request JWT authentication cost (token verification part of JwtAuthenticationFilter).
+ * Run with: mvn -P benchmark test-compile exec:exec
+ *
+ * legacyAuthentication reproduces the previous JwtService: key decoded and parser built on
+ * every call, token parsed three times (filter username, isTokenValid username, expiration).
+ * currentAuthentication is the reworked path: one parse with the prebuilt parser and key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "7402bb3c24c35f15d1a7f1422078d9c1a4d9ebf1a276ff01ac84e6407625532e";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        properties.getKeys().put("primary", SECRET);
+        jwtService = new JwtService(properties);
+        jwtService.init();
+
+        userDetails = User.withUsername("benchmark@example.com").password("unused").build();
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyAuthentication() {
+        String username = legacyParse(token).getSubject();
+        String validatedUsername = legacyParse(token).getSubject();
+        Date expiration = legacyParse(token).getExpiration();
+        return username != null
+                && validatedUsername.equals(userDetails.getUsername())
+                && !expiration.before(new Date())
+                && userDetails.isEnabled();
+    }
+
+    @Benchmark
+    public boolean currentAuthentication() {
+        TokenClaims claims = jwtService.parse(token);
+        return jwtService.isTokenValid(claims, userDetails);
+    }
+
+    private static Claims legacyParse(String jwt) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+    }
+}
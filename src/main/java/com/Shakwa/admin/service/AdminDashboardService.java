@@ -2,9 +2,6 @@ package com.Shakwa.admin.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,13 +12,13 @@ import com.Shakwa.admin.dto.DashboardOverviewDTO;
 import com.Shakwa.admin.dto.DashboardOverviewDTO.AgencyComplaintCount;
 import com.Shakwa.admin.dto.DashboardOverviewDTO.TypeComplaintCount;
 import com.Shakwa.complaint.Enum.ComplaintStatus;
-import com.Shakwa.complaint.Enum.HistoryActionType;
+import com.Shakwa.complaint.Enum.ComplaintType;
 import com.Shakwa.complaint.dto.ComplaintDTOResponse;
 import com.Shakwa.complaint.entity.Complaint;
-import com.Shakwa.complaint.entity.ComplaintHistory;
 import com.Shakwa.complaint.mapper.ComplaintMapper;
-import com.Shakwa.complaint.repository.ComplaintHistoryRepository;
-import com.Shakwa.complaint.repository.ComplaintRepository;
+import com.Shakwa.report.repository.DashboardRepository;
+import com.Shakwa.report.repository.ReportRepository;
+import com.Shakwa.user.Enum.GovernmentAgencyType;
 import com.Shakwa.user.service.BaseSecurityService;
 import com.Shakwa.user.repository.CitizenRepo;
 import com.Shakwa.user.repository.EmployeeRepository;
@@ -36,8 +33,8 @@ import com.Shakwa.utils.exception.UnAuthorizedException;
 @Transactional(readOnly = true)
 public class AdminDashboardService extends BaseSecurityService {
     
-    private final ComplaintRepository complaintRepository;
-    private final ComplaintHistoryRepository complaintHistoryRepository;
+    private final DashboardRepository dashboardRepository;
+    private final ReportRepository reportRepository;
     private final ComplaintMapper complaintMapper;
     
     // Default values
@@ -46,15 +43,19 @@ public class AdminDashboardService extends BaseSecurityService {
     private static final int DEFAULT_TOP_TYPES_LIMIT = 5;
     private static final int DEFAULT_OVERDUE_COMPLAINTS_LIMIT = 10;
     
-    public AdminDashboardService(ComplaintRepository complaintRepository,
-                                ComplaintHistoryRepository complaintHistoryRepository,
+    // Statuses that can become overdue (must match the partial index in V8)
+    private static final List<ComplaintStatus> OPEN_STATUSES = List.of(
+        ComplaintStatus.PENDING, ComplaintStatus.IN_PROGRESS, ComplaintStatus.INFO_REQUESTED);
+    
+    public AdminDashboardService(DashboardRepository dashboardRepository,
+                                ReportRepository reportRepository,
                                 ComplaintMapper complaintMapper,
                                 UserRepository userRepository,
                                 CitizenRepo citizenRepo,
                                 EmployeeRepository employeeRepository) {
         super(userRepository, citizenRepo, employeeRepository);
-        this.complaintRepository = complaintRepository;
-        this.complaintHistoryRepository = complaintHistoryRepository;
+        this.dashboardRepository = dashboardRepository;
+        this.reportRepository = reportRepository;
         this.complaintMapper = complaintMapper;
     }
     
@@ -89,47 +90,42 @@ public class AdminDashboardService extends BaseSecurityService {
         LocalDateTime fromDateTime = fromDate.atStartOfDay();
         LocalDateTime toDateTime = toDate.atTime(23, 59, 59);
         
-        // Get all complaints in the date range
-        List<Complaint> allComplaints = complaintRepository.findAll().stream()
-            .filter(c -> {
-                LocalDateTime createdAt = c.getCreatedAt();
-                return createdAt != null && 
-                       (createdAt.isAfter(fromDateTime) || createdAt.isEqual(fromDateTime)) &&
-                       (createdAt.isBefore(toDateTime) || createdAt.isEqual(toDateTime));
-            })
-            .collect(Collectors.toList());
-        
-        // Calculate basic statistics
-        long total = allComplaints.size();
-        long resolved = allComplaints.stream()
-            .filter(c -> c.getStatus() == ComplaintStatus.RESOLVED)
-            .count();
-        long open = allComplaints.stream()
-            .filter(c -> c.getStatus() == ComplaintStatus.PENDING || 
-                        c.getStatus() == ComplaintStatus.IN_PROGRESS)
-            .count();
-        long rejected = allComplaints.stream()
-            .filter(c -> c.getStatus() == ComplaintStatus.REJECTED)
-            .count();
-        long closed = allComplaints.stream()
-            .filter(c -> c.getStatus() == ComplaintStatus.CLOSED)
-            .count();
+        // Status buckets (one grouped query, at most one row per status)
+        long total = 0;
+        long resolved = 0;
+        long open = 0;
+        long rejected = 0;
+        long closed = 0;
+        
+        for (Object[] row : dashboardRepository.countComplaintsGroupedByStatus(fromDateTime, toDateTime)) {
+            ComplaintStatus status = (ComplaintStatus) row[0];
+            long count = (Long) row[1];
+            total += count;
+            
+            switch (status) {
+                case RESOLVED -> resolved = count;
+                case PENDING, IN_PROGRESS -> open += count;
+                case REJECTED -> rejected = count;
+                case CLOSED -> closed = count;
+                default -> { }
+            }
+        }
         
         // Get top agencies
         List<AgencyComplaintCount> topAgencies = getTopAgenciesByComplaints(
-            allComplaints, DEFAULT_TOP_AGENCIES_LIMIT);
+            fromDateTime, toDateTime, DEFAULT_TOP_AGENCIES_LIMIT);
         
         // Get top complaint types
         List<TypeComplaintCount> topTypes = getTopComplaintTypes(
-            allComplaints, DEFAULT_TOP_TYPES_LIMIT);
+            fromDateTime, toDateTime, DEFAULT_TOP_TYPES_LIMIT);
         
         // Calculate average resolution time
-        Double avgResolutionDays = getAverageResolutionTimeDays(allComplaints);
+        Double avgResolutionDays = getAverageResolutionTimeDays(fromDateTime, toDateTime);
         Double avgResolutionHours = avgResolutionDays != null ? avgResolutionDays * 24 : null;
         
         // Get overdue complaints
         List<Complaint> overdueComplaints = getOverdueComplaints(
-            allComplaints, overdueDaysThreshold, DEFAULT_OVERDUE_COMPLAINTS_LIMIT);
+            fromDateTime, toDateTime, overdueDaysThreshold, DEFAULT_OVERDUE_COMPLAINTS_LIMIT);
         List<ComplaintDTOResponse> overdueDTOs = overdueComplaints.stream()
             .map(complaintMapper::toResponse)
             .collect(Collectors.toList());
@@ -154,45 +150,39 @@ public class AdminDashboardService extends BaseSecurityService {
     
     /**
      * Get top agencies by complaint count
+     * Grouping, ordering and limit are applied in the database
      */
     private List<AgencyComplaintCount> getTopAgenciesByComplaints(
-            List<Complaint> complaints, int limit) {
-        
-        return complaints.stream()
-            .collect(Collectors.groupingBy(
-                Complaint::getGovernmentAgency,
-                Collectors.counting()
-            ))
-            .entrySet().stream()
-            .map(entry -> AgencyComplaintCount.builder()
-                .agencyName(entry.getKey().name())
-                .agencyLabel(entry.getKey().getLabel())
-                .complaintCount(entry.getValue())
-                .build())
-            .sorted(Comparator.comparing(AgencyComplaintCount::getComplaintCount).reversed())
-            .limit(limit)
+            LocalDateTime fromDateTime, LocalDateTime toDateTime, int limit) {
+        
+        return dashboardRepository.findTopAgenciesByComplaintCount(fromDateTime, toDateTime, limit).stream()
+            .map(row -> {
+                GovernmentAgencyType agency = (GovernmentAgencyType) row[0];
+                return AgencyComplaintCount.builder()
+                    .agencyName(agency.name())
+                    .agencyLabel(agency.getLabel())
+                    .complaintCount((Long) row[1])
+                    .build();
+            })
             .collect(Collectors.toList());
     }
     
     /**
      * Get top complaint types by count
+     * Grouping, ordering and limit are applied in the database
      */
     private List<TypeComplaintCount> getTopComplaintTypes(
-            List<Complaint> complaints, int limit) {
-        
-        return complaints.stream()
-            .collect(Collectors.groupingBy(
-                Complaint::getComplaintType,
-                Collectors.counting()
-            ))
-            .entrySet().stream()
-            .map(entry -> TypeComplaintCount.builder()
-                .typeName(entry.getKey().name())
-                .typeLabel(entry.getKey().getLabel())
-                .complaintCount(entry.getValue())
-                .build())
-            .sorted(Comparator.comparing(TypeComplaintCount::getComplaintCount).reversed())
-            .limit(limit)
+            LocalDateTime fromDateTime, LocalDateTime toDateTime, int limit) {
+        
+        return dashboardRepository.findTopComplaintTypesByCount(fromDateTime, toDateTime, limit).stream()
+            .map(row -> {
+                ComplaintType type = (ComplaintType) row[0];
+                return TypeComplaintCount.builder()
+                    .typeName(type.name())
+                    .typeLabel(type.getLabel())
+                    .complaintCount((Long) row[1])
+                    .build();
+            })
             .collect(Collectors.toList());
     }
     
@@ -200,100 +190,22 @@ public class AdminDashboardService extends BaseSecurityService {
      * Calculate average resolution time in days
      * Uses ComplaintHistory to accurately track when status changed to RESOLVED
      */
-    private Double getAverageResolutionTimeDays(List<Complaint> complaints) {
-        List<Complaint> resolvedComplaints = complaints.stream()
-            .filter(c -> c.getStatus() == ComplaintStatus.RESOLVED)
-            .collect(Collectors.toList());
-        
-        if (resolvedComplaints.isEmpty()) {
-            return 0.0;
-        }
-        
-        List<Long> resolutionDays = new ArrayList<>();
-        
-        for (Complaint complaint : resolvedComplaints) {
-            LocalDateTime createdTime = complaint.getCreatedAt();
-            if (createdTime == null) continue;
-            
-            // Find when status was changed to RESOLVED in ComplaintHistory
-            List<ComplaintHistory> histories = complaintHistoryRepository
-                .findByComplaintIdOrderByCreatedAtDesc(complaint.getId());
-            
-            LocalDateTime resolvedTime = null;
-            for (ComplaintHistory history : histories) {
-                if (history.getActionType() == HistoryActionType.STATUS_CHANGED &&
-                    "RESOLVED".equals(history.getNewValue())) {
-                    resolvedTime = history.getCreatedAt();
-                    break;
-                }
-            }
-            
-            // If not found in history, use respondedAt or updatedAt
-            if (resolvedTime == null) {
-                if (complaint.getRespondedAt() != null) {
-                    resolvedTime = complaint.getRespondedAt();
-                } else if (complaint.getUpdatedAt() != null) {
-                    resolvedTime = complaint.getUpdatedAt();
-                } else {
-                    continue; // Skip if no resolution time found
-                }
-            }
-            
-            long days = ChronoUnit.DAYS.between(createdTime, resolvedTime);
-            resolutionDays.add(days);
-        }
-        
-        if (resolutionDays.isEmpty()) {
-            return 0.0;
-        }
-        
-        return resolutionDays.stream()
-            .mapToLong(Long::longValue)
-            .average()
-            .orElse(0.0);
+    private Double getAverageResolutionTimeDays(LocalDateTime fromDateTime, LocalDateTime toDateTime) {
+        Object[] stats = reportRepository.computeResolutionTimeStats(null, fromDateTime, toDateTime);
+        return stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0;
     }
     
     /**
      * Get overdue complaints
-     * Uses ComplaintHistory to determine last activity
-     * A complaint is overdue if it hasn't been resolved and exceeds the threshold
+     * Uses the denormalized lastActivityAt (maintained by ComplaintHistoryService)
+     * A complaint is overdue if it is still open and has had no activity within the threshold
      */
     private List<Complaint> getOverdueComplaints(
-            List<Complaint> complaints, int daysThreshold, int limit) {
+            LocalDateTime fromDateTime, LocalDateTime toDateTime, int daysThreshold, int limit) {
         
         LocalDateTime thresholdDate = LocalDateTime.now().minusDays(daysThreshold);
         
-        return complaints.stream()
-            .filter(c -> {
-                // Only consider non-resolved complaints
-                if (c.getStatus() == ComplaintStatus.RESOLVED || 
-                    c.getStatus() == ComplaintStatus.CLOSED ||
-                    c.getStatus() == ComplaintStatus.REJECTED) {
-                    return false;
-                }
-                
-                // Get last activity from ComplaintHistory
-                List<ComplaintHistory> histories = complaintHistoryRepository
-                    .findByComplaintIdOrderByCreatedAtDesc(c.getId());
-                
-                LocalDateTime lastActivity = c.getCreatedAt();
-                if (!histories.isEmpty()) {
-                    lastActivity = histories.get(0).getCreatedAt();
-                }
-                
-                // Check if last activity is before threshold
-                return lastActivity != null && lastActivity.isBefore(thresholdDate);
-            })
-            .sorted(Comparator.comparing((Complaint c) -> {
-                List<ComplaintHistory> histories = complaintHistoryRepository
-                    .findByComplaintIdOrderByCreatedAtDesc(c.getId());
-                if (!histories.isEmpty()) {
-                    return histories.get(0).getCreatedAt();
-                }
-                return c.getCreatedAt();
-            }))
-            .limit(limit)
-            .collect(Collectors.toList());
+        return dashboardRepository.findOverdueComplaints(
+            OPEN_STATUSES, thresholdDate, fromDateTime, toDateTime, limit);
     }
 }
-
@@ -1,17 +1,17 @@
 package com.Shakwa.audit.controller;
 
-import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
 
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.Shakwa.audit.dto.AuditEventDTO;
 import com.Shakwa.audit.service.AuditService;
@@ -21,6 +21,7 @@ import com.Shakwa.user.dto.PaginationDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * Controller for audit log management
@@ -34,10 +35,13 @@ public class AuditLogController {
     
     private final AuditService auditService;
     private final ExportService exportService;
+    private final Duration exportTimeout;
     
-    public AuditLogController(AuditService auditService, ExportService exportService) {
+    public AuditLogController(AuditService auditService, ExportService exportService,
+                              @Value("${audit.export.timeout:1h}") Duration exportTimeout) {
         this.auditService = auditService;
         this.exportService = exportService;
+        this.exportTimeout = exportTimeout;
     }
     
     @GetMapping
@@ -218,15 +222,15 @@ public class AuditLogController {
                      "**Filtering:**\n" +
                      "All filters from the main GET endpoint are supported. " +
                      "Only audit events matching all specified filters will be included in the export.\n\n" +
-                     "**Pagination:**\n" +
-                     "For exports, it's recommended to use a larger `size` parameter (default: 1000) " +
-                     "to retrieve more records in a single export. " +
-                     "Note that very large exports may take longer to generate.\n\n" +
+                     "**Streaming:**\n" +
+                     "There is no page size: all matching events are exported. Rows are read with a database cursor " +
+                     "and written to the response as they are read (chunked transfer), so exports of any size " +
+                     "use constant server memory. Use the date filters to limit the export to the months you need.\n\n" +
                      "**Response:**\n" +
                      "Returns a CSV file download with appropriate Content-Type and Content-Disposition headers. " +
                      "The filename will be: `audit-log.csv`"
     )
-    public ResponseEntity<Resource> exportAuditLog(
+    public ResponseEntity<StreamingResponseBody> exportAuditLog(
             @Parameter(
                 description = "Export format. Currently only 'csv' is supported. Default: 'csv'",
                 example = "csv"
@@ -271,25 +275,19 @@ public class AuditLogController {
                 example = "2025-01-31T23:59:59"
             )
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
-            @Parameter(
-                description = "Page size for export. For exports, use a larger value to retrieve more records. " +
-                             "Default: 1000. Note: Very large exports may take longer to generate.",
-                example = "1000"
-            )
-            @RequestParam(defaultValue = "1000") int size) throws IOException {
+            HttpServletRequest request) {
         
-        // Get all audit events (with larger page size for export)
-        PaginationDTO<AuditEventDTO> auditLogs = auditService.getAuditLogs(
-            userId, action, targetType, targetId, status, fromDate, toDate, 0, size);
+        // The body is written on an async thread; only this endpoint gets the long export timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
         
-        List<AuditEventDTO> events = auditLogs.getContent();
-        byte[] data = exportService.exportAuditLogToCSV(events);
+        // Rows are written while they are read; the response is committed with the first chunk
+        StreamingResponseBody body = outputStream -> exportService.exportAuditLogToCSV(outputStream,
+            sink -> auditService.streamAuditLogs(
+                userId, action, targetType, targetId, status, fromDate, toDate, sink));
         
-        ByteArrayResource resource = new ByteArrayResource(data);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-log.csv\"")
                 .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+                .body(body);
     }
 }
-
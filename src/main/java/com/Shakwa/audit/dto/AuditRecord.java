@@ -0,0 +1,24 @@
+package com.Shakwa.audit.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable audit event captured on the request thread and written later by the
+ * AuditEventPipeline. Details are already serialized to JSON so the record holds no
+ * references to request objects (entities, DTOs) that could change or be detached.
+ * eventId makes the insert idempotent, so a record replayed from the WAL is written once.
+ */
+public record AuditRecord(
+    UUID eventId,
+    String action,
+    String targetType,
+    Long targetId,
+    Long actorId,
+    String actorType,
+    String status,
+    String details,
+    String ipAddress,
+    LocalDateTime occurredAt
+) {
+}
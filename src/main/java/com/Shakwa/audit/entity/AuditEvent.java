@@ -1,5 +1,7 @@
 package com.Shakwa.audit.entity;
 
+import java.util.UUID;
+
 import com.Shakwa.utils.entity.AuditedEntity;
 
 import jakarta.persistence.Column;
@@ -26,11 +28,12 @@ import lombok.NoArgsConstructor;
     @Index(name = "idx_audit_events_actor", columnList = "actor_id,actor_type"),
     @Index(name = "idx_audit_events_action", columnList = "action"),
     @Index(name = "idx_audit_events_target", columnList = "target_type,target_id"),
-    @Index(name = "idx_audit_events_created_at", columnList = "created_at DESC")
+    @Index(name = "idx_audit_events_created_at", columnList = "created_at DESC"),
+    @Index(name = "ux_audit_events_event_id", columnList = "event_id,created_at", unique = true)
 })
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "audit_event_seq", sequenceName = "audit_event_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "audit_event_seq", sequenceName = "audit_event_id_seq", allocationSize = 50)
 public class AuditEvent extends AuditedEntity {
     
     @Override
@@ -38,6 +41,12 @@ public class AuditEvent extends AuditedEntity {
         return "audit_event_id_seq";
     }
     
+    /**
+     * Id assigned when the event is captured; makes WAL replays idempotent
+     */
+    @Column(name = "event_id")
+    private UUID eventId;
+    
     /**
      * Action performed (e.g., CREATE_COMPLAINT, UPDATE_USER, LOGIN, etc.)
      */
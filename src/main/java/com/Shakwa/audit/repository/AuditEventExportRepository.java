@@ -0,0 +1,114 @@
+package com.Shakwa.audit.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.Shakwa.audit.dto.AuditEventDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads audit_events for exports without loading them into memory.
+ * Rows come from a forward-only, read-only cursor fetched fetch-size rows at a time and are
+ * handed to the consumer one by one; actor names are joined in the same query instead of one
+ * lookup per row (AuditEventMapper).
+ * PostgreSQL only uses a cursor inside a transaction, so callers must be transactional.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditEventExportRepository {
+
+    private static final String SELECT_SQL = """
+        SELECT a.id, a.action, a.target_type, a.target_id, a.actor_id, a.status, a.details, a.ip_address,
+               a.created_at,
+               COALESCE(u.first_name || ' ' || u.last_name,
+                        c.first_name || ' ' || c.last_name,
+                        e.first_name || ' ' || e.last_name) AS actor_name,
+               COALESCE(u.email, c.email, e.email) AS actor_email
+        FROM audit_events a
+        LEFT JOIN users u ON a.actor_type = 'USER' AND u.id = a.actor_id
+        LEFT JOIN citizens c ON a.actor_type = 'CITIZEN' AND c.id = a.actor_id
+        LEFT JOIN employees e ON a.actor_type = 'EMPLOYEE' AND e.id = a.actor_id
+        WHERE 1 = 1
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${audit.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Stream the audit events matching the filters (same semantics as
+     * AuditEventSpecification.withFilters), newest first
+     */
+    public void forEach(Long actorId, String action, String targetType, Long targetId, String status,
+                        LocalDateTime fromDate, LocalDateTime toDate, Consumer<AuditEventDTO> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+
+        if (actorId != null) {
+            sql.append(" AND a.actor_id = ?");
+            params.add(actorId);
+        }
+        if (action != null && !action.trim().isEmpty()) {
+            sql.append(" AND a.action = ?");
+            params.add(action);
+        }
+        if (targetType != null && !targetType.trim().isEmpty()) {
+            sql.append(" AND a.target_type = ?");
+            params.add(targetType);
+        }
+        if (targetId != null) {
+            sql.append(" AND a.target_id = ?");
+            params.add(targetId);
+        }
+        if (status != null && !status.trim().isEmpty()) {
+            sql.append(" AND a.status = ?");
+            params.add(status);
+        }
+        // Bounds on the partition key: only the matching monthly partitions are scanned
+        if (fromDate != null) {
+            sql.append(" AND a.created_at >= ?");
+            params.add(Timestamp.valueOf(fromDate));
+        }
+        if (toDate != null) {
+            sql.append(" AND a.created_at <= ?");
+            params.add(Timestamp.valueOf(toDate));
+        }
+        sql.append(" ORDER BY a.created_at DESC, a.id DESC");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            consumer.accept(AuditEventDTO.builder()
+                .id(rs.getLong("id"))
+                .action(rs.getString("action"))
+                .targetType(rs.getString("target_type"))
+                .targetId(rs.getObject("target_id", Long.class))
+                .actorId(rs.getObject("actor_id", Long.class))
+                .actorName(rs.getString("actor_name"))
+                .actorEmail(rs.getString("actor_email"))
+                .status(rs.getString("status"))
+                .details(rs.getString("details"))
+                .ipAddress(rs.getString("ip_address"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build());
+        });
+    }
+}
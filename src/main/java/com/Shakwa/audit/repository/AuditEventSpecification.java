@@ -66,6 +66,8 @@ public class AuditEventSpecification {
                 predicates.add(criteriaBuilder.equal(root.get("status"), status));
             }
             
+            // audit_events is partitioned by month of created_at: these bounds limit the scan
+            // to the matching partitions
             if (fromDate != null) {
                 predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), fromDate));
             }
@@ -0,0 +1,376 @@
+package com.Shakwa.audit.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.Shakwa.audit.dto.AuditRecord;
+import com.Shakwa.audit.repository.AuditEventBatchWriter;
+import com.Shakwa.config.AuditPipelineProperties;
+import com.Shakwa.config.AuditPipelineProperties.Backpressure;
+import com.Shakwa.utils.concurrent.BoundedRingBuffer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asynchronous audit pipeline.
+ * Request threads only submit() an immutable AuditRecord into a bounded lock-free ring
+ * buffer; a single background writer drains it in JDBC batches.
+ *
+ * With the write-ahead log enabled (default) each record is first appended to
+ * AuditWriteAheadLog, and the queue is only a fast path: when it is full, or a batch fails
+ * because the database is down, the writer falls behind and later catches up by streaming
+ * the log from its checkpoint (inserts are idempotent on event_id). Nothing is lost and
+ * request threads never wait.
+ * With the log disabled, a full queue applies the configured backpressure (block, drop
+ * oldest, or spill to a local file), and failed batches are spilled and replayed when idle.
+ *
+ * Metrics: audit.pipeline.queue.depth, audit.pipeline.lag (age of the oldest queued
+ * event, seconds), audit.pipeline.write.latency (capture to insert), audit.pipeline.spill.bytes,
+ * audit.pipeline.wal.backlog.bytes and audit.pipeline.events{outcome=written|dropped|spilled}.
+ */
+@Service
+@Slf4j
+public class AuditEventPipeline {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+    private static final long NOT_LOGGED = -1;
+
+    private final AuditPipelineProperties properties;
+    private final AuditEventBatchWriter batchWriter;
+    private final AuditSpillFile spillFile;
+    private final AuditWriteAheadLog writeAheadLog;
+    private final BoundedRingBuffer<QueuedRecord> buffer;
+
+    // Serializes WAL append + enqueue so queue order matches log order
+    private final Object appendLock = new Object();
+
+    // Set when a durable record did not reach the database through the queue
+    private volatile boolean walBehind;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+    private final Timer writeLatency;
+
+    private volatile Thread writerThread;
+    private volatile boolean running;
+
+    public AuditEventPipeline(AuditPipelineProperties properties,
+                              AuditEventBatchWriter batchWriter,
+                              AuditSpillFile spillFile,
+                              AuditWriteAheadLog writeAheadLog,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.spillFile = spillFile;
+        this.writeAheadLog = writeAheadLog;
+        this.buffer = new BoundedRingBuffer<>(properties.getCapacity());
+
+        this.writtenCounter = eventCounter(meterRegistry, "written");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped");
+        this.spilledCounter = eventCounter(meterRegistry, "spilled");
+        this.writeLatency = Timer.builder("audit.pipeline.write.latency")
+            .description("Time from capturing an audit event to inserting it")
+            .register(meterRegistry);
+        Gauge.builder("audit.pipeline.queue.depth", buffer, BoundedRingBuffer::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+        Gauge.builder("audit.pipeline.lag", this, AuditEventPipeline::lagSeconds)
+            .description("Age of the oldest queued audit event in seconds")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("audit.pipeline.spill.bytes", spillFile, AuditSpillFile::sizeBytes)
+            .description("Size of the local audit spill files")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("audit.pipeline.wal.backlog.bytes", writeAheadLog, AuditWriteAheadLog::backlogBytes)
+            .description("Bytes in the audit WAL not yet written to the database")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue an audit event. Never throws and never touches the database.
+     */
+    public void submit(AuditRecord record) {
+        if (writeAheadLog.isEnabled() && submitDurable(record)) {
+            return;
+        }
+        QueuedRecord queued = new QueuedRecord(record, NOT_LOGGED);
+        if (buffer.offer(queued)) {
+            if (buffer.size() >= properties.getBatchSize()) {
+                wakeWriter();
+            }
+            return;
+        }
+        wakeWriter();
+
+        switch (properties.getBackpressure()) {
+            case BLOCK -> submitBlocking(queued);
+            case DROP_OLDEST -> submitDroppingOldest(queued);
+            case SPILL -> spill(List.of(record));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        // Records logged before a crash or restart and never checkpointed
+        walBehind = writeAheadLog.isEnabled() && writeAheadLog.checkpoint() < writeAheadLog.endPosition();
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("Audit pipeline started (capacity={}, batchSize={}, backpressure={})",
+            buffer.capacity(), properties.getBatchSize(), properties.getBackpressure());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever is still queued goes to the database now, or to the spill file
+        List<QueuedRecord> batch = new ArrayList<>();
+        while (buffer.drainTo(batch, properties.getBatchSize()) > 0) {
+            writeOrSpill(batch);
+            batch.clear();
+        }
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    /**
+     * Appends to the WAL and queues the record
+     * @return false if the record could not be logged (caller falls back to the volatile path)
+     */
+    private boolean submitDurable(AuditRecord record) {
+        synchronized (appendLock) {
+            long position;
+            try {
+                position = writeAheadLog.append(record);
+            } catch (Exception e) {
+                log.warn("Could not append audit event {} to the WAL: {}", record.action(), e.getMessage());
+                return false;
+            }
+            if (!buffer.offer(new QueuedRecord(record, position))) {
+                // Already durable - the writer picks it up from the log
+                walBehind = true;
+            }
+        }
+        if (walBehind || buffer.size() >= properties.getBatchSize()) {
+            wakeWriter();
+        }
+        return true;
+    }
+
+    private void submitBlocking(QueuedRecord queued) {
+        long deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (buffer.offer(queued)) {
+                return;
+            }
+        }
+        droppedCounter.increment();
+        log.warn("Audit queue full for {} - dropped event {}", properties.getBlockTimeout(), queued.record().action());
+    }
+
+    private void submitDroppingOldest(QueuedRecord queued) {
+        while (!buffer.offer(queued)) {
+            if (buffer.poll() != null) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<QueuedRecord> batch = new ArrayList<>(properties.getBatchSize());
+        long flushNanos = properties.getFlushInterval().toNanos();
+        while (running) {
+            try {
+                if (walBehind) {
+                    catchUpFromWal();
+                }
+                buffer.drainTo(batch, properties.getBatchSize());
+                // Entries the catch-up already wrote from the log
+                long checkpoint = writeAheadLog.checkpoint();
+                batch.removeIf(queued -> queued.walPosition() != NOT_LOGGED && queued.walPosition() <= checkpoint);
+                if (!batch.isEmpty()) {
+                    writeOrSpill(batch);
+                }
+                if (batch.size() < properties.getBatchSize()) {
+                    if (buffer.isEmpty()) {
+                        replaySpill();
+                    }
+                    LockSupport.parkNanos(flushNanos);
+                }
+            } catch (Exception e) {
+                log.error("Audit writer iteration failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeOrSpill(List<QueuedRecord> batch) {
+        List<AuditRecord> records = batch.stream().map(QueuedRecord::record).toList();
+        long lastPosition = batch.stream().mapToLong(QueuedRecord::walPosition).max().orElse(NOT_LOGGED);
+        // Logged batches are not retried here: the WAL catch-up replays them
+        int attempts = lastPosition != NOT_LOGGED ? 1 : properties.getMaxWriteAttempts();
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            try {
+                write(records);
+                if (lastPosition != NOT_LOGGED && !walBehind) {
+                    writeAheadLog.advanceCheckpoint(lastPosition);
+                }
+                return;
+            } catch (Exception e) {
+                log.warn("Audit batch of {} failed (attempt {}/{}): {}",
+                    batch.size(), attempt, attempts, e.getMessage());
+                if (attempt < attempts) {
+                    sleepQuietly(RETRY_BACKOFF_MILLIS * attempt);
+                }
+            }
+        }
+        if (lastPosition != NOT_LOGGED) {
+            // Replayed from the checkpoint once the database is back
+            walBehind = true;
+        }
+        List<AuditRecord> notLogged = batch.stream()
+            .filter(queued -> queued.walPosition() == NOT_LOGGED)
+            .map(QueuedRecord::record)
+            .toList();
+        if (!notLogged.isEmpty()) {
+            spill(notLogged);
+        }
+    }
+
+    /**
+     * Streams the WAL from the checkpoint to its current end into audit_events
+     */
+    private void catchUpFromWal() {
+        // Cleared first so an overflow during the catch-up sets it again
+        walBehind = false;
+        long end = writeAheadLog.endPosition();
+        long position = writeAheadLog.checkpoint();
+        int replayed = 0;
+        try {
+            while (position < end) {
+                List<AuditRecord> records = new ArrayList<>(properties.getBatchSize());
+                long next = writeAheadLog.read(position, end, properties.getBatchSize(), records);
+                if (!records.isEmpty()) {
+                    write(records);
+                    replayed += records.size();
+                }
+                writeAheadLog.advanceCheckpoint(next);
+                if (next == position) {
+                    break;
+                }
+                position = next;
+            }
+            if (replayed > 0) {
+                log.info("Replayed {} audit events from the WAL", replayed);
+            }
+        } catch (Exception e) {
+            walBehind = true;
+            log.warn("Audit WAL replay postponed after {} events: {}", replayed, e.getMessage());
+            sleepQuietly(RETRY_BACKOFF_MILLIS * properties.getMaxWriteAttempts());
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        batchWriter.insertBatch(batch);
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditRecord record : batch) {
+            writeLatency.record(Duration.between(record.occurredAt(), now));
+        }
+        writtenCounter.increment(batch.size());
+    }
+
+    private void replaySpill() {
+        if (!spillFile.hasPending()) {
+            return;
+        }
+        try {
+            int replayed = spillFile.replay(this::write, properties.getBatchSize());
+            if (replayed > 0) {
+                log.info("Replayed {} spilled audit events", replayed);
+            }
+        } catch (Exception e) {
+            log.debug("Audit spill replay postponed: {}", e.getMessage());
+        }
+    }
+
+    private void spill(List<AuditRecord> records) {
+        try {
+            spillFile.append(records);
+            spilledCounter.increment(records.size());
+        } catch (Exception e) {
+            droppedCounter.increment(records.size());
+            log.error("Could not spill {} audit events - dropped: {}", records.size(), e.getMessage());
+        }
+    }
+
+    private double lagSeconds() {
+        QueuedRecord oldest = buffer.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.record().occurredAt(), LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("audit.pipeline.events")
+            .description("Audit events by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A queued record and its WAL position (NOT_LOGGED when the log is disabled)
+     */
+    private record QueuedRecord(AuditRecord record, long walPosition) {
+    }
+}
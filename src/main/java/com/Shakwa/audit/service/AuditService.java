@@ -2,6 +2,8 @@ package com.Shakwa.audit.service;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.Shakwa.audit.dto.AuditEventDTO;
+import com.Shakwa.audit.dto.AuditRecord;
 import com.Shakwa.audit.entity.AuditEvent;
 import com.Shakwa.audit.mapper.AuditEventMapper;
+import com.Shakwa.audit.repository.AuditEventExportRepository;
 import com.Shakwa.audit.repository.AuditEventRepository;
 import com.Shakwa.audit.repository.AuditEventSpecification;
 import com.Shakwa.user.dto.PaginationDTO;
@@ -40,23 +44,30 @@ public class AuditService {
     private final CitizenRepo citizenRepo;
     private final EmployeeRepository employeeRepository;
     private final ObjectMapper objectMapper;
+    private final AuditEventPipeline auditEventPipeline;
+    private final AuditEventExportRepository auditEventExportRepository;
     
     public AuditService(AuditEventRepository auditEventRepository,
                        AuditEventMapper auditEventMapper,
                        UserRepository userRepository,
                        CitizenRepo citizenRepo,
                        EmployeeRepository employeeRepository,
-                       ObjectMapper objectMapper) {
+                       ObjectMapper objectMapper,
+                       AuditEventPipeline auditEventPipeline,
+                       AuditEventExportRepository auditEventExportRepository) {
         this.auditEventRepository = auditEventRepository;
         this.auditEventMapper = auditEventMapper;
         this.userRepository = userRepository;
         this.citizenRepo = citizenRepo;
         this.employeeRepository = employeeRepository;
         this.objectMapper = objectMapper;
+        this.auditEventPipeline = auditEventPipeline;
+        this.auditEventExportRepository = auditEventExportRepository;
     }
     
     /**
      * Record an audit event
+     * The insert itself is queued on AuditEventPipeline (batched, off the caller's thread)
      * 
      * @param action Action performed (e.g., CREATE_COMPLAINT, UPDATE_USER)
      * @param targetType Type of target entity (e.g., COMPLAINT, USER)
@@ -90,27 +101,20 @@ public class AuditService {
                 }
             }
             
-            AuditEvent event = new AuditEvent();
-            event.setAction(action);
-            event.setTargetType(targetType);
-            event.setTargetId(targetId);
-            event.setActorId(actorId);
-            event.setActorType(actorType);
-            event.setStatus(status);
-            event.setIpAddress(ipAddress);
-            
             // Convert details map to JSON string
+            String detailsJson = null;
             if (details != null && !details.isEmpty()) {
                 try {
-                    event.setDetails(objectMapper.writeValueAsString(details));
+                    detailsJson = objectMapper.writeValueAsString(details);
                 } catch (JsonProcessingException e) {
                     logger.warn("Failed to serialize audit details to JSON: {}", e.getMessage());
-                    event.setDetails(details.toString());
+                    detailsJson = details.toString();
                 }
             }
             
-            auditEventRepository.save(event);
-            logger.debug("Audit event recorded: {} | {}[{}] | Actor: {} | Status: {}", 
+            auditEventPipeline.submit(new AuditRecord(UUID.randomUUID(), action, targetType, targetId, actorId, actorType,
+                status, detailsJson, ipAddress, LocalDateTime.now()));
+            logger.debug("Audit event queued: {} | {}[{}] | Actor: {} | Status: {}", 
                 action, targetType, targetId, actorId, status);
             
         } catch (Exception e) {
@@ -153,6 +157,20 @@ public class AuditService {
         return PaginationDTO.of(dtoPage);
     }
     
+    /**
+     * Stream every audit event matching the filters to the consumer, newest first.
+     * Unlike getAuditLogs there is no page size: rows are read through a database cursor,
+     * so the transaction stays open until the consumer has seen the last one.
+     */
+    @Transactional(readOnly = true)
+    public void streamAuditLogs(
+        Long userId, String action, String targetType, Long targetId,
+        String status, LocalDateTime fromDate, LocalDateTime toDate,
+        Consumer<AuditEventDTO> consumer) {
+        auditEventExportRepository.forEach(
+            userId, action, targetType, targetId, status, fromDate, toDate, consumer);
+    }
+    
     /**
      * Get audit events by actor
      */
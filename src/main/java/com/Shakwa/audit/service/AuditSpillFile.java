@@ -0,0 +1,143 @@
+package com.Shakwa.audit.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import com.Shakwa.audit.dto.AuditRecord;
+import com.Shakwa.config.AuditPipelineProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local overflow file for audit records (one JSON record per line).
+ * Receives events the ring buffer had no room for (backpressure SPILL) and batches the
+ * database kept rejecting. replay() seals the active file and feeds sealed files back
+ * to the writer; a file is deleted only once all of its records were written.
+ */
+@Component
+@Slf4j
+public class AuditSpillFile {
+
+    private static final String ACTIVE_FILE = "audit-spill.jsonl";
+    private static final String SEALED_PREFIX = "audit-spill-";
+
+    private final Path directory;
+    private final Path activeFile;
+    private final ObjectMapper objectMapper;
+
+    public AuditSpillFile(AuditPipelineProperties properties, ObjectMapper objectMapper) {
+        this.directory = Paths.get(properties.getSpillDirectory());
+        this.activeFile = directory.resolve(ACTIVE_FILE);
+        this.objectMapper = objectMapper;
+    }
+
+    public synchronized void append(List<AuditRecord> records) throws IOException {
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(activeFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditRecord record : records) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        }
+    }
+
+    public boolean hasPending() {
+        return sizeBytes() > 0;
+    }
+
+    /**
+     * Total size of the active and sealed spill files
+     */
+    public long sizeBytes() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(this::isSpillFile).mapToLong(this::sizeOf).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes spilled records back in batches, oldest file first.
+     * If the writer throws, the unwritten records are kept for the next replay.
+     *
+     * @return number of records replayed
+     */
+    public int replay(Consumer<List<AuditRecord>> writer, int batchSize) throws IOException {
+        seal();
+        List<Path> sealed;
+        try (Stream<Path> files = Files.list(directory)) {
+            sealed = files.filter(file -> file.getFileName().toString().startsWith(SEALED_PREFIX))
+                .sorted()
+                .toList();
+        }
+
+        int replayed = 0;
+        for (Path file : sealed) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            int written = 0;
+            try {
+                while (written < lines.size()) {
+                    List<String> chunk = lines.subList(written, Math.min(written + batchSize, lines.size()));
+                    writer.accept(parse(chunk));
+                    written += chunk.size();
+                }
+            } catch (RuntimeException e) {
+                Files.write(file, lines.subList(written, lines.size()), StandardCharsets.UTF_8);
+                throw e;
+            }
+            Files.delete(file);
+            replayed += written;
+        }
+        return replayed;
+    }
+
+    private synchronized void seal() throws IOException {
+        if (Files.exists(activeFile) && Files.size(activeFile) > 0) {
+            Files.move(activeFile, directory.resolve(SEALED_PREFIX + System.currentTimeMillis() + ".jsonl"));
+        }
+    }
+
+    private List<AuditRecord> parse(List<String> lines) {
+        List<AuditRecord> records = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                records.add(objectMapper.readValue(line, AuditRecord.class));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable audit spill record: {}", e.getMessage());
+            }
+        }
+        return records;
+    }
+
+    private boolean isSpillFile(Path file) {
+        return file.getFileName().toString().startsWith(SEALED_PREFIX)
+            || file.getFileName().toString().equals(ACTIVE_FILE);
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
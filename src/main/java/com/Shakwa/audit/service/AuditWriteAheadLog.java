@@ -0,0 +1,361 @@
+package com.Shakwa.audit.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.stereotype.Component;
+
+import com.Shakwa.audit.dto.AuditRecord;
+import com.Shakwa.config.AuditPipelineProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only write-ahead log for audit records on local disk.
+ * Records are appended to fixed-size memory-mapped segments (audit-wal-NNNNNNNNNN.seg)
+ * as [length][crc32][json]. Appends are plain memory copies; a background thread forces
+ * the dirty range to disk every fsync-interval, so request threads never wait for fsync.
+ *
+ * A position is (segment << 32 | offset) just past a record. The checkpoint file holds the
+ * position up to which records are known to be in audit_events; segments entirely before
+ * it are deleted. On startup the tail of the last segment is validated by CRC and anything
+ * after the last intact record is discarded.
+ */
+@Component
+@Slf4j
+public class AuditWriteAheadLog {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "audit-wal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "audit-wal.checkpoint";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalNanos;
+    private final ObjectMapper objectMapper;
+
+    // Active segment, guarded by this
+    private long activeSegment;
+    private MappedByteBuffer activeBuffer;
+    private int writeOffset;
+    private int syncedOffset;
+    // Segments rolled over but not yet forced by the sync thread, guarded by this
+    private final List<MappedByteBuffer> sealedBuffers = new ArrayList<>();
+
+    // Checkpoint, written only by the pipeline writer thread
+    private MappedByteBuffer checkpointBuffer;
+    private volatile long checkpoint;
+
+    // Read-side mapping cache, used only by the pipeline writer thread
+    private long readSegment = -1;
+    private ByteBuffer readBuffer;
+
+    private volatile boolean open;
+    private Thread syncThread;
+
+    public AuditWriteAheadLog(AuditPipelineProperties properties, ObjectMapper objectMapper) {
+        AuditPipelineProperties.Wal wal = properties.getWal();
+        this.enabled = wal.isEnabled();
+        this.directory = Paths.get(wal.getDirectory());
+        this.segmentSize = (int) Math.min(wal.getSegmentSize().toBytes(), Integer.MAX_VALUE);
+        this.fsyncIntervalNanos = wal.getFsyncInterval().toNanos();
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments();
+        activeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        activeBuffer = map(activeSegment, FileChannel.MapMode.READ_WRITE);
+        writeOffset = recoverWriteOffset(activeBuffer);
+        syncedOffset = writeOffset;
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            checkpointBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        }
+        long firstPosition = position(segments.isEmpty() ? 0 : segments.get(0), 0);
+        // The checkpoint may have reached disk while the records before it did not (torn tail):
+        // never leave it past the recovered end, or new records would count as already written
+        checkpoint = Math.min(Math.max(checkpointBuffer.getLong(0), firstPosition), endPosition());
+        if (checkpoint != checkpointBuffer.getLong(0)) {
+            checkpointBuffer.putLong(0, checkpoint);
+            checkpointBuffer.force();
+        }
+
+        open = true;
+        syncThread = new Thread(this::runSync, "audit-wal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+        log.info("Audit WAL opened at {} (segment {}, {} bytes pending replay)",
+            directory.toAbsolutePath(), activeSegment, backlogBytes());
+    }
+
+    @PreDestroy
+    void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        LockSupport.unpark(syncThread);
+        try {
+            syncThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+    }
+
+    public boolean isEnabled() {
+        return enabled && open;
+    }
+
+    /**
+     * Appends a record (not yet fsynced)
+     * @return position just past the record
+     */
+    public synchronized long append(AuditRecord record) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(record);
+        int needed = HEADER_BYTES + payload.length;
+        if (needed > segmentSize - HEADER_BYTES) {
+            throw new IOException("Audit record of " + payload.length + " bytes exceeds the WAL segment size");
+        }
+        // Keep room for an empty header that marks the end of the segment
+        if (writeOffset + needed > segmentSize - HEADER_BYTES) {
+            roll();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        activeBuffer.put(writeOffset + HEADER_BYTES, payload);
+        activeBuffer.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+        // Length last: a record is visible only once it is complete
+        activeBuffer.putInt(writeOffset, payload.length);
+        writeOffset += needed;
+        return position(activeSegment, writeOffset);
+    }
+
+    public synchronized long endPosition() {
+        return position(activeSegment, writeOffset);
+    }
+
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Reads up to maxRecords records starting at from, never past to
+     * @return position just past the last record read (or the next segment start)
+     */
+    public long read(long from, long to, int maxRecords, List<AuditRecord> into) throws IOException {
+        long position = from;
+        while (into.size() < maxRecords && position < to) {
+            long segment = segmentOf(position);
+            int offset = offsetOf(position);
+            ByteBuffer buffer = readBuffer(segment);
+            int length = offset + HEADER_BYTES <= segmentSize ? buffer.getInt(offset) : 0;
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                if (segment >= segmentOf(to)) {
+                    break;
+                }
+                // End of a sealed segment
+                position = position(segment + 1, 0);
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                log.warn("Skipping corrupt audit WAL record at segment {} offset {}", segment, offset);
+            } else {
+                into.add(objectMapper.readValue(payload, AuditRecord.class));
+            }
+            position = position(segment, offset + HEADER_BYTES + length);
+        }
+        return position;
+    }
+
+    /**
+     * Records that everything before position is in the database and drops consumed segments
+     */
+    public void advanceCheckpoint(long position) {
+        if (position <= checkpoint) {
+            return;
+        }
+        checkpoint = position;
+        checkpointBuffer.putLong(0, position);
+        long firstNeeded = segmentOf(position);
+        try {
+            for (long segment : listSegments()) {
+                if (segment < firstNeeded && segment != currentSegment()) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete consumed audit WAL segments: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Bytes appended but not yet checkpointed
+     */
+    public long backlogBytes() {
+        if (!open) {
+            return 0;
+        }
+        long end = endPosition();
+        return (segmentOf(end) - segmentOf(checkpoint)) * (long) segmentSize
+            + offsetOf(end) - offsetOf(checkpoint);
+    }
+
+    // The sealed segment is forced by the sync thread, not under the append lock
+    private void roll() throws IOException {
+        sealedBuffers.add(activeBuffer);
+        if (syncThread != null) {
+            LockSupport.unpark(syncThread);
+        }
+        activeSegment++;
+        activeBuffer = map(activeSegment, FileChannel.MapMode.READ_WRITE);
+        writeOffset = 0;
+        syncedOffset = 0;
+    }
+
+    private void runSync() {
+        while (open) {
+            LockSupport.parkNanos(fsyncIntervalNanos);
+            try {
+                sync();
+            } catch (Exception e) {
+                log.error("Audit WAL fsync failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // One fsync covers every record appended since the previous one
+    private void sync() {
+        List<MappedByteBuffer> sealed;
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        synchronized (this) {
+            sealed = List.copyOf(sealedBuffers);
+            sealedBuffers.clear();
+            buffer = activeBuffer;
+            from = syncedOffset;
+            to = writeOffset;
+        }
+        for (MappedByteBuffer segment : sealed) {
+            segment.force();
+        }
+        if (to > from) {
+            buffer.force(from, to - from);
+            synchronized (this) {
+                if (buffer == activeBuffer) {
+                    syncedOffset = Math.max(syncedOffset, to);
+                }
+            }
+        }
+        checkpointBuffer.force();
+    }
+
+    private synchronized long currentSegment() {
+        return activeSegment;
+    }
+
+    private ByteBuffer readBuffer(long segment) throws IOException {
+        synchronized (this) {
+            if (segment == activeSegment) {
+                return activeBuffer.duplicate();
+            }
+        }
+        if (segment != readSegment) {
+            readBuffer = map(segment, FileChannel.MapMode.READ_ONLY);
+            readSegment = segment;
+        }
+        return readBuffer;
+    }
+
+    private MappedByteBuffer map(long segment, FileChannel.MapMode mode) throws IOException {
+        Path path = segmentPath(segment);
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, segmentSize);
+        }
+    }
+
+    /**
+     * Walks the intact records of the last segment and clears whatever follows them
+     */
+    private int recoverWriteOffset(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                log.warn("Discarding torn audit WAL record at offset {}", offset);
+                break;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        for (int i = offset; i < segmentSize; i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return offset;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static long position(long segment, int offset) {
+        return (segment << 32) | offset;
+    }
+
+    private static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+}
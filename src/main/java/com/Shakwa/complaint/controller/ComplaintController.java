@@ -1,8 +1,9 @@
 package com.Shakwa.complaint.controller;
 
+import java.io.IOException;
 import java.util.List;
 
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,14 +15,22 @@ import com.Shakwa.complaint.Enum.Governorate;
 import com.Shakwa.complaint.dto.ComplaintDTORequest;
 import com.Shakwa.complaint.dto.ComplaintDTOResponse;
 import com.Shakwa.complaint.dto.ComplaintHistoryDTO;
+import com.Shakwa.complaint.dto.UploadSessionCreateDTO;
+import com.Shakwa.complaint.dto.UploadSessionDTO;
+import com.Shakwa.complaint.service.AttachmentUploadService;
 import com.Shakwa.complaint.service.ComplaintService;
 import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.user.dto.CursorPageDTO;
 import com.Shakwa.user.dto.PaginationDTO;
 import com.Shakwa.utils.response.FileDownloadResponse;
+import com.Shakwa.utils.response.FileDownloadWriter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("api/v1/complaints")
@@ -29,9 +38,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class ComplaintController {
 
     private final ComplaintService complaintService;
+    private final AttachmentUploadService attachmentUploadService;
 
-    public ComplaintController(ComplaintService complaintService) {
+    public ComplaintController(ComplaintService complaintService, AttachmentUploadService attachmentUploadService) {
         this.complaintService = complaintService;
+        this.attachmentUploadService = attachmentUploadService;
     }
 
     @GetMapping
@@ -175,6 +186,35 @@ public class ComplaintController {
         return ResponseEntity.ok(complaints);
     }
 
+    @GetMapping("filter/cursor")
+    @Operation(
+        summary = "Filter complaints (cursor pagination)",
+        description = "Same filters and access control as /filter, but paginated with an opaque cursor " +
+                     "(newest first) instead of page numbers, for infinite-scroll clients.\n\n" +
+                     "**Pagination:**\n" +
+                     "Omit `cursor` for the first page, then pass the returned `nextCursor` to get the next one. " +
+                     "`hasNext` is false on the last page. No total count is returned, so every page is fetched in constant time."
+    )
+    public ResponseEntity<CursorPageDTO<ComplaintDTOResponse>> filterComplaintsByCursor(
+            @Parameter(description = "Filter by complaint status", example = "PENDING")
+            @RequestParam(required = false) ComplaintStatus status,
+            @Parameter(description = "Filter by complaint type", example = "تأخر_في_إنجاز_معاملة")
+            @RequestParam(required = false) ComplaintType complaintType,
+            @Parameter(description = "Filter by governorate", example = "دمشق")
+            @RequestParam(required = false) Governorate governorate,
+            @Parameter(description = "Filter by government agency (admins only)", example = "وزارة الصحة")
+            @RequestParam(required = false) GovernmentAgencyType governmentAgency,
+            @Parameter(description = "Filter by citizen ID (admins only)", example = "1")
+            @RequestParam(required = false) Long citizenId,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page (omit for the first page)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per page (max 100). Default: 10.", example = "10")
+            @RequestParam(defaultValue = "10") int size) {
+        CursorPageDTO<ComplaintDTOResponse> complaints = complaintService.filterComplaintsByCursor(
+            status, complaintType, governorate, governmentAgency, citizenId, cursor, size);
+        return ResponseEntity.ok(complaints);
+    }
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
         summary = "Create complaint", 
@@ -197,17 +237,69 @@ public class ComplaintController {
         return ResponseEntity.ok(complaintService.addAttachments(id, files));
     }
 
+    @PostMapping("{id}/uploads")
+    @Operation(
+        summary = "Start resumable upload",
+        description = "Open a chunked upload session for one (large) attachment of the complaint owner's complaint. " +
+                     "Send the file with PUT {id}/uploads/{uploadId} in chunks, then commit it."
+    )
+    public ResponseEntity<UploadSessionDTO> createUpload(
+            @PathVariable Long id,
+            @Valid @RequestBody UploadSessionCreateDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachmentUploadService.createSession(id, dto));
+    }
+
+    @PutMapping(value = "{id}/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+        summary = "Upload chunk",
+        description = "Append the raw request body to the upload. Upload-Offset must equal the session's current offset " +
+                     "(409 otherwise). If the connection drops, query the upload and resume from the returned offset."
+    )
+    public ResponseEntity<UploadSessionDTO> uploadChunk(
+            @PathVariable Long id,
+            @PathVariable String uploadId,
+            @Parameter(description = "Byte offset of this chunk in the file", example = "0")
+            @RequestHeader("Upload-Offset") long offset,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(attachmentUploadService.appendChunk(id, uploadId, offset, request.getInputStream()));
+    }
+
+    @GetMapping("{id}/uploads/{uploadId}")
+    @Operation(summary = "Get upload progress", description = "Current offset of a resumable upload")
+    public ResponseEntity<UploadSessionDTO> getUpload(
+            @PathVariable Long id,
+            @PathVariable String uploadId) {
+        return ResponseEntity.ok(attachmentUploadService.getProgress(id, uploadId));
+    }
+
+    @PostMapping("{id}/uploads/{uploadId}/commit")
+    @Operation(summary = "Commit upload", description = "Attach a fully received upload to the complaint")
+    public ResponseEntity<ComplaintDTOResponse> commitUpload(
+            @PathVariable Long id,
+            @PathVariable String uploadId) {
+        return ResponseEntity.ok(complaintService.commitUpload(id, uploadId));
+    }
+
+    @DeleteMapping("{id}/uploads/{uploadId}")
+    @Operation(summary = "Abort upload", description = "Cancel a resumable upload and discard the received data")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable Long id,
+            @PathVariable String uploadId) {
+        attachmentUploadService.abort(id, uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("{id}/attachments/{attachmentId}")
-    @Operation(summary = "Download attachment", description = "Download a single attachment if authorized")
-    public ResponseEntity<?> downloadAttachment(
+    @Operation(summary = "Download attachment", description = "Download a single attachment if authorized. " +
+            "The response carries the file checksum as ETag; If-None-Match returns 304 and Range/If-Range " +
+            "return 206 with the requested byte range (resumable downloads).")
+    public void downloadAttachment(
             @PathVariable Long id,
-            @PathVariable Long attachmentId) {
+            @PathVariable Long attachmentId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         FileDownloadResponse download = complaintService.downloadAttachment(id, attachmentId);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + download.filename() + "\"")
-                .contentType(MediaType.parseMediaType(download.contentType()))
-                .contentLength(download.size())
-                .body(download.resource());
+        FileDownloadWriter.write(request, response, download);
     }
 
     @DeleteMapping("{id}/attachments/{attachmentId}")
@@ -0,0 +1,34 @@
+package com.Shakwa.complaint.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for starting a chunked attachment upload
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to start a resumable (chunked) attachment upload")
+public class UploadSessionCreateDTO {
+
+    @Schema(description = "Original file name", example = "evidence.pdf")
+    @NotBlank(message = "File name is required")
+    private String filename;
+
+    @Schema(description = "Total file size in bytes", example = "52428800")
+    @Positive(message = "File size must be positive")
+    private long size;
+
+    @Schema(description = "Optional SHA-256 of the whole file (hex); the upload is rejected on commit if it does not match",
+            example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "Checksum must be a hex SHA-256")
+    private String checksum;
+}
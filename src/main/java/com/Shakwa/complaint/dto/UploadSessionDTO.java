@@ -0,0 +1,34 @@
+package com.Shakwa.complaint.dto;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Progress of a resumable attachment upload")
+public class UploadSessionDTO {
+
+    @Schema(description = "Upload session ID", example = "3f2b8c1e-7d4a-4f7e-9b1a-2c5d6e7f8a9b")
+    private String id;
+
+    @Schema(description = "Complaint ID", example = "1")
+    private Long complaintId;
+
+    @Schema(description = "Original file name", example = "evidence.pdf")
+    private String filename;
+
+    @Schema(description = "Total file size in bytes", example = "52428800")
+    private long size;
+
+    @Schema(description = "Bytes received so far; the next chunk must start at this offset", example = "8388608")
+    private long offset;
+
+    @Schema(description = "Whether every byte has been received and the upload can be committed")
+    private boolean complete;
+
+    @Schema(description = "When the session expires if no further chunk arrives")
+    private LocalDateTime expiresAt;
+}
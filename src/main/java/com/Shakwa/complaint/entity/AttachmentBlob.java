@@ -0,0 +1,53 @@
+package com.Shakwa.complaint.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ملف مخزّن حسب محتواه (content-addressed)
+ * One stored file per distinct content, keyed by its SHA-256. ref_count is the number of
+ * complaint attachments pointing at it; a blob at zero is garbage-collected with its file.
+ * Rows are written only through native upserts in AttachmentBlobRepository.
+ */
+@Entity
+@Table(name = "attachment_blobs", indexes = {
+    @Index(name = "idx_attachment_blobs_unreferenced", columnList = "ref_count,updated_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentBlob {
+
+    @Id
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    // مسار الملف نسبةً إلى جذر التخزين
+    @Column(name = "storage_path", nullable = false)
+    private String storagePath;
+
+    @Column(name = "file_size", nullable = false)
+    private long size;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -35,7 +35,7 @@ import lombok.NoArgsConstructor;
 @Table(name = "complaints")
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "complaint_seq", sequenceName = "complaint_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "complaint_seq", sequenceName = "complaint_id_seq", allocationSize = 50)
 public class Complaint extends AuditedEntity {
     
     @Override
@@ -91,6 +91,11 @@ public class Complaint extends AuditedEntity {
     @Column(name = "tracking_number", nullable = false, unique = true, updatable = false, length = 48)
     private String trackingNumber;
 
+    // آخر نشاط على الشكوى - يُحدَّث فقط عبر ComplaintHistoryService (ComplaintRepository.touchLastActivity)
+    // updatable = false حتى لا يكتب الكيان قيمة قديمة فوق القيمة المحدثة
+    @Column(name = "last_activity_at", updatable = false)
+    private LocalDateTime lastActivityAt;
+
     // Optimistic locking version column
     @Version
     @Column(name = "version", nullable = false)
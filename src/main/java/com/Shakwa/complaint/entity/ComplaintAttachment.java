@@ -23,7 +23,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-@SequenceGenerator(name = "complaint_attachment_seq", sequenceName = "complaint_attachment_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "complaint_attachment_seq", sequenceName = "complaint_attachment_id_seq", allocationSize = 50)
 public class ComplaintAttachment extends BaseEntity {
 
     @Override
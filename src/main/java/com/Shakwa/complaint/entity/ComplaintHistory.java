@@ -28,7 +28,7 @@ import lombok.NoArgsConstructor;
 @Table(name = "complaint_history")
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "complaint_history_seq", sequenceName = "complaint_history_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "complaint_history_seq", sequenceName = "complaint_history_id_seq", allocationSize = 50)
 public class ComplaintHistory extends AuditedEntity {
     
     @Override
@@ -35,7 +35,7 @@ import lombok.NoArgsConstructor;
 @Table(name = "information_requests")
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "info_request_seq", sequenceName = "information_request_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "info_request_seq", sequenceName = "information_request_id_seq", allocationSize = 50)
 public class InformationRequest extends AuditedEntity {
     
     @Override
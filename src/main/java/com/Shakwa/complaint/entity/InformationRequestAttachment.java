@@ -31,7 +31,7 @@ import lombok.NoArgsConstructor;
 )
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "info_req_att_seq", sequenceName = "information_request_attachment_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "info_req_att_seq", sequenceName = "information_request_attachment_id_seq", allocationSize = 50)
 public class InformationRequestAttachment extends AuditedEntity {
     
     @Override
@@ -0,0 +1,68 @@
+package com.Shakwa.complaint.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * جلسة رفع مرفق على دفعات (chunked upload)
+ * A resumable upload of one attachment: chunks are written to <root>/.uploads/<id>.part and
+ * received_size is how many bytes of it are durably written, i.e. where the next chunk starts.
+ * The id is random (UUID) and is the only handle the client has on the session.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+    @Index(name = "idx_upload_sessions_complaint_id", columnList = "complaint_id"),
+    @Index(name = "idx_upload_sessions_expires_at", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "complaint_id", nullable = false)
+    private Long complaintId;
+
+    // المواطن صاحب الشكوى الذي بدأ الرفع
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "original_filename", nullable = false)
+    private String originalFilename;
+
+    @Column(name = "file_size", nullable = false)
+    private long size;
+
+    @Column(name = "received_size", nullable = false)
+    private long receivedSize;
+
+    // SHA-256 announced by the client, checked when the upload is committed
+    @Column(name = "expected_checksum", length = 64)
+    private String expectedChecksum;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public boolean isComplete() {
+        return receivedSize == size;
+    }
+}
@@ -0,0 +1,63 @@
+package com.Shakwa.complaint.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.Shakwa.complaint.entity.AttachmentBlob;
+
+/**
+ * Reference counts of content-addressed attachment blobs.
+ * Every write is a single native statement, so the blob row is locked until the caller's
+ * transaction ends and concurrent uploads/deletes of the same content are serialized.
+ */
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    /**
+     * Add a reference to the blob, creating the row on first upload
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO attachment_blobs (checksum, storage_path, file_size, content_type, ref_count, created_at, updated_at)
+        VALUES (:checksum, :storagePath, :size, :contentType, 1, LOCALTIMESTAMP, LOCALTIMESTAMP)
+        ON CONFLICT (checksum)
+        DO UPDATE SET ref_count = attachment_blobs.ref_count + 1, updated_at = LOCALTIMESTAMP
+        """, nativeQuery = true)
+    int acquire(@Param("checksum") String checksum,
+                @Param("storagePath") String storagePath,
+                @Param("size") long size,
+                @Param("contentType") String contentType);
+
+    /**
+     * Drop one reference
+     * @return 0 when there is no such blob (or it had no references left)
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE attachment_blobs
+        SET ref_count = ref_count - 1, updated_at = LOCALTIMESTAMP
+        WHERE checksum = :checksum AND ref_count > 0
+        """, nativeQuery = true)
+    int release(@Param("checksum") String checksum);
+
+    /**
+     * Delete the blob row if nothing references it any more
+     */
+    @Modifying
+    @Query(value = "DELETE FROM attachment_blobs WHERE checksum = :checksum AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("checksum") String checksum);
+
+    @Query(value = """
+        SELECT checksum FROM attachment_blobs
+        WHERE ref_count = 0 AND updated_at < :before
+        ORDER BY updated_at
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> findUnreferenced(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -1,14 +1,33 @@
 package com.Shakwa.complaint.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.Shakwa.complaint.entity.ComplaintAttachment;
 
 public interface ComplaintAttachmentRepository extends JpaRepository<ComplaintAttachment, Long> {
 
     Optional<ComplaintAttachment> findByIdAndComplaintId(Long id, Long complaintId);
-}
 
+    /**
+     * [id, storage_path] of attachments still in the unsharded layout (<trackingNumber>/<file>),
+     * in id order after afterId. Rows locked by a migrator on another node are skipped.
+     */
+    @Query(value = """
+        SELECT id, storage_path FROM complaint_attachments
+        WHERE id > :afterId AND storage_path ~ '^[^/]+/[^/]+$'
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Object[]> findUnshardedForUpdate(@Param("afterId") long afterId, @Param("limit") int limit);
 
+    @Modifying
+    @Query(value = "UPDATE complaint_attachments SET storage_path = :storagePath WHERE id = :id", nativeQuery = true)
+    int updateStoragePath(@Param("id") long id, @Param("storagePath") String storagePath);
+}
@@ -0,0 +1,35 @@
+package com.Shakwa.complaint.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.Shakwa.complaint.entity.UploadSession;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    Optional<UploadSession> findByIdAndComplaintId(String id, Long complaintId);
+
+    /**
+     * Lock the session while a chunk is appended, or for commit/abort, so concurrent requests
+     * on one upload are applied one at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id AND s.complaintId = :complaintId")
+    Optional<UploadSession> findByIdAndComplaintIdForUpdate(@Param("id") String id, @Param("complaintId") Long complaintId);
+
+    long countByComplaintId(Long complaintId);
+
+    @Query(value = "SELECT id FROM upload_sessions WHERE expires_at < :now ORDER BY expires_at LIMIT :limit",
+           nativeQuery = true)
+    List<String> findExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
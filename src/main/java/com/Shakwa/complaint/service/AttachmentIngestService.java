@@ -0,0 +1,89 @@
+package com.Shakwa.complaint.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.complaint.entity.ComplaintAttachment;
+import com.Shakwa.complaint.storage.AttachmentStorageService;
+import com.Shakwa.complaint.storage.AttachmentStorageService.StoredFile;
+import com.Shakwa.user.entity.BaseUser;
+import com.Shakwa.utils.exception.ConflictException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * استقبال المرفقات - مشترك بين الشكاوى وطلبات المعلومات
+ * Validates an upload batch and stores each file in a single pass (type sniffing, checksum
+ * and write happen in AttachmentStorageService.store), returning unsaved attachment entities.
+ * Must run in the caller's transaction: the storage releases what it stored if it rolls back.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttachmentIngestService {
+
+    private static final long MAX_FILE_SIZE_BYTES = 10 * 1024 * 1024; // 10 MB
+    private static final long MAX_TOTAL_BYTES = 50 * 1024 * 1024; // 50 MB
+    private static final int MAX_FILES_PER_OPERATION = 10;
+
+    private final AttachmentStorageService attachmentStorageService;
+
+    /**
+     * Store the files for the complaint; the caller links and persists the returned attachments
+     */
+    public List<ComplaintAttachment> ingest(Complaint complaint, List<MultipartFile> files, BaseUser uploader) {
+        validateFiles(files);
+        List<ComplaintAttachment> attachments = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            StoredFile stored = attachmentStorageService.store(file, complaint.getTrackingNumber());
+            attachments.add(toAttachment(complaint, file.getOriginalFilename(), stored, uploader));
+        }
+        return attachments;
+    }
+
+    /**
+     * Store a completed chunked upload claimed (and verified) by AttachmentUploadService;
+     * the staged file is consumed
+     */
+    public ComplaintAttachment ingestStaged(Complaint complaint, Path stagedFile, String originalFilename,
+                                            BaseUser uploader) {
+        StoredFile stored = attachmentStorageService.storeStaged(stagedFile, originalFilename, complaint.getTrackingNumber());
+        return toAttachment(complaint, originalFilename, stored, uploader);
+    }
+
+    private static ComplaintAttachment toAttachment(Complaint complaint, String originalFilename, StoredFile stored,
+                                                    BaseUser uploader) {
+        ComplaintAttachment attachment = new ComplaintAttachment();
+        attachment.setComplaint(complaint);
+        attachment.setOriginalFilename(originalFilename);
+        attachment.setStoredFilename(stored.storedFilename());
+        attachment.setStoragePath(stored.relativePath());
+        attachment.setContentType(stored.contentType());
+        attachment.setSize(stored.size());
+        attachment.setChecksum(stored.checksum());
+        attachment.setUploadedBy(uploader);
+        attachment.setUploadedAt(LocalDateTime.now());
+        return attachment;
+    }
+
+    private void validateFiles(List<MultipartFile> files) {
+        if (files.size() > MAX_FILES_PER_OPERATION) {
+            throw new ConflictException("Cannot upload more than " + MAX_FILES_PER_OPERATION + " files at once");
+        }
+        long totalSize = 0;
+        for (MultipartFile file : files) {
+            if (file.getSize() > MAX_FILE_SIZE_BYTES) {
+                throw new ConflictException("File " + file.getOriginalFilename() + " exceeds maximum size of 10 MB");
+            }
+            totalSize += file.getSize();
+        }
+        if (totalSize > MAX_TOTAL_BYTES) {
+            throw new ConflictException("Total attachments size exceeds 50 MB limit");
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.Shakwa.complaint.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.Shakwa.complaint.dto.UploadSessionCreateDTO;
+import com.Shakwa.complaint.dto.UploadSessionDTO;
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.complaint.entity.UploadSession;
+import com.Shakwa.complaint.repository.ComplaintRepository;
+import com.Shakwa.complaint.repository.UploadSessionRepository;
+import com.Shakwa.complaint.storage.AttachmentType;
+import com.Shakwa.complaint.storage.ComplaintStorageProperties;
+import com.Shakwa.user.repository.CitizenRepo;
+import com.Shakwa.user.repository.EmployeeRepository;
+import com.Shakwa.user.repository.UserRepository;
+import com.Shakwa.user.service.BaseSecurityService;
+import com.Shakwa.utils.exception.ConflictException;
+import com.Shakwa.utils.exception.ResourceNotFoundException;
+import com.Shakwa.utils.exception.UnAuthorizedException;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * رفع المرفقات الكبيرة على دفعات مع إمكانية الاستئناف
+ * Resumable uploads: the citizen opens a session for one file, sends it in chunks that each
+ * start at the session's current offset, and commits it (ComplaintService.commitUpload) once
+ * every byte has arrived. Chunks are streamed from the request body to disk, so neither the
+ * multipart limits nor the servlet's multipart buffering apply; a dropped connection keeps the
+ * bytes that made it and the client resumes from the reported offset.
+ */
+@Service
+public class AttachmentUploadService extends BaseSecurityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentUploadService.class);
+
+    private static final int MAX_OPEN_SESSIONS_PER_COMPLAINT = 10;
+    private static final int SWEEP_BATCH_SIZE = 500;
+    private static final int BUFFER_SIZE = 8192;
+    private static final String STAGED_SUFFIX = ".part";
+    private static final String CHUNK_SUFFIX = ".chunk";
+    private static final String CLAIM_SUFFIX = ".claim";
+
+    private final ComplaintRepository complaintRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ComplaintStorageProperties storageProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+
+    public AttachmentUploadService(ComplaintRepository complaintRepository,
+                                   UploadSessionRepository uploadSessionRepository,
+                                   ComplaintStorageProperties storageProperties,
+                                   PlatformTransactionManager transactionManager,
+                                   UserRepository userRepository,
+                                   CitizenRepo citizenRepo,
+                                   EmployeeRepository employeeRepository) {
+        super(userRepository, citizenRepo, employeeRepository);
+        this.complaintRepository = complaintRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.storageProperties = storageProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional
+    public UploadSessionDTO createSession(Long complaintId, UploadSessionCreateDTO dto) {
+        Complaint complaint = complaintRepository.findById(complaintId)
+                .orElseThrow(() -> new EntityNotFoundException("Complaint not found with ID: " + complaintId));
+        ensureOwner(complaint.getCitizen().getId());
+
+        if (dto.getSize() > storageProperties.getUploadMaxSize().toBytes()) {
+            throw new ConflictException("File " + dto.getFilename() + " exceeds maximum size of "
+                    + storageProperties.getUploadMaxSize().toMegabytes() + " MB");
+        }
+        if (uploadSessionRepository.countByComplaintId(complaintId) >= MAX_OPEN_SESSIONS_PER_COMPLAINT) {
+            throw new ConflictException("Cannot have more than " + MAX_OPEN_SESSIONS_PER_COMPLAINT
+                    + " uploads in progress for a complaint");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .complaintId(complaintId)
+                .ownerId(getCurrentUserId())
+                .originalFilename(StringUtils.cleanPath(dto.getFilename()))
+                .size(dto.getSize())
+                .receivedSize(0)
+                .expectedChecksum(dto.getChecksum() != null ? dto.getChecksum().toLowerCase() : null)
+                .createdAt(now)
+                .updatedAt(now)
+                .expiresAt(now.plus(storageProperties.getUploadSessionTtl()))
+                .build();
+        try {
+            Files.createDirectories(storageProperties.getUploadDirectory());
+            Files.createFile(stagedFile(session.getId()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create upload " + session.getOriginalFilename(), e);
+        }
+        return toDTO(uploadSessionRepository.save(session));
+    }
+
+    /**
+     * Write a chunk starting at offset, which must be the session's current offset.
+     * The body is received into a temp file of its own with no transaction open; it is then
+     * appended to the staged file while the session row is locked, so a concurrent request at
+     * the same offset cannot overwrite bytes that were already acknowledged.
+     */
+    public UploadSessionDTO appendChunk(Long complaintId, String uploadId, long offset, InputStream body) {
+        UploadSession session = findOwnSession(complaintId, uploadId);
+        if (offset != session.getReceivedSize()) {
+            throw new ConflictException("Upload offset mismatch: expected " + session.getReceivedSize() + ", got " + offset);
+        }
+        long remaining = session.getSize() - offset;
+        Path chunk = null;
+        try {
+            chunk = Files.createTempFile(storageProperties.getUploadDirectory(), uploadId + ".", CHUNK_SUFFIX);
+            long received = 0;
+            IOException interrupted = null;
+            try (FileChannel channel = FileChannel.open(chunk, StandardOpenOption.WRITE)) {
+                ReadableByteChannel in = Channels.newChannel(body);
+                try {
+                    while (received < remaining) {
+                        long transferred = channel.transferFrom(in, received, remaining - received);
+                        if (transferred == 0) {
+                            break;
+                        }
+                        received += transferred;
+                    }
+                    if (received == remaining && body.read() != -1) {
+                        throw new ConflictException("Chunk runs past the declared file size of " + session.getSize() + " bytes");
+                    }
+                } catch (IOException e) {
+                    // Connection dropped mid-chunk: keep what arrived so the client resumes from there
+                    interrupted = e;
+                }
+            }
+
+            if (received > 0) {
+                session = applyChunk(complaintId, uploadId, offset, chunk, received);
+            }
+            if (interrupted != null) {
+                throw new UncheckedIOException("Upload chunk interrupted after " + received + " bytes", interrupted);
+            }
+            return toDTO(session);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write upload chunk", e);
+        } finally {
+            if (chunk != null) {
+                deleteQuietly(chunk);
+            }
+        }
+    }
+
+    private UploadSession applyChunk(Long complaintId, String uploadId, long offset, Path chunk, long length) {
+        return transactionTemplate.execute(status -> {
+            UploadSession locked = lockOwnSession(complaintId, uploadId);
+            if (locked.getReceivedSize() != offset) {
+                throw new ConflictException("Upload was changed by another request; query its offset and resume");
+            }
+            try (FileChannel source = FileChannel.open(chunk, StandardOpenOption.READ);
+                 FileChannel staged = FileChannel.open(stagedFile(uploadId), StandardOpenOption.WRITE)) {
+                long copied = 0;
+                while (copied < length) {
+                    copied += source.transferTo(copied, length - copied, staged.position(offset + copied));
+                }
+                staged.force(false);
+            } catch (NoSuchFileException e) {
+                throw new ResourceNotFoundException("Upload session not found");
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write upload chunk", e);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            locked.setReceivedSize(offset + length);
+            locked.setUpdatedAt(now);
+            locked.setExpiresAt(now.plus(storageProperties.getUploadSessionTtl()));
+            uploadSessionRepository.save(locked);
+            return locked;
+        });
+    }
+
+    public UploadSessionDTO getProgress(Long complaintId, String uploadId) {
+        return toDTO(findOwnSession(complaintId, uploadId));
+    }
+
+    @Transactional
+    public void abort(Long complaintId, String uploadId) {
+        UploadSession session = lockOwnSession(complaintId, uploadId);
+        uploadSessionRepository.delete(session);
+        deleteQuietly(stagedFile(uploadId));
+    }
+
+    /**
+     * A claimed upload: its session and the file to hand to AttachmentStorageService.storeStaged,
+     * which consumes it
+     */
+    public record ClaimedUpload(UploadSession session, Path file) {
+    }
+
+    /**
+     * Take a completed session for commit, in the caller's transaction. The session row is
+     * deleted with that transaction and the staged data only once it commits: when anything
+     * after the claim fails (storage, the complaint save), the rollback keeps both and the
+     * client can commit again. The storage gets a hard link to the staged data, so consuming
+     * it does not touch the original.
+     * A staged file that fails the type or checksum check is discarded right away, in a
+     * transaction of its own so the rejection survives the caller's rollback; the client
+     * starts again.
+     */
+    @Transactional
+    public ClaimedUpload claim(Long complaintId, String uploadId) {
+        // Checked before locking: the discard below commits separately and must not wait on our lock
+        UploadSession session = findOwnSession(complaintId, uploadId);
+        if (!session.isComplete()) {
+            throw new ConflictException("Upload is incomplete: received " + session.getReceivedSize()
+                    + " of " + session.getSize() + " bytes");
+        }
+        String problem = verifyStaged(session);
+        if (problem != null) {
+            requiresNewTemplate.executeWithoutResult(status -> uploadSessionRepository.deleteById(uploadId));
+            deleteQuietly(stagedFile(uploadId));
+            throw new ConflictException(problem + ": the upload was discarded, start it again");
+        }
+
+        // A concurrent claim of the same upload waits here and then finds the session gone
+        UploadSession locked = lockOwnSession(complaintId, uploadId);
+        uploadSessionRepository.delete(locked);
+        Path handOff = linkStaged(uploadId);
+        releaseStagedOnCompletion(uploadId, handOff);
+        return new ClaimedUpload(locked, handOff);
+    }
+
+    private Path linkStaged(String uploadId) {
+        Path staged = stagedFile(uploadId);
+        Path handOff = storageProperties.getUploadDirectory().resolve(uploadId + "." + UUID.randomUUID() + CLAIM_SUFFIX);
+        try {
+            try {
+                Files.createLink(handOff, staged);
+            } catch (UnsupportedOperationException | IOException e) {
+                // No hard links on this file system
+                Files.copy(staged, handOff);
+            }
+        } catch (NoSuchFileException e) {
+            throw new ResourceNotFoundException("Upload session not found");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to stage upload " + uploadId + " for commit", e);
+        }
+        return handOff;
+    }
+
+    /**
+     * After commit the staged data is no longer needed; after a rollback only the hand-off is
+     * removed (if the storage did not consume it) and the session stays resumable
+     */
+    private void releaseStagedOnCompletion(String uploadId, Path handOff) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteQuietly(stagedFile(uploadId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                deleteQuietly(handOff);
+                if (status == STATUS_COMMITTED) {
+                    deleteQuietly(stagedFile(uploadId));
+                }
+            }
+        });
+    }
+
+    /**
+     * Checks the staged file's type and announced checksum before anything consumes it
+     * @return why the file is rejected, or null
+     */
+    private String verifyStaged(UploadSession session) {
+        MessageDigest digest = session.getExpectedChecksum() != null ? sha256() : null;
+        try (InputStream in = Files.newInputStream(stagedFile(session.getId()))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = in.readNBytes(buffer, 0, AttachmentType.SNIFF_LENGTH);
+            if (AttachmentType.sniff(buffer, read).isEmpty()) {
+                return "Unsupported file type: " + session.getOriginalFilename();
+            }
+            if (digest == null) {
+                return null;
+            }
+            while (read > 0) {
+                digest.update(buffer, 0, read);
+                read = in.read(buffer);
+            }
+        } catch (NoSuchFileException e) {
+            return "Staged data of " + session.getOriginalFilename() + " is missing";
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read upload " + session.getOriginalFilename(), e);
+        }
+        if (!session.getExpectedChecksum().equals(HexFormat.of().formatHex(digest.digest()))) {
+            return "Checksum mismatch for " + session.getOriginalFilename();
+        }
+        return null;
+    }
+
+    public Path stagedFile(String uploadId) {
+        return storageProperties.getUploadDirectory().resolve(uploadId + STAGED_SUFFIX);
+    }
+
+    /**
+     * Deletes expired sessions with their data, and staged files whose session is gone
+     * (e.g. the complaint was deleted)
+     */
+    @Scheduled(cron = "${storage.complaints.upload-cleanup-cron:0 30 * * * *}")
+    public void removeExpiredSessions() {
+        int removed = 0;
+        List<String> expired;
+        do {
+            expired = uploadSessionRepository.findExpired(LocalDateTime.now(), SWEEP_BATCH_SIZE);
+            for (String uploadId : expired) {
+                uploadSessionRepository.deleteById(uploadId);
+                deleteQuietly(stagedFile(uploadId));
+                removed++;
+            }
+        } while (expired.size() == SWEEP_BATCH_SIZE);
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(storageProperties.getUploadSessionTtl()));
+        try (Stream<Path> files = Files.list(storageProperties.getUploadDirectory())) {
+            for (Path staged : (Iterable<Path>) files::iterator) {
+                String name = staged.getFileName().toString();
+                if (Files.getLastModifiedTime(staged).compareTo(cutoff) >= 0) {
+                    continue;
+                }
+                // Chunks and hand-offs left behind by a crash mid-request, and staged files whose session is gone
+                if (name.endsWith(CHUNK_SUFFIX) || name.endsWith(CLAIM_SUFFIX) || (name.endsWith(STAGED_SUFFIX)
+                        && !uploadSessionRepository.existsById(name.substring(0, name.length() - STAGED_SUFFIX.length())))) {
+                    deleteQuietly(staged);
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            // No uploads staged yet
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired or orphaned attachment uploads", removed);
+        }
+    }
+
+    private UploadSession findOwnSession(Long complaintId, String uploadId) {
+        UploadSession session = uploadSessionRepository.findByIdAndComplaintId(uploadId, complaintId)
+                .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found"));
+        ensureOwner(session.getOwnerId());
+        return session;
+    }
+
+    private UploadSession lockOwnSession(Long complaintId, String uploadId) {
+        UploadSession session = uploadSessionRepository.findByIdAndComplaintIdForUpdate(uploadId, complaintId)
+                .filter(found -> found.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found"));
+        ensureOwner(session.getOwnerId());
+        return session;
+    }
+
+    private void ensureOwner(Long ownerId) {
+        if (!isCurrentUserCitizen()) {
+            throw new UnAuthorizedException("Only citizens can upload attachments to their complaints");
+        }
+        if (!ownerId.equals(getCurrentUserId())) {
+            throw new UnAuthorizedException("You don't own this complaint");
+        }
+    }
+
+    private static UploadSessionDTO toDTO(UploadSession session) {
+        return UploadSessionDTO.builder()
+                .id(session.getId())
+                .complaintId(session.getComplaintId())
+                .filename(session.getOriginalFilename())
+                .size(session.getSize())
+                .offset(session.getReceivedSize())
+                .complete(session.isComplete())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete staged upload {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.Shakwa.complaint.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Shakwa.complaint.repository.ComplaintRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * تعبئة last_activity_at عند تعطيل Flyway
+ * With Flyway disabled, Hibernate adds the last_activity_at column but V8's backfill never runs,
+ * so complaints created before it stay NULL and never show up as overdue. Runs the same
+ * (idempotent) backfill at startup instead. With Flyway enabled V8 covers it.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "false")
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintActivityBackfill {
+
+    private final ComplaintRepository complaintRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int updated = complaintRepository.backfillLastActivity();
+        if (updated > 0) {
+            log.info("Backfilled last_activity_at for {} complaints", updated);
+        }
+    }
+}
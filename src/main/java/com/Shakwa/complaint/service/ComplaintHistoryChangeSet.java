@@ -0,0 +1,68 @@
+package com.Shakwa.complaint.service;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.user.entity.BaseUser;
+
+/**
+ * مجموعة تغييرات سجل الشكوى لعملية واحدة (نفس الشكوى ونفس المستخدم)
+ * Collects the history entries of one business operation; they are inserted together
+ * (one JDBC batch) when the surrounding transaction commits.
+ * Obtain with ComplaintHistoryService.changeSet(complaint, actor).
+ */
+public class ComplaintHistoryChangeSet {
+
+    private final ComplaintHistoryService historyService;
+    private final Complaint complaint;
+    private final BaseUser actor;
+
+    ComplaintHistoryChangeSet(ComplaintHistoryService historyService, Complaint complaint, BaseUser actor) {
+        this.historyService = historyService;
+        this.complaint = complaint;
+        this.actor = actor;
+    }
+
+    public BaseUser getActor() {
+        return actor;
+    }
+
+    public ComplaintHistoryChangeSet created() {
+        historyService.recordCreation(complaint, actor);
+        return this;
+    }
+
+    public ComplaintHistoryChangeSet statusChanged(ComplaintStatus oldStatus, ComplaintStatus newStatus) {
+        historyService.recordStatusChange(complaint, actor, oldStatus, newStatus);
+        return this;
+    }
+
+    /**
+     * Records the field change only if the new value is set and differs from the old one
+     */
+    public ComplaintHistoryChangeSet fieldUpdated(String fieldName, String oldValue, String newValue) {
+        if (newValue != null && !newValue.equals(oldValue)) {
+            historyService.recordFieldUpdate(complaint, actor, fieldName, oldValue, newValue);
+        }
+        return this;
+    }
+
+    public ComplaintHistoryChangeSet attachmentAdded(String fileName, String filePath) {
+        historyService.recordAttachmentAdded(complaint, actor, fileName, filePath);
+        return this;
+    }
+
+    public ComplaintHistoryChangeSet attachmentRemoved(String fileName) {
+        historyService.recordAttachmentRemoved(complaint, actor, fileName);
+        return this;
+    }
+
+    public ComplaintHistoryChangeSet locked() {
+        historyService.recordLocked(complaint, actor);
+        return this;
+    }
+
+    public ComplaintHistoryChangeSet unlocked() {
+        historyService.recordUnlocked(complaint, actor);
+        return this;
+    }
+}
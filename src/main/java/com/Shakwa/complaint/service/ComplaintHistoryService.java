@@ -1,24 +1,36 @@
 package com.Shakwa.complaint.service;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.Shakwa.complaint.Enum.ComplaintStatus;
 import com.Shakwa.complaint.Enum.HistoryActionType;
 import com.Shakwa.complaint.entity.Complaint;
 import com.Shakwa.complaint.entity.ComplaintHistory;
 import com.Shakwa.complaint.repository.ComplaintHistoryRepository;
+import com.Shakwa.complaint.repository.ComplaintRepository;
 import com.Shakwa.user.entity.BaseUser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * Service لإدارة سجل تغييرات الشكوى
+ * Entries recorded inside a transaction are buffered and inserted together just before it
+ * commits (one JDBC batch), with a single last_activity_at update per complaint.
+ * Use changeSet(complaint, actor) to record several changes of one operation.
  */
 @Service
 @Transactional
@@ -27,12 +39,26 @@ public class ComplaintHistoryService {
     private static final Logger logger = LoggerFactory.getLogger(ComplaintHistoryService.class);
     
     private final ComplaintHistoryRepository complaintHistoryRepository;
-    private final ObjectMapper objectMapper;
+    private final ComplaintRepository complaintRepository;
+    // Built once; serializes every metadata map
+    private final ObjectWriter metadataWriter;
+    
+    // Transaction resource key for the entries waiting for commit
+    private static final String PENDING_KEY = ComplaintHistoryService.class.getName() + ".pending";
     
     public ComplaintHistoryService(ComplaintHistoryRepository complaintHistoryRepository,
+                                   ComplaintRepository complaintRepository,
                                    ObjectMapper objectMapper) {
         this.complaintHistoryRepository = complaintHistoryRepository;
-        this.objectMapper = objectMapper;
+        this.complaintRepository = complaintRepository;
+        this.metadataWriter = objectMapper.writerFor(new TypeReference<Map<String, String>>() { });
+    }
+    
+    /**
+     * مجموعة تغييرات لعملية واحدة على الشكوى
+     */
+    public ComplaintHistoryChangeSet changeSet(Complaint complaint, BaseUser actor) {
+        return new ComplaintHistoryChangeSet(this, complaint, actor);
     }
     
     /**
@@ -41,7 +67,7 @@ public class ComplaintHistoryService {
     public void recordCreation(Complaint complaint, BaseUser actor) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.CREATED);
         history.setActionDescription(generateActionDescription(HistoryActionType.CREATED, actor, null, null, null));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -54,7 +80,7 @@ public class ComplaintHistoryService {
         history.setNewValue(newStatus != null ? newStatus.name() : null);
         history.setActionDescription(generateActionDescription(HistoryActionType.STATUS_CHANGED, actor, 
             "status", oldStatus != null ? oldStatus.name() : null, newStatus != null ? newStatus.name() : null));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -67,7 +93,7 @@ public class ComplaintHistoryService {
         history.setNewValue(newValue);
         history.setActionDescription(generateActionDescription(HistoryActionType.UPDATED_FIELDS, actor, 
             fieldName, oldValue, newValue));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -76,19 +102,14 @@ public class ComplaintHistoryService {
     public void recordAttachmentAdded(Complaint complaint, BaseUser actor, String fileName, String filePath) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.ATTACHMENT_ADDED);
         
-        Map<String, String> metadata = new HashMap<>();
+        Map<String, String> metadata = new LinkedHashMap<>();
         metadata.put("fileName", fileName);
         metadata.put("filePath", filePath);
-        
-        try {
-            history.setMetadata(objectMapper.writeValueAsString(metadata));
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing metadata for attachment", e);
-        }
+        history.setMetadata(toMetadata(metadata, "attachment"));
         
         history.setActionDescription(generateActionDescription(HistoryActionType.ATTACHMENT_ADDED, actor, 
             null, null, fileName));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -97,18 +118,11 @@ public class ComplaintHistoryService {
     public void recordAttachmentRemoved(Complaint complaint, BaseUser actor, String fileName) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.ATTACHMENT_REMOVED);
         
-        Map<String, String> metadata = new HashMap<>();
-        metadata.put("fileName", fileName);
-        
-        try {
-            history.setMetadata(objectMapper.writeValueAsString(metadata));
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing metadata for attachment removal", e);
-        }
+        history.setMetadata(toMetadata(Collections.singletonMap("fileName", fileName), "attachment removal"));
         
         history.setActionDescription(generateActionDescription(HistoryActionType.ATTACHMENT_REMOVED, actor, 
             null, fileName, null));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -117,7 +131,7 @@ public class ComplaintHistoryService {
     public void recordLocked(Complaint complaint, BaseUser actor) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.LOCKED);
         history.setActionDescription(generateActionDescription(HistoryActionType.LOCKED, actor, null, null, null));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -126,7 +140,7 @@ public class ComplaintHistoryService {
     public void recordUnlocked(Complaint complaint, BaseUser actor) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.UNLOCKED);
         history.setActionDescription(generateActionDescription(HistoryActionType.UNLOCKED, actor, null, null, null));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -135,18 +149,11 @@ public class ComplaintHistoryService {
     public void recordInfoRequested(Complaint complaint, BaseUser actor, String requestMessage) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.INFO_REQUESTED);
         
-        Map<String, String> metadata = new HashMap<>();
-        metadata.put("requestMessage", requestMessage);
-        
-        try {
-            history.setMetadata(objectMapper.writeValueAsString(metadata));
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing metadata for info request", e);
-        }
+        history.setMetadata(toMetadata(Collections.singletonMap("requestMessage", requestMessage), "info request"));
         
         history.setActionDescription(generateActionDescription(HistoryActionType.INFO_REQUESTED, actor, 
             null, null, requestMessage));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -155,7 +162,7 @@ public class ComplaintHistoryService {
     public void recordInfoProvided(Complaint complaint, BaseUser actor, com.Shakwa.complaint.entity.InformationRequest request) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.INFO_PROVIDED);
         
-        Map<String, String> metadata = new HashMap<>();
+        Map<String, String> metadata = new LinkedHashMap<>();
         metadata.put("requestId", String.valueOf(request.getId()));
         if (request.getResponseMessage() != null) {
             metadata.put("responseMessage", request.getResponseMessage());
@@ -163,12 +170,7 @@ public class ComplaintHistoryService {
         if (request.getAttachments() != null && !request.getAttachments().isEmpty()) {
             metadata.put("attachmentsCount", String.valueOf(request.getAttachments().size()));
         }
-        
-        try {
-            history.setMetadata(objectMapper.writeValueAsString(metadata));
-        } catch (JsonProcessingException e) {
-            logger.error("Error serializing metadata for info provided", e);
-        }
+        history.setMetadata(toMetadata(metadata, "info provided"));
         
         String description = request.getResponseMessage() != null 
             ? String.format("تم توفير معلومات إضافية: %s", request.getResponseMessage())
@@ -176,7 +178,7 @@ public class ComplaintHistoryService {
         
         history.setActionDescription(generateActionDescription(HistoryActionType.INFO_PROVIDED, actor, 
             null, null, description));
-        complaintHistoryRepository.save(history);
+        enqueue(history);
     }
     
     /**
@@ -185,19 +187,80 @@ public class ComplaintHistoryService {
     public void recordInfoRequestCancelled(Complaint complaint, BaseUser actor, com.Shakwa.complaint.entity.InformationRequest request) {
         ComplaintHistory history = new ComplaintHistory(complaint, actor, HistoryActionType.INFO_REQUEST_CANCELLED);
         
-        Map<String, String> metadata = new HashMap<>();
+        Map<String, String> metadata = new LinkedHashMap<>();
         metadata.put("requestId", String.valueOf(request.getId()));
         metadata.put("requestMessage", request.getRequestMessage());
+        history.setMetadata(toMetadata(metadata, "info request cancelled"));
+        
+        history.setActionDescription(generateActionDescription(HistoryActionType.INFO_REQUEST_CANCELLED, actor, 
+            null, null, null));
+        enqueue(history);
+    }
+    
+    /**
+     * إضافة السجل إلى دفعة المعاملة الحالية وتحديث آخر نشاط على الشكوى (last_activity_at)
+     * Without an active transaction the entry is saved immediately.
+     */
+    private void enqueue(ComplaintHistory history) {
+        LocalDateTime activityAt = LocalDateTime.now();
+        Complaint complaint = history.getComplaint();
+        complaint.setLastActivityAt(activityAt);
         
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complaintHistoryRepository.save(history);
+            complaintRepository.touchLastActivity(complaint.getId(), activityAt);
+            return;
+        }
+        
+        PendingHistory pending = (PendingHistory) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            pending = new PendingHistory();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(history, activityAt);
+    }
+    
+    private String toMetadata(Map<String, String> metadata, String context) {
         try {
-            history.setMetadata(objectMapper.writeValueAsString(metadata));
+            return metadataWriter.writeValueAsString(metadata);
         } catch (JsonProcessingException e) {
-            logger.error("Error serializing metadata for info request cancelled", e);
+            logger.error("Error serializing metadata for {}", context, e);
+            return null;
         }
+    }
+    
+    /**
+     * سجلات المعاملة الحالية بانتظار الحفظ
+     * Inserted in beforeCommit so they are part of the same transaction; discarded on rollback.
+     */
+    private class PendingHistory implements TransactionSynchronization {
         
-        history.setActionDescription(generateActionDescription(HistoryActionType.INFO_REQUEST_CANCELLED, actor, 
-            null, null, null));
-        complaintHistoryRepository.save(history);
+        private final List<ComplaintHistory> entries = new ArrayList<>();
+        private final Map<Long, LocalDateTime> lastActivity = new LinkedHashMap<>();
+        
+        void add(ComplaintHistory history, LocalDateTime activityAt) {
+            entries.add(history);
+            lastActivity.merge(history.getComplaint().getId(), activityAt,
+                (previous, current) -> current.isAfter(previous) ? current : previous);
+        }
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (entries.isEmpty()) {
+                return;
+            }
+            complaintHistoryRepository.saveAll(entries);
+            lastActivity.forEach(complaintRepository::touchLastActivity);
+            logger.debug("Flushed {} complaint history entries for {} complaint(s)", entries.size(), lastActivity.size());
+            entries.clear();
+            lastActivity.clear();
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+        }
     }
     
     /**
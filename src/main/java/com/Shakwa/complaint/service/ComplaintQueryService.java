@@ -0,0 +1,105 @@
+package com.Shakwa.complaint.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.Enum.ComplaintType;
+import com.Shakwa.complaint.Enum.Governorate;
+import com.Shakwa.complaint.dto.ComplaintDTOResponse;
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.complaint.mapper.ComplaintMapper;
+import com.Shakwa.complaint.repository.ComplaintRepository;
+import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.user.dto.PaginationDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-model cache for complaint queries.
+ * Caches mapped ComplaintDTOResponse projections (not entities) in "complaintLists":
+ * mapping runs inside the read-only transaction, so lazy associations are resolved before
+ * caching and a cache hit needs no database access.
+ * Keys follow the "dimension:value" format parsed by ComplaintCacheTags for targeted eviction.
+ * Access checks stay in ComplaintService; cached values are shared and must not be mutated.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ComplaintQueryService {
+
+    private final ComplaintRepository complaintRepository;
+    private final ComplaintMapper complaintMapper;
+
+    @Cacheable(value = "complaintLists", key = "'complaint:id:' + #id", unless = "#result == null")
+    public ComplaintDTOResponse findById(Long id) {
+        Optional<Complaint> complaint = complaintRepository.findByIdWithAttachments(id);
+        return complaint.map(complaintMapper::toResponse).orElse(null);
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:all:page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findAll(Pageable pageable) {
+        return toPage(complaintRepository.findAll(pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:citizen:' + #citizenId + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByCitizenId(Long citizenId, Pageable pageable) {
+        return toPage(complaintRepository.findByCitizenId(citizenId, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:agency:' + #governmentAgency.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByGovernmentAgency(GovernmentAgencyType governmentAgency, Pageable pageable) {
+        return toPage(complaintRepository.findByGovernmentAgency(governmentAgency, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:citizen:' + #citizenId + ':agency:' + #governmentAgency.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByCitizenIdAndGovernmentAgency(Long citizenId, GovernmentAgencyType governmentAgency, Pageable pageable) {
+        return toPage(complaintRepository.findByCitizenIdAndGovernmentAgency(citizenId, governmentAgency, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:status:' + #status.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByStatus(ComplaintStatus status, Pageable pageable) {
+        return toPage(complaintRepository.findByStatus(status, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:agency:' + #governmentAgency.name() + ':status:' + #status.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByGovernmentAgencyAndStatus(GovernmentAgencyType governmentAgency, ComplaintStatus status, Pageable pageable) {
+        return toPage(complaintRepository.findByGovernmentAgencyAndStatus(governmentAgency, status, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:type:' + #complaintType.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByComplaintType(ComplaintType complaintType, Pageable pageable) {
+        return toPage(complaintRepository.findByComplaintType(complaintType, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:agency:' + #governmentAgency.name() + ':type:' + #complaintType.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByGovernmentAgencyAndComplaintType(GovernmentAgencyType governmentAgency, ComplaintType complaintType, Pageable pageable) {
+        return toPage(complaintRepository.findByGovernmentAgencyAndComplaintType(governmentAgency, complaintType, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:governorate:' + #governorate.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByGovernorate(Governorate governorate, Pageable pageable) {
+        return toPage(complaintRepository.findByGovernorate(governorate, pageable));
+    }
+
+    @Cacheable(value = "complaintLists", key = "'complaints:agency:' + #governmentAgency.name() + ':governorate:' + #governorate.name() + ':page:' + #pageable.pageNumber + ':size:' + #pageable.pageSize")
+    public PaginationDTO<ComplaintDTOResponse> findByGovernmentAgencyAndGovernorate(GovernmentAgencyType governmentAgency, Governorate governorate, Pageable pageable) {
+        return toPage(complaintRepository.findByGovernmentAgencyAndGovernorate(governmentAgency, governorate, pageable));
+    }
+
+    /**
+     * Map a page of entities to DTOs; the content list is unmodifiable since it is shared via the cache
+     */
+    private PaginationDTO<ComplaintDTOResponse> toPage(Page<Complaint> complaintPage) {
+        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
+        PaginationDTO<ComplaintDTOResponse> pagination = PaginationDTO.of(dtoPage);
+        pagination.setContent(List.copyOf(pagination.getContent()));
+        return pagination;
+    }
+}
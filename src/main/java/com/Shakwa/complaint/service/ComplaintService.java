@@ -3,7 +3,6 @@ package com.Shakwa.complaint.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 import com.Shakwa.complaint.entity.ComplaintHistory;
 import com.Shakwa.complaint.repository.ComplaintHistoryRepository;
@@ -14,14 +13,13 @@ import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import org.apache.tika.Tika;
-
 import jakarta.persistence.criteria.Predicate;
 
 import com.Shakwa.complaint.Enum.ComplaintStatus;
@@ -36,9 +34,10 @@ import com.Shakwa.complaint.mapper.ComplaintHistoryMapper;
 import com.Shakwa.complaint.mapper.ComplaintMapper;
 import com.Shakwa.complaint.repository.ComplaintAttachmentRepository;
 import com.Shakwa.complaint.repository.ComplaintRepository;
+import com.Shakwa.complaint.service.AttachmentUploadService.ClaimedUpload;
 import com.Shakwa.complaint.storage.AttachmentStorageService;
-import com.Shakwa.complaint.storage.AttachmentStorageService.StoredFile;
 import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.user.dto.CursorPageDTO;
 import com.Shakwa.user.dto.PaginationDTO;
 import com.Shakwa.user.entity.BaseUser;
 import com.Shakwa.user.entity.Citizen;
@@ -49,9 +48,12 @@ import com.Shakwa.user.service.BaseSecurityService;
 import com.Shakwa.utils.exception.ConflictException;
 import com.Shakwa.utils.annotation.Audited;
 import com.Shakwa.notification.service.ComplaintNotificationIntegration;
+import com.Shakwa.report.service.ComplaintStatsRollupService;
+import com.Shakwa.report.service.ComplaintStatsRollupService.StatKey;
 import com.Shakwa.utils.exception.LockedException;
 import com.Shakwa.utils.exception.OptimisticLockException;
 import com.Shakwa.utils.exception.UnAuthorizedException;
+import com.Shakwa.utils.request.KeysetCursor;
 import com.Shakwa.utils.response.FileDownloadResponse;
 
 
@@ -73,13 +75,12 @@ public class ComplaintService extends BaseSecurityService {
     private final ComplaintHistoryMapper complaintHistoryMapper;
     private final ComplaintHistoryRepository complaintHistoryRepository;
     private final ComplaintNotificationIntegration complaintNotificationIntegration;
-    private final Tika tika = new Tika();
+    private final ComplaintStatsRollupService complaintStatsRollupService;
+    private final ComplaintQueryService complaintQueryService;
+    private final AttachmentIngestService attachmentIngestService;
+    private final AttachmentUploadService attachmentUploadService;
 
-    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("image/png","image/jpg", "image/jpeg", "application/pdf");
-    private static final long MAX_FILE_SIZE_BYTES = 10 * 1024 * 1024; // 10 MB
-    
-    private static final long MAX_TOTAL_BYTES = 50 * 1024 * 1024; // 50 MB
-    private static final int MAX_FILES_PER_OPERATION = 10;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
     private final EmployeeRepository employeeRepository;
 
     public ComplaintService(ComplaintRepository complaintRepository,
@@ -93,7 +94,11 @@ public class ComplaintService extends BaseSecurityService {
                             ComplaintHistoryService complaintHistoryService,
                             ComplaintHistoryMapper complaintHistoryMapper,
                             ComplaintHistoryRepository complaintHistoryRepository,
-                            ComplaintNotificationIntegration complaintNotificationIntegration) {
+                            ComplaintNotificationIntegration complaintNotificationIntegration,
+                            ComplaintStatsRollupService complaintStatsRollupService,
+                            ComplaintQueryService complaintQueryService,
+                            AttachmentIngestService attachmentIngestService,
+                            AttachmentUploadService attachmentUploadService) {
         super(userRepository, citizenRepo , employeeRepository);
         this.complaintRepository = complaintRepository;
         this.citizenRepo = citizenRepo;
@@ -106,6 +111,10 @@ public class ComplaintService extends BaseSecurityService {
         this.complaintHistoryMapper = complaintHistoryMapper;
         this.complaintHistoryRepository = complaintHistoryRepository;
         this.complaintNotificationIntegration = complaintNotificationIntegration;
+        this.complaintStatsRollupService = complaintStatsRollupService;
+        this.complaintQueryService = complaintQueryService;
+        this.attachmentIngestService = attachmentIngestService;
+        this.attachmentUploadService = attachmentUploadService;
     }
 
     /**
@@ -138,11 +147,12 @@ public class ComplaintService extends BaseSecurityService {
 
         complaint = complaintRepository.save(complaint);
 
-        // تسجيل إنشاء الشكوى في التاريخ
-        complaintHistoryService.recordCreation(complaint, citizen);
+        // تسجيل إنشاء الشكوى في التاريخ (يُحفظ مع المرفقات دفعة واحدة عند الـ commit)
+        ComplaintHistoryChangeSet history = complaintHistoryService.changeSet(complaint, citizen).created();
+        complaintStatsRollupService.recordCreated(complaint);
 
         if (files != null && !files.isEmpty()) {
-            storeAttachments(complaint, files, citizen);
+            storeAttachments(complaint, files, history);
             complaint = complaintRepository.save(complaint);
         }
 
@@ -154,60 +164,59 @@ public class ComplaintService extends BaseSecurityService {
 
     /**
      * الحصول على جميع الشكاوى - للموظفين (حسب جهتهم الحكومية) أو المواطن (شكاويه فقط)
-     * Caching handled at repository level.
+     * Caching handled by ComplaintQueryService (DTO projections).
      */
     public PaginationDTO<ComplaintDTOResponse> getAllComplaints(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Complaint> complaintPage;
+        PaginationDTO<ComplaintDTOResponse> complaintPage;
 
         // إذا كان المستخدم الحالي مواطن، إرجاع شكاويه فقط
         if (isCurrentUserCitizen()) {
-            Citizen currentCitizen = getCurrentCitizen();
-            complaintPage = complaintRepository.findByCitizenId(currentCitizen.getId(), pageable);
+            complaintPage = complaintQueryService.findByCitizenId(getCurrentUserId(), pageable);
         }
         // إذا كان موظف، إرجاع شكاوى جهته الحكومية فقط
         else {
             try {
-                BaseUser currentUser = getCurrentUser();
+                BaseUser currentUser = getCurrentPrincipal();
                 if (currentUser instanceof Employee employee) {
                     if (employee.getGovernmentAgency() == null) {
                         throw new UnAuthorizedException("Employee is not associated with any government agency");
                     }
                     GovernmentAgencyType governmentAgency = employee.getGovernmentAgency();
-                    complaintPage = complaintRepository.findByGovernmentAgency(governmentAgency, pageable);
+                    complaintPage = complaintQueryService.findByGovernmentAgency(governmentAgency, pageable);
                 } else {
                     // إذا لم يكن موظف أو مواطن، إرجاع جميع الشكاوى (للمدير العام)
-                    complaintPage = complaintRepository.findAll(pageable);
+                    complaintPage = complaintQueryService.findAll(pageable);
                 }
             } catch (Exception e) {
                 logger.warn("Could not get current user, assuming admin access: {}", e.getMessage());
-                complaintPage = complaintRepository.findAll(pageable);
+                complaintPage = complaintQueryService.findAll(pageable);
             }
         }
 
-        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
-        return PaginationDTO.of(dtoPage);
+        return complaintPage;
     }
 
     /**
      * الحصول على شكوى محددة حسب ID
      */
     public ComplaintDTOResponse getComplaintById(Long id) {
-        Complaint complaint = complaintRepository.findByIdWithAttachments(id)
-                .orElseThrow(() -> new EntityNotFoundException("Complaint not found with ID: " + id));
+        ComplaintDTOResponse complaint = complaintQueryService.findById(id);
+        if (complaint == null) {
+            throw new EntityNotFoundException("Complaint not found with ID: " + id);
+        }
 
         // إذا كان المستخدم الحالي مواطن، التحقق من أن الشكوى تخصه
         if (isCurrentUserCitizen()) {
-            Citizen currentCitizen = getCurrentCitizen();
-            if (!complaint.getCitizen().getId().equals(currentCitizen.getId())) {
+            if (!getCurrentUserId().equals(complaint.getCitizenId())) {
                 throw new UnAuthorizedException("You don't have access to this complaint");
             }
-            return complaintMapper.toResponse(complaint);
+            return complaint;
         }
 
         // إذا كان موظف، التحقق من أن الشكوى تخص جهته الحكومية
         try {
-            BaseUser currentUser = getCurrentUser();
+            BaseUser currentUser = getCurrentPrincipal();
             if (currentUser instanceof Employee employee) {
                 if (employee.getGovernmentAgency() == null || 
                     !employee.getGovernmentAgency().equals(complaint.getGovernmentAgency())) {
@@ -218,7 +227,7 @@ public class ComplaintService extends BaseSecurityService {
             logger.warn("Could not verify user access, allowing admin access: {}", e.getMessage());
         }
 
-        return complaintMapper.toResponse(complaint);
+        return complaint;
     }
 
     /**
@@ -231,15 +240,14 @@ public class ComplaintService extends BaseSecurityService {
 
         // إذا كان المستخدم الحالي مواطن، التحقق من أن الشكوى تخصه
         if (isCurrentUserCitizen()) {
-            Citizen currentCitizen = getCurrentCitizen();
-            if (!complaint.getCitizen().getId().equals(currentCitizen.getId())) {
+            if (!complaint.getCitizen().getId().equals(getCurrentUserId())) {
                 throw new UnAuthorizedException("You don't have access to this complaint");
             }
         }
         // إذا كان موظف، التحقق من أن الشكوى تخص جهته الحكومية
         else {
             try {
-                BaseUser currentUser = getCurrentUser();
+                BaseUser currentUser = getCurrentPrincipal();
                 if (currentUser instanceof Employee employee) {
                     if (employee.getGovernmentAgency() == null || 
                         !employee.getGovernmentAgency().equals(complaint.getGovernmentAgency())) {
@@ -256,12 +264,12 @@ public class ComplaintService extends BaseSecurityService {
 
     /**
      * الحصول على شكاوى مواطن محدد
-     * Caching handled at repository level.
+     * Caching handled by ComplaintQueryService (DTO projections).
      */
     public PaginationDTO<ComplaintDTOResponse> getComplaintsByCitizenId(Long citizenId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        BaseUser currentUser = getCurrentUser();
-        Page<Complaint> complaintPage;
+        BaseUser currentUser = getCurrentPrincipal();
+        PaginationDTO<ComplaintDTOResponse> complaintPage;
 
         // التحقق من الصلاحيات
         if (currentUser instanceof Employee employee) {
@@ -269,36 +277,34 @@ public class ComplaintService extends BaseSecurityService {
                 throw new UnAuthorizedException("Employee is not associated with any government agency");
             }
             GovernmentAgencyType governmentAgency = employee.getGovernmentAgency();
-            complaintPage = complaintRepository.findByCitizenIdAndGovernmentAgency(citizenId, governmentAgency, pageable);
+            complaintPage = complaintQueryService.findByCitizenIdAndGovernmentAgency(citizenId, governmentAgency, pageable);
         } else {
-            complaintPage = complaintRepository.findByCitizenId(citizenId, pageable);
+            complaintPage = complaintQueryService.findByCitizenId(citizenId, pageable);
         }
 
-        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
-        return PaginationDTO.of(dtoPage);
+        return complaintPage;
     }
 
     /**
      * الحصول على الشكاوى حسب الحالة
-     * Caching handled at repository level.
+     * Caching handled by ComplaintQueryService (DTO projections).
      */
     public PaginationDTO<ComplaintDTOResponse> getComplaintsByStatus(ComplaintStatus status, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        BaseUser currentUser = getCurrentUser();
-        Page<Complaint> complaintPage;
+        BaseUser currentUser = getCurrentPrincipal();
+        PaginationDTO<ComplaintDTOResponse> complaintPage;
 
         if (currentUser instanceof Employee employee) {
             if (employee.getGovernmentAgency() == null) {
                 throw new UnAuthorizedException("Employee is not associated with any government agency");
             }
             GovernmentAgencyType governmentAgency = employee.getGovernmentAgency();
-            complaintPage = complaintRepository.findByGovernmentAgencyAndStatus(governmentAgency, status, pageable);
+            complaintPage = complaintQueryService.findByGovernmentAgencyAndStatus(governmentAgency, status, pageable);
         } else {
-            complaintPage = complaintRepository.findByStatus(status, pageable);
+            complaintPage = complaintQueryService.findByStatus(status, pageable);
         }
 
-        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
-        return PaginationDTO.of(dtoPage);
+        return complaintPage;
     }
 
     /**
@@ -331,6 +337,8 @@ public class ComplaintService extends BaseSecurityService {
         ComplaintStatus oldStatus = complaint.getStatus();
         String oldDescription = complaint.getDescription();
         String oldLocation = complaint.getLocation();
+        // The DTO may change agency, governorate and type as well as status
+        StatKey oldStatKey = StatKey.of(complaint);
         
         try {
             // تحديث الحقول
@@ -339,23 +347,23 @@ public class ComplaintService extends BaseSecurityService {
             // Save will use optimistic locking (version check)
             complaint = complaintRepository.save(complaint);
             
+            // سجل التغييرات لهذه العملية (يُحفظ دفعة واحدة عند الـ commit)
+            ComplaintHistoryChangeSet history = complaintHistoryService.changeSet(complaint, currentUser);
+            
             // تسجيل تغيير الحالة إذا تغيرت
             ComplaintStatus newStatus = complaint.getStatus();
             if (newStatus != null && !newStatus.equals(oldStatus)) {
-                complaintHistoryService.recordStatusChange(complaint, currentUser, oldStatus, newStatus);
+                history.statusChanged(oldStatus, newStatus);
             }
-            
+            complaintStatsRollupService.recordMove(oldStatKey, StatKey.of(complaint));
+
             // تسجيل تحديث الحقول
-            if (dto.getDescription() != null && !dto.getDescription().equals(oldDescription)) {
-                complaintHistoryService.recordFieldUpdate(complaint, currentUser, "description", oldDescription, dto.getDescription());
-            }
-            if (dto.getLocation() != null && !dto.getLocation().equals(oldLocation)) {
-                complaintHistoryService.recordFieldUpdate(complaint, currentUser, "location", oldLocation, dto.getLocation());
-            }
+            history.fieldUpdated("description", oldDescription, dto.getDescription())
+                   .fieldUpdated("location", oldLocation, dto.getLocation());
 
             // Handle file attachments if provided
             if (files != null && !files.isEmpty()) {
-                storeAttachments(complaint, files, currentUser);
+                storeAttachments(complaint, files, history);
                 complaint = complaintRepository.save(complaint);
             }
         } catch (jakarta.persistence.OptimisticLockException e) {
@@ -415,18 +423,20 @@ public class ComplaintService extends BaseSecurityService {
             
             // تسجيل تغيير الحالة إذا تغيرت
             if (newStatus != null && !newStatus.equals(oldStatus)) {
-                complaintHistoryService.recordStatusChange(complaint, currentUser, oldStatus, newStatus);
+                ComplaintHistoryChangeSet history = complaintHistoryService.changeSet(complaint, currentUser)
+                        .statusChanged(oldStatus, newStatus);
+                complaintStatsRollupService.recordStatusChange(complaint, oldStatus, newStatus);
                 
                 // Send notification to citizen about status change
                 complaintNotificationIntegration.notifyComplaintStatusChange(complaint, oldStatus, newStatus);
                 
                 // تسجيل LOCKED/UNLOCKED بناءً على الحالة
                 if (newStatus == ComplaintStatus.IN_PROGRESS) {
-                    complaintHistoryService.recordLocked(complaint, currentUser);
+                    history.locked();
                 } else if (newStatus == ComplaintStatus.RESOLVED || 
                           newStatus == ComplaintStatus.REJECTED || 
                           newStatus == ComplaintStatus.CLOSED) {
-                    complaintHistoryService.recordUnlocked(complaint, currentUser);
+                    history.unlocked();
                 }
             }
         } catch (jakarta.persistence.OptimisticLockException e) {
@@ -443,7 +453,7 @@ public class ComplaintService extends BaseSecurityService {
      * Cache eviction handled at repository level.
      */
     public void deleteComplaint(Long id) {
-        BaseUser currentUser = getCurrentUser();
+        BaseUser currentUser = getCurrentPrincipal();
         Complaint complaint = complaintRepository.findByIdWithAttachments(id)
                 .orElseThrow(() -> new EntityNotFoundException("Complaint not found with ID: " + id));
 
@@ -461,52 +471,51 @@ public class ComplaintService extends BaseSecurityService {
         }
 
         complaintRepository.deleteById(id);
+        complaintStatsRollupService.recordDeleted(complaint);
     }
 
     /**
      * البحث عن الشكاوى حسب نوع الشكوى
-     * Caching handled at repository level.
+     * Caching handled by ComplaintQueryService (DTO projections).
      */
     public PaginationDTO<ComplaintDTOResponse> getComplaintsByType(ComplaintType complaintType, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        BaseUser currentUser = getCurrentUser();
-        Page<Complaint> complaintPage;
+        BaseUser currentUser = getCurrentPrincipal();
+        PaginationDTO<ComplaintDTOResponse> complaintPage;
 
         if (currentUser instanceof Employee employee) {
             if (employee.getGovernmentAgency() == null) {
                 throw new UnAuthorizedException("Employee is not associated with any government agency");
             }
             GovernmentAgencyType governmentAgency = employee.getGovernmentAgency();
-            complaintPage = complaintRepository.findByGovernmentAgencyAndComplaintType(governmentAgency, complaintType, pageable);
+            complaintPage = complaintQueryService.findByGovernmentAgencyAndComplaintType(governmentAgency, complaintType, pageable);
         } else {
-            complaintPage = complaintRepository.findByComplaintType(complaintType, pageable);
+            complaintPage = complaintQueryService.findByComplaintType(complaintType, pageable);
         }
 
-        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
-        return PaginationDTO.of(dtoPage);
+        return complaintPage;
     }
 
     /**
      * البحث عن الشكاوى حسب المحافظة
-     * Caching handled at repository level.
+     * Caching handled by ComplaintQueryService (DTO projections).
      */
     public PaginationDTO<ComplaintDTOResponse> getComplaintsByGovernorate(Governorate governorate, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        BaseUser currentUser = getCurrentUser();
-        Page<Complaint> complaintPage;
+        BaseUser currentUser = getCurrentPrincipal();
+        PaginationDTO<ComplaintDTOResponse> complaintPage;
 
         if (currentUser instanceof Employee employee) {
             if (employee.getGovernmentAgency() == null) {
                 throw new UnAuthorizedException("Employee is not associated with any government agency");
             }
             GovernmentAgencyType governmentAgency = employee.getGovernmentAgency();
-            complaintPage = complaintRepository.findByGovernmentAgencyAndGovernorate(governmentAgency, governorate, pageable);
+            complaintPage = complaintQueryService.findByGovernmentAgencyAndGovernorate(governmentAgency, governorate, pageable);
         } else {
-            complaintPage = complaintRepository.findByGovernorate(governorate, pageable);
+            complaintPage = complaintQueryService.findByGovernorate(governorate, pageable);
         }
 
-        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
-        return PaginationDTO.of(dtoPage);
+        return complaintPage;
     }
 
     /**
@@ -557,11 +566,75 @@ public class ComplaintService extends BaseSecurityService {
             int size) {
         Pageable pageable = PageRequest.of(page, size);
         
-        Specification<Complaint> spec = (root, query, cb) -> {
+        Specification<Complaint> spec = buildFilterSpecification(
+            status, complaintType, governorate, governmentAgency, citizenId);
+
+        Page<Complaint> complaintPage = complaintRepository.findAll(spec, pageable);
+        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
+        return PaginationDTO.of(dtoPage);
+    }
+
+    /**
+     * فلترة الشكاوى باستخدام cursor (keyset pagination) - للتمرير اللانهائي
+     * WHERE (created_at, id) < (cursor) ORDER BY created_at DESC, id DESC LIMIT size
+     * بدون OFFSET وبدون استعلام COUNT، لذا زمن جلب أي صفحة ثابت
+     */
+    public CursorPageDTO<ComplaintDTOResponse> filterComplaintsByCursor(
+            ComplaintStatus status,
+            ComplaintType complaintType,
+            Governorate governorate,
+            GovernmentAgencyType governmentAgency,
+            Long citizenId,
+            String cursor,
+            int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        Specification<Complaint> spec = buildFilterSpecification(
+            status, complaintType, governorate, governmentAgency, citizenId);
+        if (after != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), after.createdAt()),
+                cb.and(
+                    cb.equal(root.get("createdAt"), after.createdAt()),
+                    cb.lessThan(root.get("id"), after.id()))));
+        }
+
+        // جلب عنصر إضافي لمعرفة وجود صفحة تالية
+        List<Complaint> rows = complaintRepository.findBy(spec, q -> q
+            .sortBy(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+            .limit(limit + 1)
+            .all());
+
+        boolean hasNext = rows.size() > limit;
+        List<Complaint> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Complaint last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<ComplaintDTOResponse> content = pageRows.stream()
+            .map(complaintMapper::toResponse)
+            .toList();
+        return new CursorPageDTO<>(content, limit, nextCursor, hasNext);
+    }
+
+    /**
+     * بناء شروط الفلترة مع تطبيق الصلاحيات أولاً
+     */
+    private Specification<Complaint> buildFilterSpecification(
+            ComplaintStatus status,
+            ComplaintType complaintType,
+            Governorate governorate,
+            GovernmentAgencyType governmentAgency,
+            Long citizenId) {
+        return (root, query, cb) -> {
             Predicate predicate = cb.conjunction();
 
             // التحقق من الصلاحيات أولاً - Security First Principle
-            BaseUser currentUser = getCurrentUser();
+            BaseUser currentUser = getCurrentPrincipal();
             if (currentUser instanceof Employee employee) {
                 if (employee.getGovernmentAgency() != null) {
                     // الموظف يرى فقط شكاوى جهته الحكومية
@@ -569,8 +642,7 @@ public class ComplaintService extends BaseSecurityService {
                 }
             } else if (isCurrentUserCitizen()) {
                 // المواطن يرى فقط شكاويه
-                Citizen currentCitizen = getCurrentCitizen();
-                predicate = cb.and(predicate, cb.equal(root.get("citizen").get("id"), currentCitizen.getId()));
+                predicate = cb.and(predicate, cb.equal(root.get("citizen").get("id"), getCurrentUserId()));
             }
 
             // فلترة حسب الحالة
@@ -602,18 +674,35 @@ public class ComplaintService extends BaseSecurityService {
 
             return predicate;
         };
-
-        Page<Complaint> complaintPage = complaintRepository.findAll(spec, pageable);
-        Page<ComplaintDTOResponse> dtoPage = complaintPage.map(complaintMapper::toResponse);
-        return PaginationDTO.of(dtoPage);
     }
 
     public ComplaintDTOResponse addAttachments(Long complaintId, List<MultipartFile> files) {
         Complaint complaint = complaintRepository.findByIdWithAttachments(complaintId)
                 .orElseThrow(() -> new EntityNotFoundException("Complaint not found with ID: " + complaintId));
         ensureCitizenOwnsComplaint(complaint);
-        BaseUser currentUser = getCurrentUser();
-        storeAttachments(complaint, files, currentUser);
+        storeAttachments(complaint, files, complaintHistoryService.changeSet(complaint, getCurrentUser()));
+        complaint = complaintRepository.save(complaint);
+        return complaintMapper.toResponse(complaint);
+    }
+
+    /**
+     * Attach a completed chunked upload (AttachmentUploadService) to the complaint
+     */
+    public ComplaintDTOResponse commitUpload(Long complaintId, String uploadId) {
+        Complaint complaint = complaintRepository.findByIdWithAttachments(complaintId)
+                .orElseThrow(() -> new EntityNotFoundException("Complaint not found with ID: " + complaintId));
+        ensureCitizenOwnsComplaint(complaint);
+        ClaimedUpload upload = attachmentUploadService.claim(complaintId, uploadId);
+        ComplaintHistoryChangeSet history = complaintHistoryService.changeSet(complaint, getCurrentUser());
+        ComplaintAttachment attachment = attachmentIngestService.ingestStaged(complaint,
+                upload.file(), upload.session().getOriginalFilename(), history.getActor());
+        if (complaint.getAttachments() == null) {
+            complaint.setAttachments(new ArrayList<>());
+        }
+        complaint.getAttachments().add(attachment);
+
+        // تسجيل إضافة المرفق في التاريخ
+        history.attachmentAdded(attachment.getOriginalFilename(), attachment.getStoragePath());
         complaint = complaintRepository.save(complaint);
         return complaintMapper.toResponse(complaint);
     }
@@ -624,7 +713,8 @@ public class ComplaintService extends BaseSecurityService {
         Complaint complaint = attachment.getComplaint();
         ensureCanAccessComplaint(complaint);
         Resource resource = attachmentStorageService.loadAsResource(attachment.getStoragePath());
-        return new FileDownloadResponse(resource, attachment.getOriginalFilename(), attachment.getContentType(), attachment.getSize());
+        return new FileDownloadResponse(resource, attachment.getOriginalFilename(), attachment.getContentType(),
+                attachment.getSize(), attachment.getChecksum());
     }
 
     public void deleteAttachment(Long complaintId, Long attachmentId) {
@@ -646,8 +736,7 @@ public class ComplaintService extends BaseSecurityService {
         if (!isCurrentUserCitizen()) {
             throw new UnAuthorizedException("Only citizens can modify attachments on their complaints");
         }
-        Citizen citizen = getCurrentCitizen();
-        if (!complaint.getCitizen().getId().equals(citizen.getId())) {
+        if (!complaint.getCitizen().getId().equals(getCurrentUserId())) {
             throw new UnAuthorizedException("You don't own this complaint");
         }
     }
@@ -657,7 +746,7 @@ public class ComplaintService extends BaseSecurityService {
             ensureCitizenOwnsComplaint(complaint);
             return;
         }
-        BaseUser user = getCurrentUser();
+        BaseUser user = getCurrentPrincipal();
         if (user instanceof Employee employee) {
             if (employee.getGovernmentAgency() == null ||
                 !employee.getGovernmentAgency().equals(complaint.getGovernmentAgency())) {
@@ -666,58 +755,18 @@ public class ComplaintService extends BaseSecurityService {
         }
     }
 
-    private void storeAttachments(Complaint complaint, List<MultipartFile> files, BaseUser currentUser) {
+    private void storeAttachments(Complaint complaint, List<MultipartFile> files, ComplaintHistoryChangeSet history) {
         if (files == null || files.isEmpty()) {
             return;
         }
-        validateFiles(files);
         if (complaint.getAttachments() == null) {
             complaint.setAttachments(new ArrayList<>());
         }
-        for (MultipartFile file : files) {
-            String detectedType = detectContentType(file);
-            if (!ALLOWED_CONTENT_TYPES.contains(detectedType)) {
-                throw new ConflictException("Unsupported file type: " + detectedType);
-            }
-            StoredFile stored = attachmentStorageService.store(file, complaint.getTrackingNumber());
-            ComplaintAttachment attachment = new ComplaintAttachment();
-            attachment.setComplaint(complaint);
-            attachment.setOriginalFilename(file.getOriginalFilename());
-            attachment.setStoredFilename(stored.storedFilename());
-            attachment.setStoragePath(stored.relativePath());
-            attachment.setContentType(detectedType);
-            attachment.setSize(stored.size());
-            attachment.setChecksum(stored.checksum());
-            attachment.setUploadedBy(currentUser);
-            attachment.setUploadedAt(LocalDateTime.now());
+        for (ComplaintAttachment attachment : attachmentIngestService.ingest(complaint, files, history.getActor())) {
             complaint.getAttachments().add(attachment);
             
             // تسجيل إضافة المرفق في التاريخ
-            complaintHistoryService.recordAttachmentAdded(complaint, currentUser, file.getOriginalFilename(), stored.relativePath());
-        }
-    }
-
-    private void validateFiles(List<MultipartFile> files) {
-        if (files.size() > MAX_FILES_PER_OPERATION) {
-            throw new ConflictException("Cannot upload more than " + MAX_FILES_PER_OPERATION + " files at once");
-        }
-        long totalSize = 0;
-        for (MultipartFile file : files) {
-            if (file.getSize() > MAX_FILE_SIZE_BYTES) {
-                throw new ConflictException("File " + file.getOriginalFilename() + " exceeds maximum size of 10 MB");
-            }
-            totalSize += file.getSize();
-        }
-        if (totalSize > MAX_TOTAL_BYTES) {
-            throw new ConflictException("Total attachments size exceeds 50 MB limit");
-        }
-    }
-
-    private String detectContentType(MultipartFile file) {
-        try {
-            return tika.detect(file.getInputStream(), file.getOriginalFilename());
-        } catch (Exception e) {
-            throw new ConflictException("Unable to determine file type");
+            history.attachmentAdded(attachment.getOriginalFilename(), attachment.getStoragePath());
         }
     }
 
@@ -3,7 +3,6 @@ package com.Shakwa.complaint.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,7 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import org.apache.tika.Tika;
 
 import com.Shakwa.complaint.Enum.ComplaintStatus;
 import com.Shakwa.complaint.Enum.InformationRequestStatus;
@@ -30,8 +28,6 @@ import com.Shakwa.complaint.entity.InformationRequestAttachment;
 import com.Shakwa.complaint.repository.ComplaintAttachmentRepository;
 import com.Shakwa.complaint.repository.ComplaintRepository;
 import com.Shakwa.complaint.repository.InformationRequestRepository;
-import com.Shakwa.complaint.storage.AttachmentStorageService;
-import com.Shakwa.complaint.storage.AttachmentStorageService.StoredFile;
 import com.Shakwa.user.dto.PaginationDTO;
 import com.Shakwa.user.entity.Citizen;
 import com.Shakwa.user.entity.Employee;
@@ -42,6 +38,7 @@ import com.Shakwa.user.service.BaseSecurityService;
 import com.Shakwa.utils.exception.ConflictException;
 import com.Shakwa.utils.annotation.Audited;
 import com.Shakwa.notification.service.ComplaintNotificationIntegration;
+import com.Shakwa.report.service.ComplaintStatsRollupService;
 import com.Shakwa.utils.exception.UnAuthorizedException;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -56,22 +53,18 @@ public class InformationRequestService extends BaseSecurityService {
     private final ComplaintRepository complaintRepository;
     private final ComplaintHistoryService complaintHistoryService;
     private final ComplaintNotificationIntegration complaintNotificationIntegration;
-    private final AttachmentStorageService attachmentStorageService;
+    private final AttachmentIngestService attachmentIngestService;
     private final ComplaintAttachmentRepository complaintAttachmentRepository;
-    private final Tika tika = new Tika();
-
-    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("image/png", "image/jpg", "image/jpeg", "application/pdf");
-    private static final long MAX_FILE_SIZE_BYTES = 10 * 1024 * 1024; // 10 MB
-    private static final long MAX_TOTAL_BYTES = 50 * 1024 * 1024; // 50 MB
-    private static final int MAX_FILES_PER_OPERATION = 10;
+    private final ComplaintStatsRollupService complaintStatsRollupService;
 
     public InformationRequestService(
             InformationRequestRepository informationRequestRepository,
             ComplaintRepository complaintRepository,
             ComplaintHistoryService complaintHistoryService,
             ComplaintNotificationIntegration complaintNotificationIntegration,
-            AttachmentStorageService attachmentStorageService,
+            AttachmentIngestService attachmentIngestService,
             ComplaintAttachmentRepository complaintAttachmentRepository,
+            ComplaintStatsRollupService complaintStatsRollupService,
             UserRepository userRepository,
             CitizenRepo citizenRepo,
             EmployeeRepository employeeRepository) {
@@ -80,8 +73,9 @@ public class InformationRequestService extends BaseSecurityService {
         this.complaintRepository = complaintRepository;
         this.complaintHistoryService = complaintHistoryService;
         this.complaintNotificationIntegration = complaintNotificationIntegration;
-        this.attachmentStorageService = attachmentStorageService;
+        this.attachmentIngestService = attachmentIngestService;
         this.complaintAttachmentRepository = complaintAttachmentRepository;
+        this.complaintStatsRollupService = complaintStatsRollupService;
     }
 
     /**
@@ -125,8 +119,10 @@ public class InformationRequestService extends BaseSecurityService {
         request = informationRequestRepository.save(request);
         
         // Update complaint status to INFO_REQUESTED
+        ComplaintStatus oldStatus = complaint.getStatus();
         complaint.setStatus(ComplaintStatus.INFO_REQUESTED);
         complaintRepository.save(complaint);
+        complaintStatsRollupService.recordStatusChange(complaint, oldStatus, ComplaintStatus.INFO_REQUESTED);
 
         // Record in complaint history
         complaintHistoryService.recordInfoRequested(complaint, employee, dto.getMessage());
@@ -185,7 +181,6 @@ public class InformationRequestService extends BaseSecurityService {
 
         // Handle file uploads if provided
         if (hasFiles) {
-            validateFiles(files);
             List<ComplaintAttachment> newAttachments = storeAttachments(complaint, files, citizen);
             
             // Link attachments to information request
@@ -203,8 +198,10 @@ public class InformationRequestService extends BaseSecurityService {
         request = informationRequestRepository.save(request);
         
         // Update complaint status back to IN_PROGRESS after citizen provides info
+        ComplaintStatus oldStatus = complaint.getStatus();
         complaint.setStatus(ComplaintStatus.IN_PROGRESS);
         complaintRepository.save(complaint);
+        complaintStatsRollupService.recordStatusChange(complaint, oldStatus, ComplaintStatus.IN_PROGRESS);
 
         // Record in complaint history
         complaintHistoryService.recordInfoProvided(complaint, citizen, request);
@@ -399,60 +396,9 @@ public class InformationRequestService extends BaseSecurityService {
      */
     private List<ComplaintAttachment> storeAttachments(Complaint complaint, List<MultipartFile> files, Citizen citizen) {
         List<ComplaintAttachment> attachments = new ArrayList<>();
-        
-        for (MultipartFile file : files) {
-            String detectedType = detectContentType(file);
-            if (!ALLOWED_CONTENT_TYPES.contains(detectedType)) {
-                throw new ConflictException("Unsupported file type: " + detectedType);
-            }
-            
-            StoredFile stored = attachmentStorageService.store(file, complaint.getTrackingNumber());
-            ComplaintAttachment attachment = new ComplaintAttachment();
-            attachment.setComplaint(complaint);
-            attachment.setOriginalFilename(file.getOriginalFilename());
-            attachment.setStoredFilename(stored.storedFilename());
-            attachment.setStoragePath(stored.relativePath());
-            attachment.setContentType(detectedType);
-            attachment.setSize(stored.size());
-            attachment.setChecksum(stored.checksum());
-            attachment.setUploadedBy(citizen);
-            attachment.setUploadedAt(LocalDateTime.now());
-            
-            attachment = complaintAttachmentRepository.save(attachment);
-            attachments.add(attachment);
+        for (ComplaintAttachment attachment : attachmentIngestService.ingest(complaint, files, citizen)) {
+            attachments.add(complaintAttachmentRepository.save(attachment));
         }
-        
         return attachments;
     }
-
-    /**
-     * Validate files
-     */
-    private void validateFiles(List<MultipartFile> files) {
-        if (files.size() > MAX_FILES_PER_OPERATION) {
-            throw new ConflictException("Cannot upload more than " + MAX_FILES_PER_OPERATION + " files at once");
-        }
-        long totalSize = 0;
-        for (MultipartFile file : files) {
-            if (file.getSize() > MAX_FILE_SIZE_BYTES) {
-                throw new ConflictException("File " + file.getOriginalFilename() + " exceeds maximum size of 10 MB");
-            }
-            totalSize += file.getSize();
-        }
-        if (totalSize > MAX_TOTAL_BYTES) {
-            throw new ConflictException("Total attachments size exceeds 50 MB limit");
-        }
-    }
-
-    /**
-     * Detect content type
-     */
-    private String detectContentType(MultipartFile file) {
-        try {
-            return tika.detect(file.getInputStream(), file.getOriginalFilename());
-        } catch (Exception e) {
-            throw new ConflictException("Unable to determine file type");
-        }
-    }
 }
-
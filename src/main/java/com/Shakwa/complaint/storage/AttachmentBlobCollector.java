@@ -0,0 +1,47 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Shakwa.complaint.repository.AttachmentBlobRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Removes a content-addressed blob once nothing references it.
+ * The row is deleted and the file removed in one transaction of its own: the row lock is held
+ * while the file goes away, so an upload of the same content waits and then writes it again.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.complaints.layout", havingValue = "CONTENT_ADDRESSED")
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentBlobCollector {
+
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final ComplaintStorageProperties properties;
+
+    /**
+     * @return whether the blob was collected (false while it is still referenced)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean collect(String checksum) {
+        if (attachmentBlobRepository.deleteIfUnreferenced(checksum) == 0) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(properties.getRoot().resolve(ContentAddressedAttachmentStorageService.blobLocation(checksum)));
+        } catch (IOException e) {
+            // Rolls the row back; the next sweep retries
+            throw new IllegalStateException("Failed to delete attachment blob " + checksum, e);
+        }
+        log.debug("Collected attachment blob {}", checksum);
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.Shakwa.complaint.repository.ComplaintAttachmentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves attachments of the unsharded per-complaint layout (<root>/<trackingNumber>/<file>)
+ * to <root>/ab/cd/<trackingNumber>/<file>, a batch per transaction, until none are left.
+ *
+ * Each file is hard-linked at its new path and its row updated; the old path is unlinked only
+ * after the commit, so a download or a crash mid-batch never sees a row pointing at nothing.
+ * Runs on every node; rows another node is migrating are skipped (FOR UPDATE SKIP LOCKED).
+ * Rows whose file is missing cannot be migrated; they are reported once and the migration
+ * finishes when only such rows are left.
+ */
+@Service
+@Slf4j
+public class AttachmentShardMigrator {
+
+    private final ComplaintAttachmentRepository complaintAttachmentRepository;
+    private final ComplaintStorageProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    // Nothing left to migrate: new attachments are always written sharded
+    private volatile boolean finished;
+
+    // Unsharded rows without a file on disk, already reported
+    private final Set<Long> unmigratable = ConcurrentHashMap.newKeySet();
+
+    public AttachmentShardMigrator(ComplaintAttachmentRepository complaintAttachmentRepository,
+                                   ComplaintStorageProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.complaintAttachmentRepository = complaintAttachmentRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record BatchResult(int seen, int moved, int missing, long lastId) {}
+
+    @Scheduled(initialDelayString = "${storage.complaints.shard-migration.initial-delay:PT2M}",
+               fixedDelayString = "${storage.complaints.shard-migration.interval:PT30M}")
+    public void migrate() {
+        if (!properties.getShardMigration().isEnabled() || finished) {
+            return;
+        }
+        int batchSize = properties.getShardMigration().getBatchSize();
+        long afterId = 0;
+        int seen = 0;
+        int moved = 0;
+        int missing = 0;
+        BatchResult batch;
+        do {
+            long from = afterId;
+            batch = transactionTemplate.execute(status -> migrateBatch(from, batchSize));
+            seen += batch.seen();
+            moved += batch.moved();
+            missing += batch.missing();
+            afterId = batch.lastId();
+        } while (batch.seen() == batchSize);
+
+        if (seen == missing) {
+            finished = true;
+            if (missing > 0) {
+                log.warn("Attachment shard migration complete; {} attachments have no file and were left unmigrated", missing);
+            } else {
+                log.info("Attachment shard migration complete");
+            }
+        } else {
+            log.info("Attachment shard migration: {} of {} unsharded attachments moved", moved, seen);
+        }
+    }
+
+    private BatchResult migrateBatch(long afterId, int limit) {
+        List<Object[]> rows = complaintAttachmentRepository.findUnshardedForUpdate(afterId, limit);
+        Path root = properties.getRoot();
+        List<Path> linked = new ArrayList<>();
+        List<Path> unlinkAfterCommit = new ArrayList<>();
+        int moved = 0;
+        int missing = 0;
+        long lastId = afterId;
+        for (Object[] row : rows) {
+            long id = ((Number) row[0]).longValue();
+            String location = (String) row[1];
+            lastId = id;
+
+            int slash = location.indexOf('/');
+            String target = StorageShards.shardedPath(location.substring(0, slash)) + location.substring(slash);
+            Path source = root.resolve(location).normalize();
+            Path destination = root.resolve(target).normalize();
+            try {
+                if (!Files.exists(destination)) {
+                    if (!Files.exists(source)) {
+                        if (unmigratable.add(id)) {
+                            log.warn("Attachment {} file is missing, not migrated: {}", id, location);
+                        }
+                        missing++;
+                        continue;
+                    }
+                    Files.createDirectories(destination.getParent());
+                    link(source, destination);
+                    linked.add(destination);
+                }
+            } catch (IOException e) {
+                log.warn("Could not migrate attachment {} ({}): {}", id, location, e.getMessage());
+                continue;
+            }
+            complaintAttachmentRepository.updateStoragePath(id, target);
+            unlinkAfterCommit.add(source);
+            moved++;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    unlinkAfterCommit.forEach(AttachmentShardMigrator::unlink);
+                } else {
+                    linked.forEach(AttachmentSpool::deleteQuietly);
+                }
+            }
+        });
+        return new BatchResult(rows.size(), moved, missing, lastId);
+    }
+
+    /**
+     * Hard link (no data copied); a copy where the file system has no links
+     */
+    private static void link(Path source, Path destination) throws IOException {
+        try {
+            Files.createLink(destination, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, destination);
+        }
+    }
+
+    /**
+     * Remove the old path and its tracking-number folder once empty
+     */
+    private static void unlink(Path source) {
+        AttachmentSpool.deleteQuietly(source);
+        try {
+            Files.deleteIfExists(source.getParent());
+        } catch (DirectoryNotEmptyException e) {
+            // Other attachments of the complaint are still to be moved
+        } catch (IOException e) {
+            log.debug("Could not remove {}: {}", source.getParent(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Shakwa.utils.exception.ConflictException;
+
+/**
+ * Single pass over an upload: the first bytes are sniffed against the allowed types, and
+ * every chunk is fed to the SHA-256 digest and written to a temp file. Heap use is one fixed
+ * buffer per upload. The caller moves the temp file into place (or deletes it).
+ */
+final class AttachmentSpool {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    record Spooled(Path file, AttachmentType type, String checksum, long size) {}
+
+    private AttachmentSpool() {
+    }
+
+    /**
+     * @param directory where the temp file is created; on the same file system as its final
+     *                  location so the move is a rename
+     */
+    static Spooled spool(MultipartFile file, Path directory, String originalFilename) throws IOException {
+        Path tempFile = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = Files.newOutputStream(tempFile)) {
+                return read(in, out, tempFile, originalFilename);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Same checks for a file that is already on disk (a completed chunked upload), read once
+     * and left in place
+     */
+    static Spooled inspect(Path file, String originalFilename) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, OutputStream.nullOutputStream(), file, originalFilename);
+        }
+    }
+
+    private static Spooled read(InputStream in, OutputStream out, Path file, String originalFilename) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read = in.readNBytes(buffer, 0, AttachmentType.SNIFF_LENGTH);
+        AttachmentType type = AttachmentType.sniff(buffer, read)
+            .orElseThrow(() -> new ConflictException("Unsupported file type: " + originalFilename
+                + " (allowed: " + Arrays.toString(AttachmentType.values()) + ")"));
+        long size = 0;
+        while (read > 0) {
+            digest.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+            size += read;
+            read = in.read(buffer);
+        }
+        return new Spooled(file, type, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A leftover .upload-*.tmp file is harmless
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.Shakwa.complaint.storage;
 
+import java.nio.file.Path;
+
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface AttachmentStorageService {
 
+    /**
+     * Store an upload under the complaint's tracking number.
+     * The content type of the result is detected from the content (see AttachmentType);
+     * uploads of any other type are rejected with a ConflictException.
+     */
     StoredFile store(MultipartFile file, String trackingNumber);
 
+    /**
+     * Store a file already written under the storage root (a completed chunked upload, see
+     * ComplaintStorageProperties.getUploadDirectory()). The file is moved, not copied, and
+     * is gone after the call whether or not it succeeded; same type rules as store.
+     */
+    StoredFile storeStaged(Path stagedFile, String originalFilename, String trackingNumber);
+
     Resource loadAsResource(String location);
 
     void delete(String location);
@@ -0,0 +1,49 @@
+package com.Shakwa.complaint.storage;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * أنواع المرفقات المسموح بها
+ * Allowed attachment types, recognised by their leading magic bytes only
+ * (the client's Content-Type and file extension are not trusted).
+ */
+public enum AttachmentType {
+
+    PNG("image/png", new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+    JPEG("image/jpeg", new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+    PDF("application/pdf", new byte[] {'%', 'P', 'D', 'F', '-'});
+
+    /**
+     * Bytes needed from the start of a file to recognise any of the types
+     */
+    public static final int SNIFF_LENGTH = Arrays.stream(values())
+        .mapToInt(type -> type.magic.length)
+        .max()
+        .orElse(0);
+
+    private final String contentType;
+    private final byte[] magic;
+
+    AttachmentType(String contentType, byte[] magic) {
+        this.contentType = contentType;
+        this.magic = magic;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @param header the first length bytes of the file
+     */
+    public static Optional<AttachmentType> sniff(byte[] header, int length) {
+        for (AttachmentType type : values()) {
+            if (length >= type.magic.length
+                && Arrays.equals(header, 0, type.magic.length, type.magic, 0, type.magic.length)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
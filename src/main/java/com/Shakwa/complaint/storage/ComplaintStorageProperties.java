@@ -2,8 +2,10 @@ package com.Shakwa.complaint.storage;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -17,5 +19,99 @@ public class ComplaintStorageProperties {
      * Root directory where complaint attachments will be stored.
      */
     private Path root = Paths.get("storage/complaints");
-}
 
+    /**
+     * How new attachments are laid out. Files under root stay readable after switching to any
+     * layout; objects written by OBJECT_STORAGE are only reachable through that layout.
+     */
+    private Layout layout = Layout.PER_COMPLAINT;
+
+    /**
+     * Blobs without references (and stray files from rolled-back uploads) are only removed
+     * once they are this old, so an upload still in flight is never collected.
+     */
+    private Duration blobGcGrace = Duration.ofHours(1);
+
+    /**
+     * Largest file accepted through a chunked upload session (multipart uploads stay capped
+     * by spring.servlet.multipart.max-file-size).
+     */
+    private DataSize uploadMaxSize = DataSize.ofMegabytes(100);
+
+    /**
+     * An upload session expires this long after its last chunk; its staged data is then deleted.
+     */
+    private Duration uploadSessionTtl = Duration.ofHours(24);
+
+    /**
+     * Where chunked uploads are staged until committed (<root>/.uploads, same file system as
+     * the attachments so committing is a rename)
+     */
+    public Path getUploadDirectory() {
+        return root.resolve(".uploads");
+    }
+
+    /**
+     * Background move of unsharded per-complaint files (<root>/<trackingNumber>/...) into the
+     * sharded layout (AttachmentShardMigrator)
+     */
+    private ShardMigration shardMigration = new ShardMigration();
+
+    /**
+     * Bucket used by the OBJECT_STORAGE layout
+     */
+    private ObjectStorage objectStorage = new ObjectStorage();
+
+    public enum Layout {
+        /** <root>/ab/cd/<trackingNumber>/<uuid>.<ext>, one file per attachment */
+        PER_COMPLAINT,
+        /** <root>/blobs/ab/cd/<sha256>, one file per distinct content (reference counted) */
+        CONTENT_ADDRESSED,
+        /** objects/ab/cd/<trackingNumber>/<uuid>.<ext> in an S3-compatible bucket, one object per attachment */
+        OBJECT_STORAGE
+    }
+
+    @Getter
+    @Setter
+    public static class ShardMigration {
+
+        private boolean enabled = true;
+
+        /**
+         * Attachments moved per transaction
+         */
+        private int batchSize = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class ObjectStorage {
+
+        /**
+         * S3-compatible endpoint, e.g. https://s3.eu-central-1.amazonaws.com or http://minio:9000
+         * (path-style requests: <endpoint>/<bucket>/<key>)
+         */
+        private String endpoint;
+
+        private String region = "us-east-1";
+
+        private String bucket;
+
+        private String accessKey;
+
+        private String secretKey;
+
+        /**
+         * Prepended to every object key, e.g. "shakwa/"
+         */
+        private String keyPrefix = "";
+
+        private Duration requestTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Keep objects in memory instead of calling an endpoint (tests and local development
+         * only: nothing survives a restart)
+         */
+        private boolean inProcess = false;
+    }
+}
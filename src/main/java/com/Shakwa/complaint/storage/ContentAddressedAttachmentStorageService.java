@@ -0,0 +1,217 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Shakwa.complaint.repository.AttachmentBlobRepository;
+import com.Shakwa.complaint.storage.AttachmentSpool.Spooled;
+import com.Shakwa.utils.exception.ResourceNotFoundException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One file per distinct content under <root>/blobs/ab/cd/<sha256>, shared by every attachment
+ * with that checksum and reference counted in attachment_blobs.
+ *
+ * A duplicate upload is still spooled once (its digest is only known after reading it), but
+ * then costs a reference increment instead of another stored file. Deleting an attachment
+ * releases its reference; blobs left without references are collected after commit, and a
+ * periodic sweep catches whatever that missed.
+ * Locations outside blobs/ were written by the per-complaint layout and are handled as before.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.complaints.layout", havingValue = "CONTENT_ADDRESSED")
+@RequiredArgsConstructor
+@Slf4j
+public class ContentAddressedAttachmentStorageService implements AttachmentStorageService {
+
+    private static final String BLOB_DIRECTORY = "blobs";
+    private static final String STAGING_DIRECTORY = ".incoming";
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final ComplaintStorageProperties properties;
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final AttachmentBlobCollector attachmentBlobCollector;
+
+    static String blobLocation(String checksum) {
+        return BLOB_DIRECTORY + "/" + checksum.substring(0, 2) + "/" + checksum.substring(2, 4) + "/" + checksum;
+    }
+
+    /**
+     * Must run in the caller's transaction: the blob row stays locked until it ends, so the
+     * blob cannot be collected between the reference and the attachment row being written
+     */
+    @Override
+    @Transactional
+    public StoredFile store(MultipartFile file, String trackingNumber) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Cannot store an empty file");
+        }
+        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "attachment");
+        try {
+            Path staging = properties.getRoot().resolve(STAGING_DIRECTORY);
+            Files.createDirectories(staging);
+            return place(AttachmentSpool.spool(file, staging, originalFilename));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public StoredFile storeStaged(Path stagedFile, String originalFilename, String trackingNumber) {
+        try {
+            return place(AttachmentSpool.inspect(stagedFile, originalFilename));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+        } finally {
+            AttachmentSpool.deleteQuietly(stagedFile);
+        }
+    }
+
+    private StoredFile place(Spooled spooled) throws IOException {
+        try {
+            String location = blobLocation(spooled.checksum());
+            attachmentBlobRepository.acquire(spooled.checksum(), location, spooled.size(),
+                spooled.type().getContentType());
+            Path blob = properties.getRoot().resolve(location);
+            // Also restores a blob whose file was lost
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                Files.move(spooled.file(), blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredFile(spooled.checksum(), location, spooled.checksum(), spooled.size(),
+                spooled.type().getContentType());
+        } finally {
+            AttachmentSpool.deleteQuietly(spooled.file());
+        }
+    }
+
+    @Override
+    public Resource loadAsResource(String location) {
+        Path file = properties.getRoot().resolve(location).normalize();
+        if (!Files.exists(file)) {
+            throw new ResourceNotFoundException("Attachment not found");
+        }
+        return new FileSystemResource(file.toFile());
+    }
+
+    /**
+     * Releases the attachment's reference; the file goes away with the last one
+     */
+    @Override
+    @Transactional
+    public void delete(String location) {
+        if (location == null) {
+            return;
+        }
+        String checksum = checksumOf(location);
+        if (checksum == null) {
+            deleteLegacyFile(location);
+            return;
+        }
+        if (attachmentBlobRepository.release(checksum) == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    collectQuietly(checksum);
+                }
+            });
+        }
+    }
+
+    /**
+     * Collects unreferenced blobs the after-commit hook missed, blob files whose upload was
+     * rolled back (no row) and abandoned staging files
+     */
+    @Scheduled(cron = "${storage.complaints.blob-gc-cron:0 45 * * * *}")
+    public void collectGarbage() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getBlobGcGrace());
+        int collected = 0;
+        List<String> unreferenced;
+        do {
+            unreferenced = attachmentBlobRepository.findUnreferenced(before, SWEEP_BATCH_SIZE);
+            for (String checksum : unreferenced) {
+                if (collectQuietly(checksum)) {
+                    collected++;
+                }
+            }
+        } while (unreferenced.size() == SWEEP_BATCH_SIZE);
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(properties.getBlobGcGrace()));
+        int orphans = 0;
+        try (Stream<Path> files = Files.walk(properties.getRoot().resolve(BLOB_DIRECTORY))) {
+            for (Path blob : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (isOlderThan(blob, cutoff) && !attachmentBlobRepository.existsById(blob.getFileName().toString())) {
+                    AttachmentSpool.deleteQuietly(blob);
+                    orphans++;
+                }
+            }
+        } catch (IOException e) {
+            // No blobs written yet
+        }
+        try (Stream<Path> files = Files.list(properties.getRoot().resolve(STAGING_DIRECTORY))) {
+            files.filter(staged -> isOlderThan(staged, cutoff)).forEach(AttachmentSpool::deleteQuietly);
+        } catch (IOException e) {
+            // Nothing staged yet
+        }
+        if (collected > 0 || orphans > 0) {
+            log.info("Attachment blob GC: {} unreferenced blobs and {} orphan files removed", collected, orphans);
+        }
+    }
+
+    private boolean collectQuietly(String checksum) {
+        try {
+            return attachmentBlobCollector.collect(checksum);
+        } catch (RuntimeException e) {
+            log.warn("Could not collect attachment blob {}: {}", checksum, e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteLegacyFile(String location) {
+        Path file = properties.getRoot().resolve(location).normalize();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete attachment " + location, e);
+        }
+    }
+
+    private static String checksumOf(String location) {
+        if (!location.startsWith(BLOB_DIRECTORY + "/")) {
+            return null;
+        }
+        return location.substring(location.lastIndexOf('/') + 1);
+    }
+
+    private static boolean isOlderThan(Path file, FileTime cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).compareTo(cutoff) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
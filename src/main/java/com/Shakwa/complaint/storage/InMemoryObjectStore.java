@@ -0,0 +1,48 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for an S3-compatible bucket (storage.complaints.object-storage.in-process),
+ * so the object storage layout can run in tests and on a laptop without an endpoint.
+ * Objects live on the heap and are lost on restart.
+ */
+public class InMemoryObjectStore implements ObjectStore {
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, Path file, String contentType, String sha256) throws IOException {
+        objects.put(key, Files.readAllBytes(file));
+    }
+
+    @Override
+    public InputStream get(String key, long start, long end) throws IOException {
+        byte[] object = objects.get(key);
+        if (object == null) {
+            throw new NoSuchFileException(key);
+        }
+        int from = (int) Math.min(start, object.length);
+        int to = (int) Math.min(end + 1, object.length);
+        return new ByteArrayInputStream(object, from, Math.max(to - from, 0));
+    }
+
+    @Override
+    public OptionalLong size(String key) {
+        byte[] object = objects.get(key);
+        return object != null ? OptionalLong.of(object.length) : OptionalLong.empty();
+    }
+
+    @Override
+    public void delete(String key) {
+        objects.remove(key);
+    }
+}
@@ -1,28 +1,35 @@
 package com.Shakwa.complaint.storage;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.Shakwa.complaint.storage.AttachmentStorageService.StoredFile;
+import com.Shakwa.complaint.storage.AttachmentSpool.Spooled;
 import com.Shakwa.utils.exception.ResourceNotFoundException;
 
+/**
+ * One file per attachment under <root>/ab/cd/<trackingNumber>/<uuid>.<ext> (see StorageShards).
+ * Files of the older unsharded layout, <root>/<trackingNumber>/<uuid>.<ext>, stay readable and
+ * are moved over by AttachmentShardMigrator.
+ */
 @Service
+@ConditionalOnProperty(name = "storage.complaints.layout", havingValue = "PER_COMPLAINT", matchIfMissing = true)
 public class LocalAttachmentStorageService implements AttachmentStorageService {
 
+    private static final String BLOB_DIRECTORY = "blobs";
+
     private final ComplaintStorageProperties properties;
 
     @Autowired
@@ -30,34 +37,58 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
         this.properties = properties;
     }
 
+    /**
+     * Reads the upload exactly once (AttachmentSpool) into a temp file in the target folder,
+     * which is then atomically renamed. The file is removed again if the transaction rolls back.
+     */
     @Override
     public StoredFile store(MultipartFile file, String trackingNumber) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Cannot store an empty file");
         }
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "attachment");
+        Path destinationFolder = properties.getRoot().resolve(StorageShards.shardedPath(trackingNumber)).normalize();
+        try {
+            Files.createDirectories(destinationFolder);
+            return place(AttachmentSpool.spool(file, destinationFolder, originalFilename), originalFilename, destinationFolder);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+        }
+    }
+
+    @Override
+    public StoredFile storeStaged(Path stagedFile, String originalFilename, String trackingNumber) {
+        originalFilename = StringUtils.cleanPath(originalFilename != null ? originalFilename : "attachment");
+        Path destinationFolder = properties.getRoot().resolve(StorageShards.shardedPath(trackingNumber)).normalize();
+        try {
+            Files.createDirectories(destinationFolder);
+            return place(AttachmentSpool.inspect(stagedFile, originalFilename), originalFilename, destinationFolder);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+        } finally {
+            AttachmentSpool.deleteQuietly(stagedFile);
+        }
+    }
+
+    private StoredFile place(Spooled spooled, String originalFilename, Path destinationFolder) throws IOException {
         String extension = "";
         int idx = originalFilename.lastIndexOf('.');
         if (idx >= 0) {
             extension = originalFilename.substring(idx);
         }
         String storedFilename = UUID.randomUUID() + extension;
-        Path destinationFolder = properties.getRoot().resolve(trackingNumber).normalize();
         Path destinationFile = destinationFolder.resolve(storedFilename).normalize();
         try {
-            Files.createDirectories(destinationFolder);
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
-            }
-            String checksum = calculateChecksum(destinationFile);
-            return new StoredFile(storedFilename,
-                    properties.getRoot().relativize(destinationFile).toString(),
-                    checksum,
-                    file.getSize(),
-                    file.getContentType());
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+            Files.move(spooled.file(), destinationFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            AttachmentSpool.deleteQuietly(spooled.file());
         }
+        deleteOnRollback(destinationFile);
+        return new StoredFile(storedFilename,
+                properties.getRoot().relativize(destinationFile).toString(),
+                spooled.checksum(),
+                spooled.size(),
+                spooled.type().getContentType());
     }
 
     @Override
@@ -74,6 +105,11 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
         if (location == null) {
             return;
         }
+        if (location.startsWith(BLOB_DIRECTORY + "/")) {
+            // Written by the content-addressed layout and shared by every attachment with this
+            // content; left to that layout's collector should it be switched back on
+            return;
+        }
         Path file = properties.getRoot().resolve(location).normalize();
         try {
             Files.deleteIfExists(file);
@@ -82,16 +118,17 @@ public class LocalAttachmentStorageService implements AttachmentStorageService {
         }
     }
 
-    private String calculateChecksum(Path file) throws IOException {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = Files.readAllBytes(file);
-            byte[] hash = digest.digest(bytes);
-            return HexFormat.of().formatHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 algorithm not available", e);
+    private static void deleteOnRollback(Path file) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    AttachmentSpool.deleteQuietly(file);
+                }
+            }
+        });
     }
 }
-
-
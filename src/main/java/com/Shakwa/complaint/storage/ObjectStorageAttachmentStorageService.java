@@ -0,0 +1,176 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.Shakwa.complaint.storage.AttachmentSpool.Spooled;
+import com.Shakwa.utils.exception.ResourceNotFoundException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One object per attachment in an S3-compatible bucket (ObjectStore), keyed
+ * objects/ab/cd/<trackingNumber>/<uuid>.<ext> under the configured key prefix, so attachment
+ * storage scales separately from the application nodes.
+ *
+ * Uploads are still spooled once to local disk (<root>/.incoming) to sniff the type and compute
+ * the checksum, which is sent with the PUT so the store verifies what it received.
+ * Locations outside objects/ were written by the local layouts and are read from <root>.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.complaints.layout", havingValue = "OBJECT_STORAGE")
+@RequiredArgsConstructor
+@Slf4j
+public class ObjectStorageAttachmentStorageService implements AttachmentStorageService {
+
+    private static final String OBJECT_DIRECTORY = "objects";
+    private static final String STAGING_DIRECTORY = ".incoming";
+    private static final String BLOB_DIRECTORY = "blobs";
+
+    private final ComplaintStorageProperties properties;
+    private final ObjectStore objectStore;
+
+    @Override
+    public StoredFile store(MultipartFile file, String trackingNumber) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Cannot store an empty file");
+        }
+        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename() != null ? file.getOriginalFilename() : "attachment");
+        Spooled spooled = null;
+        try {
+            Path staging = properties.getRoot().resolve(STAGING_DIRECTORY);
+            Files.createDirectories(staging);
+            spooled = AttachmentSpool.spool(file, staging, originalFilename);
+            return upload(spooled, originalFilename, trackingNumber);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+        } finally {
+            if (spooled != null) {
+                AttachmentSpool.deleteQuietly(spooled.file());
+            }
+        }
+    }
+
+    @Override
+    public StoredFile storeStaged(Path stagedFile, String originalFilename, String trackingNumber) {
+        originalFilename = StringUtils.cleanPath(originalFilename != null ? originalFilename : "attachment");
+        try {
+            return upload(AttachmentSpool.inspect(stagedFile, originalFilename), originalFilename, trackingNumber);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store file " + originalFilename, e);
+        } finally {
+            AttachmentSpool.deleteQuietly(stagedFile);
+        }
+    }
+
+    private StoredFile upload(Spooled spooled, String originalFilename, String trackingNumber) throws IOException {
+        String extension = "";
+        int idx = originalFilename.lastIndexOf('.');
+        if (idx >= 0) {
+            extension = originalFilename.substring(idx);
+        }
+        String storedFilename = UUID.randomUUID() + extension;
+        String location = OBJECT_DIRECTORY + "/" + StorageShards.shardedPath(trackingNumber) + "/" + storedFilename;
+        objectStore.put(key(location), spooled.file(), spooled.type().getContentType(), spooled.checksum());
+        deleteOnRollback(location);
+        return new StoredFile(storedFilename, location, spooled.checksum(), spooled.size(),
+                spooled.type().getContentType());
+    }
+
+    @Override
+    public Resource loadAsResource(String location) {
+        if (!isObject(location)) {
+            Path file = properties.getRoot().resolve(location).normalize();
+            if (!Files.exists(file)) {
+                throw new ResourceNotFoundException("Attachment not found");
+            }
+            return new FileSystemResource(file.toFile());
+        }
+        try {
+            long size = objectStore.size(key(location))
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found"));
+            return new ObjectStoreResource(objectStore, key(location), size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read attachment " + location, e);
+        }
+    }
+
+    /**
+     * Objects are removed once the transaction commits, so a rollback keeps the attachment intact
+     */
+    @Override
+    public void delete(String location) {
+        if (location == null) {
+            return;
+        }
+        if (!isObject(location)) {
+            deleteLocalFile(location);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteQuietly(location);
+                }
+            });
+        } else {
+            deleteQuietly(location);
+        }
+    }
+
+    private void deleteLocalFile(String location) {
+        if (location.startsWith(BLOB_DIRECTORY + "/")) {
+            // Shared by every attachment with this content; left to the content-addressed layout's collector
+            return;
+        }
+        Path file = properties.getRoot().resolve(location).normalize();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete attachment " + location, e);
+        }
+    }
+
+    private void deleteOnRollback(String location) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    deleteQuietly(location);
+                }
+            }
+        });
+    }
+
+    private void deleteQuietly(String location) {
+        try {
+            objectStore.delete(key(location));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete attachment object {}: {}", location, e.getMessage());
+        }
+    }
+
+    private String key(String location) {
+        return properties.getObjectStorage().getKeyPrefix() + location;
+    }
+
+    private static boolean isObject(String location) {
+        return location.startsWith(OBJECT_DIRECTORY + "/");
+    }
+}
@@ -0,0 +1,35 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+
+/**
+ * Minimal object API used by ObjectStorageAttachmentStorageService: whole-object puts, ranged
+ * gets, and deletes by key. Implemented over the S3 REST API (S3ObjectStore) and in memory
+ * for tests and local development (InMemoryObjectStore).
+ */
+public interface ObjectStore {
+
+    /**
+     * @param sha256 hex SHA-256 of the file, sent so the store rejects a corrupted transfer
+     */
+    void put(String key, Path file, String contentType, String sha256) throws IOException;
+
+    /**
+     * @param end last byte, inclusive
+     * @throws java.nio.file.NoSuchFileException if there is no such object
+     */
+    InputStream get(String key, long start, long end) throws IOException;
+
+    /**
+     * @return the object's size, empty if there is no such object
+     */
+    OptionalLong size(String key) throws IOException;
+
+    /**
+     * Deleting a missing object is not an error
+     */
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.Shakwa.complaint.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.Shakwa.complaint.storage.ComplaintStorageProperties.ObjectStorage;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@ConditionalOnProperty(name = "storage.complaints.layout", havingValue = "OBJECT_STORAGE")
+@Slf4j
+public class ObjectStoreConfig {
+
+    @Bean
+    public ObjectStore attachmentObjectStore(ComplaintStorageProperties properties) {
+        ObjectStorage config = properties.getObjectStorage();
+        if (config.isInProcess()) {
+            log.warn("Attachments are kept in memory (storage.complaints.object-storage.in-process=true) and are lost on restart");
+            return new InMemoryObjectStore();
+        }
+        return new S3ObjectStore(config);
+    }
+}
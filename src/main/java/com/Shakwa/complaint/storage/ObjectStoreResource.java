@@ -0,0 +1,55 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+
+import com.Shakwa.utils.response.RangeReadable;
+
+/**
+ * An object in the ObjectStore, read on demand. Its size is known up front (from a HEAD) so
+ * nothing is fetched until the body is written.
+ */
+class ObjectStoreResource extends AbstractResource implements RangeReadable {
+
+    private final ObjectStore objectStore;
+    private final String key;
+    private final long size;
+
+    ObjectStoreResource(ObjectStore objectStore, String key, long size) {
+        this.objectStore = objectStore;
+        this.key = key;
+        this.size = size;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return objectStore.get(key, 0, size - 1);
+    }
+
+    @Override
+    public InputStream getInputStream(long start, long end) throws IOException {
+        return objectStore.get(key, start, end);
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return size;
+    }
+
+    @Override
+    public String getFilename() {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public String getDescription() {
+        return "Object [" + key + "]";
+    }
+}
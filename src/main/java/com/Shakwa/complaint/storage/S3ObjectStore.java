@@ -0,0 +1,232 @@
+package com.Shakwa.complaint.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.OptionalLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * ObjectStore over the S3 REST API (AWS S3, MinIO, Ceph RGW, ...) with path-style URLs and
+ * Signature Version 4, on the JDK HTTP client. Object bodies are streamed: puts from the file,
+ * gets (with a Range header) straight to the caller.
+ */
+public class S3ObjectStore implements ObjectStore {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SIGNED_HEADERS = "host;x-amz-content-sha256;x-amz-date";
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_ERROR_LENGTH = 300;
+
+    private final HttpClient httpClient;
+    private final String endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final Duration requestTimeout;
+
+    public S3ObjectStore(ComplaintStorageProperties.ObjectStorage config) {
+        if (!StringUtils.hasText(config.getEndpoint()) || !StringUtils.hasText(config.getBucket())
+                || !StringUtils.hasText(config.getAccessKey()) || !StringUtils.hasText(config.getSecretKey())) {
+            throw new IllegalStateException("storage.complaints.object-storage endpoint, bucket, access-key and "
+                + "secret-key are required (or set in-process=true)");
+        }
+        this.endpoint = StringUtils.trimTrailingCharacter(config.getEndpoint(), '/');
+        this.bucket = config.getBucket();
+        this.region = config.getRegion();
+        this.accessKey = config.getAccessKey();
+        this.secretKey = config.getSecretKey();
+        this.requestTimeout = config.getRequestTimeout();
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType, String sha256) throws IOException {
+        HttpRequest request = signedRequest("PUT", key, sha256)
+            .header("Content-Type", contentType)
+            .PUT(HttpRequest.BodyPublishers.ofFile(file))
+            .build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw failure("PUT", key, response.statusCode(), response.body());
+        }
+    }
+
+    @Override
+    public InputStream get(String key, long start, long end) throws IOException {
+        HttpRequest request = signedRequest("GET", key, EMPTY_SHA256)
+            .header("Range", "bytes=" + start + "-" + end)
+            .GET()
+            .build();
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status == 200 || status == 206) {
+            return response.body();
+        }
+        String error;
+        try (InputStream body = response.body()) {
+            error = new String(body.readNBytes(MAX_ERROR_LENGTH), StandardCharsets.UTF_8);
+        }
+        if (status == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw failure("GET", key, status, error);
+    }
+
+    @Override
+    public OptionalLong size(String key) throws IOException {
+        HttpRequest request = signedRequest("HEAD", key, EMPTY_SHA256)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build();
+        HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return OptionalLong.empty();
+        }
+        if (response.statusCode() != 200) {
+            throw failure("HEAD", key, response.statusCode(), "");
+        }
+        return response.headers().firstValueAsLong("Content-Length");
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpRequest request = signedRequest("DELETE", key, EMPTY_SHA256).DELETE().build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        int status = response.statusCode();
+        if (status != 204 && status != 200 && status != 404) {
+            throw failure("DELETE", key, status, response.body());
+        }
+    }
+
+    /**
+     * Signature Version 4 over host, x-amz-content-sha256 and x-amz-date (no query string)
+     */
+    private HttpRequest.Builder signedRequest(String method, String key, String payloadSha256) {
+        String path = "/" + uriEncode(bucket) + "/" + uriEncode(key);
+        URI uri = URI.create(endpoint + path);
+        String amzDate = AMZ_DATE.format(Instant.now());
+
+        String canonicalRequest = method + "\n"
+            + path + "\n"
+            + "\n"
+            + "host:" + hostHeader(uri) + "\n"
+            + "x-amz-content-sha256:" + payloadSha256 + "\n"
+            + "x-amz-date:" + amzDate + "\n"
+            + "\n"
+            + SIGNED_HEADERS + "\n"
+            + payloadSha256;
+        String signature = signature(secretKey, region, amzDate, canonicalRequest);
+
+        return HttpRequest.newBuilder(uri)
+            .timeout(requestTimeout)
+            .header("x-amz-content-sha256", payloadSha256)
+            .header("x-amz-date", amzDate)
+            .header("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope(amzDate, region)
+                + ", SignedHeaders=" + SIGNED_HEADERS + ", Signature=" + signature);
+    }
+
+    /**
+     * Hex SigV4 signature of a canonical request made at amzDate (yyyyMMdd'T'HHmmss'Z')
+     */
+    static String signature(String secretKey, String region, String amzDate, String canonicalRequest) {
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope(amzDate, region) + "\n"
+            + hex(sha256(canonicalRequest));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), amzDate.substring(0, 8));
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        return hex(hmac(signingKey, stringToSign));
+    }
+
+    private static String scope(String amzDate, String region) {
+        return amzDate.substring(0, 8) + "/" + region + "/s3/aws4_request";
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during " + request.method() + " " + request.uri());
+        }
+    }
+
+    private IOException failure(String method, String key, int status, String body) {
+        String detail = body != null && body.length() > MAX_ERROR_LENGTH ? body.substring(0, MAX_ERROR_LENGTH) : body;
+        return new IOException("Object storage " + method + " " + key + " failed with HTTP " + status
+            + (StringUtils.hasText(detail) ? ": " + detail : ""));
+    }
+
+    // The Host header the JDK client sends: the port only when it is not the scheme's default
+    private static String hostHeader(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+            || ("http".equalsIgnoreCase(uri.getScheme()) && port == 80)
+            || ("https".equalsIgnoreCase(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    /**
+     * Percent-encodes everything but unreserved characters and '/', as SigV4 expects for S3 keys
+     */
+    private static String uriEncode(String value) {
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || c == '/') {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+}
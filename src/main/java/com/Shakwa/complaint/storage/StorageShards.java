@@ -0,0 +1,32 @@
+package com.Shakwa.complaint.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Two-level hashed fan-out ("ab/cd") for per-complaint folders, so no directory ever holds more
+ * than 256 subdirectories however many complaints there are. The shard of a name never changes.
+ */
+final class StorageShards {
+
+    private StorageShards() {
+    }
+
+    /**
+     * @return "ab/cd/<name>", ab and cd being the first bytes of SHA-256(name) in hex
+     */
+    static String shardedPath(String name) {
+        String hash = HexFormat.of().formatHex(sha256().digest(name.getBytes(StandardCharsets.UTF_8)));
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + name;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
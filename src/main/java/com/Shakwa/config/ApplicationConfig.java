@@ -28,7 +28,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 @Configuration
-@EnableConfigurationProperties(ComplaintStorageProperties.class)
+@EnableConfigurationProperties({ComplaintStorageProperties.class, CacheSpecProperties.class, JwtProperties.class,
+        AuditPipelineProperties.class, PartitionMaintenanceProperties.class})
 public class ApplicationConfig {
 
     private final UserRepository userRepository;
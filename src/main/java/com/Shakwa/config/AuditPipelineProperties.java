@@ -0,0 +1,94 @@
+package com.Shakwa.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Asynchronous audit pipeline (AuditAspect -> ring buffer -> batched JDBC writer).
+ * Example: audit.pipeline.capacity=8192, audit.pipeline.backpressure=SPILL
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit.pipeline")
+public class AuditPipelineProperties {
+
+    /**
+     * Ring buffer size (rounded up to a power of two).
+     */
+    private int capacity = 8192;
+
+    /**
+     * Maximum number of events per JDBC batch.
+     */
+    private int batchSize = 200;
+
+    /**
+     * How long the writer waits for more events before flushing a partial batch.
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    /**
+     * What a request thread does when the ring buffer is full.
+     */
+    private Backpressure backpressure = Backpressure.BLOCK;
+
+    /**
+     * Longest a request thread waits under BLOCK before the event is dropped.
+     */
+    private Duration blockTimeout = Duration.ofMillis(100);
+
+    /**
+     * Attempts per batch before it is moved to the spill file.
+     */
+    private int maxWriteAttempts = 3;
+
+    /**
+     * Directory of the spill file (overflow under SPILL and batches the database rejected).
+     */
+    private String spillDirectory = "./audit-spill";
+
+    /**
+     * Local write-ahead log every event is appended to before it is queued.
+     */
+    private Wal wal = new Wal();
+
+    @Getter
+    @Setter
+    public static class Wal {
+
+        /**
+         * When enabled, a full queue or a failed batch loses nothing: the writer catches up
+         * from the log (backpressure and the spill file only apply with the log disabled).
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directory of the memory-mapped segments and the checkpoint file.
+         */
+        private String directory = "./audit-wal";
+
+        /**
+         * Size of each memory-mapped segment file.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+        /**
+         * How often appended records are forced to disk (one fsync per interval).
+         */
+        private Duration fsyncInterval = Duration.ofMillis(200);
+    }
+
+    public enum Backpressure {
+        /** Wait for room, up to block-timeout */
+        BLOCK,
+        /** Discard the oldest queued event to make room */
+        DROP_OLDEST,
+        /** Append the event to the local spill file; it is replayed when the queue is idle */
+        SPILL
+    }
+}
@@ -1,51 +1,124 @@
 package com.Shakwa.config;
 
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.utils.cache.CacheTagIndex;
+import com.Shakwa.utils.cache.ComplaintCacheTags;
+import com.Shakwa.utils.cache.TaggedCache;
 import com.Shakwa.complaint.Enum.ComplaintType;
 import com.Shakwa.complaint.Enum.Governorate;
 
 /**
  * Cache configuration for Spring Cache abstraction.
- * Uses in-memory ConcurrentMapCacheManager (no Redis).
+ * Uses in-memory Caffeine caches (no Redis): bounded size with W-TinyLFU eviction
+ * and optional TTL/TTI, configured per cache name via CacheSpecProperties.
+ * Statistics are recorded so Actuator binds hit/miss/eviction metrics
+ * (cache.gets, cache.evictions, ...) to the Prometheus registry.
  * 
  * Cache names:
- * - "referenceData": For enum values (ComplaintType, Governorate, GovernmentAgencyType) - cached indefinitely
- * - "complaintLists": For complaint listing queries - cached with short TTL (60 seconds)
+ * - "referenceData": For enum values (ComplaintType, Governorate, GovernmentAgencyType) - long TTL
+ * - "complaintLists": For complaint listing queries - short TTL (60 seconds)
  * - "dashboardMetrics": For dashboard statistics - cached centrally
+ * - "tokenVersions": JWT revocation versions per account - short TTL (see TokenVersionService)
  */
 @Configuration
 @EnableCaching
 public class CacheConfig extends CachingConfigurerSupport {
 
+    public static final List<String> CACHE_NAMES = List.of(
+        "referenceData",
+        "complaintLists",
+        "dashboardMetrics",
+        "tokenVersions"
+    );
+
     /**
-     * Primary cache manager using ConcurrentMapCacheManager (in-memory).
-     * This provides a simple, thread-safe cache implementation.
+     * Primary cache manager using Caffeine (in-memory, bounded).
+     * Each known cache gets its own spec; unknown names fall back to the defaults.
+     * "complaintLists" is wrapped in a TaggedCache so writes evict only matching entries
+     * (see ComplaintCacheInvalidator).
      */
     @Bean
     @Primary
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(Arrays.asList(
-            "referenceData",
-            "complaintLists",
-            "dashboardMetrics"
-        ));
+    public CacheManager cacheManager(CacheSpecProperties cacheSpecProperties, MeterRegistry meterRegistry) {
+        CacheTagIndex complaintListTags = new CacheTagIndex(ComplaintCacheTags::fromKey);
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache adapted = super.adaptCaffeineCache(name, cache);
+                return ComplaintCacheTags.CACHE_NAME.equals(name)
+                    ? new TaggedCache(adapted, complaintListTags)
+                    : adapted;
+            }
+        };
         cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(buildCaffeine(cacheSpecProperties.getDefaults()));
+
+        for (String cacheName : CACHE_NAMES) {
+            CacheSpecProperties.Spec spec = cacheSpecProperties.getSpecs()
+                .getOrDefault(cacheName, cacheSpecProperties.getDefaults());
+            if (ComplaintCacheTags.CACHE_NAME.equals(cacheName)) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = buildTaggedCache(spec, complaintListTags);
+                // Actuator only binds metrics for CaffeineCache instances, not the TaggedCache wrapping this one
+                CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName, "cache.manager", "cacheManager");
+                cacheManager.registerCustomCache(cacheName, cache);
+            } else {
+                cacheManager.registerCustomCache(cacheName, buildCaffeine(spec).build());
+            }
+        }
         return cacheManager;
     }
 
+    /**
+     * Size/TTL evictions bypass TaggedCache, so they are reported to the tag index. The listener
+     * runs once the entry is gone and keeps the key if a concurrent put has stored it again.
+     */
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> buildTaggedCache(CacheSpecProperties.Spec spec,
+                                                                                     CacheTagIndex index) {
+        AtomicReference<com.github.benmanes.caffeine.cache.Cache<Object, Object>> built = new AtomicReference<>();
+        Caffeine<Object, Object> builder = buildCaffeine(spec);
+        builder.removalListener((key, value, cause) -> {
+            if (cause.wasEvicted()) {
+                index.removeUnless(key, k -> built.get().asMap().containsKey(k));
+            }
+        });
+        built.set(builder.build());
+        return built.get();
+    }
+
+    private Caffeine<Object, Object> buildCaffeine(CacheSpecProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumSize(spec.getMaxSize())
+            .recordStats();
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        return builder;
+    }
+
     /**
      * Custom key generator for complaint list queries.
      * Generates keys in format: {role}:{agencyId}:{filtersHash}
@@ -0,0 +1,50 @@
+package com.Shakwa.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per-cache limits for the Caffeine cache manager.
+ * Example: cache.specs.complaintLists.max-size=5000
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache")
+public class CacheSpecProperties {
+
+    /**
+     * Limits applied to any cache without its own entry in specs.
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * Limits per cache name (referenceData, complaintLists, dashboardMetrics).
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Spec {
+
+        /**
+         * Maximum number of entries; eviction beyond this uses W-TinyLFU.
+         */
+        private long maxSize = 1000;
+
+        /**
+         * Time-to-live since the entry was written (null = no TTL).
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Time-to-idle since the entry was last read or written (null = no TTI).
+         */
+        private Duration expireAfterAccess;
+    }
+}
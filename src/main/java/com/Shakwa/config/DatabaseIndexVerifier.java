@@ -0,0 +1,67 @@
+package com.Shakwa.config;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warns at startup when an index the complaint queries rely on is missing
+ * (e.g. a migration was skipped or an index was dropped by hand).
+ */
+@Component
+@ConditionalOnProperty(name = "database.index-verifier.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseIndexVerifier {
+
+    // الفهارس المتوقعة (من V8, V9, V10)
+    private static final List<String> EXPECTED_INDEXES = List.of(
+        "idx_complaints_open_last_activity",
+        "idx_complaints_agency_status",
+        "idx_complaints_agency_type",
+        "idx_complaints_agency_governorate",
+        "idx_complaints_citizen_status",
+        "idx_complaints_agency_created_at",
+        "idx_complaints_created_at_id",
+        "idx_complaints_resolved_agency_created_at",
+        "idx_complaint_history_complaint_created_at",
+        "idx_complaint_history_resolved",
+        "idx_complaint_history_created_at",
+        "idx_info_request_complaint_status",
+        "idx_complaint_daily_stats_agency_date"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        Set<String> existing;
+        try {
+            existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        } catch (DataAccessException e) {
+            log.warn("Could not verify database indexes: {}", e.getMessage());
+            return;
+        }
+
+        List<String> missing = EXPECTED_INDEXES.stream()
+            .filter(index -> !existing.contains(index))
+            .toList();
+
+        if (missing.isEmpty()) {
+            log.info("All {} expected database indexes are present", EXPECTED_INDEXES.size());
+        } else {
+            missing.forEach(index -> log.warn("Expected database index is missing: {}", index));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.Shakwa.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Flyway runs after Hibernate instead of before it.
+ * Tables are still created by Hibernate (ddl-auto=update), and the migrations only add what
+ * Hibernate cannot express (partial indexes, backfills, comments), so they need the tables to exist.
+ * Spring Boot would migrate before the EntityManagerFactory is built; the no-op strategy disables that
+ * and the initializer below migrates once the EntityManagerFactory (and schema update) is ready.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "true", matchIfMissing = true)
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            // Deferred until after Hibernate - see flywayMigrateAfterHibernate
+        };
+    }
+
+    @Bean
+    public InitializingBean flywayMigrateAfterHibernate(Flyway flyway, EntityManagerFactory entityManagerFactory) {
+        return flyway::migrate;
+    }
+}
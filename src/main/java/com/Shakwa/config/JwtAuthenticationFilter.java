@@ -1,10 +1,13 @@
 package com.Shakwa.config;
 
 import com.Shakwa.user.Enum.UserStatus;
+import com.Shakwa.user.entity.BaseUser;
 import com.Shakwa.user.entity.Citizen;
 import com.Shakwa.user.entity.Employee;
 import com.Shakwa.user.entity.User;
+import com.Shakwa.user.service.CurrentUserContext;
 import com.Shakwa.user.service.TokenBlacklistService;
+import com.Shakwa.user.service.TokenVersionService;
 import com.Shakwa.utils.restExceptionHanding.ApiException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -34,6 +37,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final CurrentUserContext currentUserContext;
+    private final TokenVersionService tokenVersionService;
     @Override
     protected void doFilterInternal(
            @NonNull HttpServletRequest request,
@@ -49,31 +54,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         jwt = authHeader.substring(7);
         try {
+            // Parsed once: verifies signature and expiry
+            TokenClaims claims = jwtService.parse(jwt);
+
             // Check if token is blacklisted (user has logged out)
-            if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
+            if (tokenBlacklistService.isTokenBlacklisted(claims, jwt)) {
                 handleTokenExpiredException(response, "Token has been invalidated");
                 return;
             }
             
-            userEmail = jwtService.extractUsername(jwt);
+            userEmail = claims.subject();
             if(userEmail != null && SecurityContextHolder.getContext().getAuthentication()==null){
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                if (claims.hasPrincipal()) {
+                    // Stateless path: principal comes from the signed claims, only the version is checked
+                    if (!isTokenVersionCurrent(claims)) {
+                        handleTokenExpiredException(response, "Token has been revoked");
+                        return;
+                    }
+                    BaseUser principal = jwtService.buildPrincipal(claims);
+                    authenticate(principal, request);
+                    currentUserContext.resolve(principal);
+                } else {
+                    // Tokens issued before principal claims existed: load the account
+                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
 
-                if (!isUserActive(userDetails)) {
-                    handleTokenExpiredException(response, "Account is inactive");
-                    return;
-                }
+                    if (!isUserActive(userDetails)) {
+                        handleTokenExpiredException(response, "Account is inactive");
+                        return;
+                    }
+
+                    if(jwtService.isTokenValid(claims,userDetails)){
+                        authenticate(userDetails, request);
 
-                if(jwtService.isTokenValid(jwt,userDetails)){
-                    UsernamePasswordAuthenticationToken authToken =  new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                        // Resolve the principal once for the whole request (see BaseSecurityService)
+                        if (userDetails instanceof BaseUser baseUser) {
+                            currentUserContext.resolve(baseUser);
+                        }
+                    }
                 }
             }
         } catch (Exception e) {
@@ -84,6 +101,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request,response);
     }
     
+    private boolean isTokenVersionCurrent(TokenClaims claims) {
+        return tokenVersionService.currentVersion(claims.userType(), claims.userId())
+                .map(version -> version == claims.tokenVersion())
+                .orElse(false);
+    }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken =  new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
     private void handleTokenExpiredException(HttpServletResponse response, String message) throws IOException {
         response.setStatus(HttpStatus.UNAUTHORIZED.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
@@ -0,0 +1,43 @@
+package com.Shakwa.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * JWT signing keys and lifetime.
+ * Keys are Base64 HMAC secrets identified by a key id (written to the "kid" header).
+ * Rotation: add the new key, switch active-key-id, and remove the old key once the
+ * tokens it signed have expired.
+ * Example: jwt.keys.primary=..., jwt.active-key-id=primary
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * Key id used to sign new tokens.
+     */
+    private String activeKeyId = "primary";
+
+    /**
+     * Key id used to verify tokens issued before the "kid" header existed.
+     */
+    private String legacyKeyId = "primary";
+
+    /**
+     * Verification keys by key id (Base64 HMAC-SHA256 secrets).
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * Token lifetime.
+     */
+    private Duration expiration = Duration.ofHours(24);
+}
@@ -1,60 +1,207 @@
 package com.Shakwa.config;
 
+import com.Shakwa.user.Enum.UserStatus;
+import com.Shakwa.user.Enum.UserType;
+import com.Shakwa.user.entity.BaseUser;
+import com.Shakwa.user.entity.Citizen;
+import com.Shakwa.user.entity.Employee;
+import com.Shakwa.user.entity.Permission;
+import com.Shakwa.user.entity.Role;
+import com.Shakwa.user.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
 
-    @Value("${jwtKey}")
-    private static final String SECRET_KEY = "7402bb3c24c35f15d1a7f1422078d9c1a4d9ebf1a276ff01ac84e6407625532e";
+    // Principal claims: enough to authenticate and authorize without loading the account
+    public static final String CLAIM_USER_TYPE = "typ";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_AGENCY = "agency";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_PERMISSIONS = "perms";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private static final String ROLE_AUTHORITY_PREFIX = "ROLE_";
+
+    private final JwtProperties jwtProperties;
+
+    // Built once: decoded keys by kid and a thread-safe parser resolving the key from the header
+    private Map<String, Key> signingKeys;
+    private Key activeKey;
+    private JwtParser parser;
+
+    public JwtService(JwtProperties jwtProperties) {
+        this.jwtProperties = jwtProperties;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (jwtProperties.getKeys().isEmpty()) {
+            throw new IllegalStateException("No JWT signing keys configured (jwt.keys.*)");
+        }
+        Map<String, Key> keys = new HashMap<>();
+        jwtProperties.getKeys().forEach((kid, secret) ->
+                keys.put(kid, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))));
+        this.signingKeys = Map.copyOf(keys);
+
+        this.activeKey = signingKeys.get(jwtProperties.getActiveKeyId());
+        if (activeKey == null) {
+            throw new IllegalStateException("Active JWT key id not configured: " + jwtProperties.getActiveKeyId());
+        }
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    private Key resolveKey(String keyId) {
+        String effectiveKeyId = keyId != null ? keyId : jwtProperties.getLegacyKeyId();
+        Key key = signingKeys.get(effectiveKeyId);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + effectiveKeyId);
+        }
+        return key;
+    }
+
+    /**
+     * Verifies the token (signature, expiry) and returns its claims.
+     * Meant to be called once per request; pass the result around instead of the raw token.
+     */
+    public TokenClaims parse(String token) {
+        return TokenClaims.from(extractAllClaims(token));
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token,Claims::getSubject);
     }
 
     public String generateToken(UserDetails userDetails){
-        return generateToken(new HashMap<>() ,userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof BaseUser user) {
+            claims.putAll(principalClaims(user));
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
             Map<String ,Object> extraClaims,
             UserDetails userDetails
     ){
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtProperties.getActiveKeyId())
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis()+1000*60*60*24))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtProperties.getExpiration().toMillis()))
+                .signWith(activeKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token , UserDetails userDetails){
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()))
-                && !isTokenExpired(token)
-                && userDetails.isEnabled();
+    /**
+     * Signed claims describing the principal: account type, id, agency, role,
+     * permission names and the token version used for revocation
+     */
+    private Map<String, Object> principalClaims(BaseUser user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_TYPE, UserType.of(user).name());
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_TOKEN_VERSION, user.currentTokenVersion());
+        if (user.getRole() != null) {
+            claims.put(CLAIM_ROLE, user.getRole().getName());
+        }
+        if (user instanceof Employee employee && employee.getGovernmentAgency() != null) {
+            claims.put(CLAIM_AGENCY, employee.getGovernmentAgency().name());
+        }
+        claims.put(CLAIM_PERMISSIONS, user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> !authority.startsWith(ROLE_AUTHORITY_PREFIX))
+                .sorted()
+                .toList());
+        return claims;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Rebuilds the principal from the token alone.
+     * The result is a detached, partially populated entity of the right subtype (id, email,
+     * agency, role and permission names only) - enough for authorization and for code that
+     * reads the principal's id or type. Profile data must be loaded from the database.
+     */
+    public BaseUser buildPrincipal(TokenClaims claims) {
+        Role role = null;
+        if (claims.role() != null) {
+            role = Role.builder()
+                    .name(claims.role())
+                    .isActive(true)
+                    .permissions(new HashSet<>())
+                    .build();
+        }
+
+        Set<Permission> permissions = claims.permissions().stream()
+                .map(name -> Permission.builder().name(name).isActive(true).build())
+                .collect(Collectors.toSet());
+
+        BaseUser principal = switch (claims.userType()) {
+            case USER -> User.builder()
+                    .status(UserStatus.ACTIVE)
+                    .role(role)
+                    .additionalPermissions(permissions)
+                    .build();
+            case EMPLOYEE -> Employee.builder()
+                    .status(UserStatus.ACTIVE)
+                    .role(role)
+                    .additionalPermissions(permissions)
+                    .governmentAgency(claims.governmentAgency())
+                    .build();
+            case CITIZEN -> Citizen.builder()
+                    .status(UserStatus.ACTIVE)
+                    .role(role)
+                    .additionalPermissions(permissions)
+                    .build();
+        };
+        principal.setId(claims.userId());
+        principal.setEmail(claims.subject());
+        principal.setTokenVersion(claims.tokenVersion());
+        return principal;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token,Claims::getExpiration);
+    public boolean isTokenValid(String token , UserDetails userDetails){
+        return isTokenValid(parse(token), userDetails);
+    }
+
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails){
+        return claims.subject() != null
+                && claims.subject().equals(userDetails.getUsername())
+                && !claims.isExpired()
+                && userDetails.isEnabled();
     }
 
     public <T> T extractClaim(String token , Function<Claims,T> claimsResolver){
@@ -63,14 +210,6 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token){
-        return Jwts.parserBuilder().setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 }
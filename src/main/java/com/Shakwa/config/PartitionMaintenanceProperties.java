@@ -0,0 +1,57 @@
+package com.Shakwa.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Monthly partitions of audit_events and complaint_history (see V15).
+ * Example: partitioning.audit-events.retention-months=24
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "partitioning")
+public class PartitionMaintenanceProperties {
+
+    /**
+     * Whether PartitionMaintenanceService runs at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of future months kept ready, besides the current one.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Schema that ARCHIVE moves expired partitions into.
+     */
+    private String archiveSchema = "archive";
+
+    private Retention auditEvents = new Retention();
+
+    private Retention complaintHistory = new Retention();
+
+    @Getter
+    @Setter
+    public static class Retention {
+
+        /**
+         * Months kept attached, including the current one; 0 keeps everything.
+         */
+        private int retentionMonths = 0;
+
+        /**
+         * What happens to a partition once all of its rows are past retention.
+         */
+        private RetentionAction action = RetentionAction.ARCHIVE;
+    }
+
+    public enum RetentionAction {
+        /** Detach the partition and leave it as a standalone table next to the parent */
+        DETACH,
+        /** Detach the partition and move it into archive-schema */
+        ARCHIVE
+    }
+}
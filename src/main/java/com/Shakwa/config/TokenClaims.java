@@ -0,0 +1,62 @@
+package com.Shakwa.config;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.user.Enum.UserType;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Immutable view of a verified token, extracted once per request by JwtService.parse().
+ * The principal fields are null for tokens issued before they were added to the token.
+ */
+public record TokenClaims(
+        String subject,
+        String id,
+        Date issuedAt,
+        Date expiration,
+        UserType userType,
+        Long userId,
+        GovernmentAgencyType governmentAgency,
+        String role,
+        List<String> permissions,
+        long tokenVersion
+) {
+
+    static TokenClaims from(Claims claims) {
+        String userType = claims.get(JwtService.CLAIM_USER_TYPE, String.class);
+        Object userId = claims.get(JwtService.CLAIM_USER_ID);
+        String agency = claims.get(JwtService.CLAIM_AGENCY, String.class);
+        Object version = claims.get(JwtService.CLAIM_TOKEN_VERSION);
+        Object permissions = claims.get(JwtService.CLAIM_PERMISSIONS);
+
+        return new TokenClaims(
+                claims.getSubject(),
+                claims.getId(),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                userType != null ? UserType.valueOf(userType) : null,
+                userId instanceof Number number ? number.longValue() : null,
+                agency != null ? GovernmentAgencyType.valueOf(agency) : null,
+                claims.get(JwtService.CLAIM_ROLE, String.class),
+                permissions instanceof Collection<?> names
+                        ? names.stream().map(String::valueOf).toList()
+                        : List.of(),
+                version instanceof Number number ? number.longValue() : 0L
+        );
+    }
+
+    /**
+     * True if the token carries the principal claims (tokens issued before they existed do not)
+     */
+    public boolean hasPrincipal() {
+        return userType != null && userId != null;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
 @Table(name = "notifications")
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "notification_seq", sequenceName = "notification_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "notification_seq", sequenceName = "notification_id_seq", allocationSize = 50)
 public class Notification extends AuditedEntity {
 
     @Override
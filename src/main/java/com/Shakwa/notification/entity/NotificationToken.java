@@ -22,7 +22,7 @@ import java.time.LocalDateTime;
 })
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "notification_token_seq", sequenceName = "notification_token_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "notification_token_seq", sequenceName = "notification_token_id_seq", allocationSize = 50)
 public class NotificationToken extends AuditedEntity {
 
     @Override
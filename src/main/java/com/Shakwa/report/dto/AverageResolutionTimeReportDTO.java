@@ -39,6 +39,21 @@ public class AverageResolutionTimeReportDTO {
      */
     private Long maxResolutionDays;
     
+    /**
+     * Median (50th percentile) resolution time in days
+     */
+    private Double p50ResolutionDays;
+    
+    /**
+     * 90th percentile resolution time in days
+     */
+    private Double p90ResolutionDays;
+    
+    /**
+     * 99th percentile resolution time in days
+     */
+    private Double p99ResolutionDays;
+    
     /**
      * Total number of resolved complaints used in calculation
      */
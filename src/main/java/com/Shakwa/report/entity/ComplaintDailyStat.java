@@ -0,0 +1,73 @@
+package com.Shakwa.report.entity;
+
+import java.time.LocalDate;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.Enum.ComplaintType;
+import com.Shakwa.complaint.Enum.Governorate;
+import com.Shakwa.user.Enum.GovernmentAgencyType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Daily complaint counters (rollup) keyed by creation day, agency, governorate, type and status.
+ * Maintained incrementally by ComplaintStatsRollupService and reconciled nightly from complaints.
+ * Rows are written only through native upserts in ComplaintDailyStatRepository.
+ */
+@Entity
+@Table(
+    name = "complaint_daily_stats",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_complaint_daily_stats_key",
+        columnNames = {"stat_date", "government_agency", "governorate", "complaint_type", "status"}
+    ),
+    indexes = {
+        @Index(name = "idx_complaint_daily_stats_agency_date", columnList = "government_agency, stat_date")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplaintDailyStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // يوم إنشاء الشكاوى (created_at::date)
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "government_agency", nullable = false)
+    private GovernmentAgencyType governmentAgency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "governorate", nullable = false)
+    private Governorate governorate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "complaint_type", nullable = false)
+    private ComplaintType complaintType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ComplaintStatus status;
+
+    @Column(name = "complaint_count", nullable = false)
+    private Long complaintCount;
+}
@@ -0,0 +1,72 @@
+package com.Shakwa.report.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.Shakwa.report.entity.ComplaintDailyStat;
+
+/**
+ * Repository for the complaint_daily_stats rollup.
+ * Writes are native PostgreSQL upserts so concurrent increments on the same key never conflict.
+ */
+@Repository
+public interface ComplaintDailyStatRepository extends JpaRepository<ComplaintDailyStat, Long> {
+
+    /**
+     * Add delta (may be negative) to the counter for one rollup key, creating the row if needed.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO complaint_daily_stats
+            (stat_date, government_agency, governorate, complaint_type, status, complaint_count)
+        VALUES (:statDate, :agency, :governorate, :complaintType, :status, :delta)
+        ON CONFLICT (stat_date, government_agency, governorate, complaint_type, status)
+        DO UPDATE SET complaint_count = complaint_daily_stats.complaint_count + EXCLUDED.complaint_count
+        """, nativeQuery = true)
+    int increment(@Param("statDate") LocalDate statDate,
+                  @Param("agency") String agency,
+                  @Param("governorate") String governorate,
+                  @Param("complaintType") String complaintType,
+                  @Param("status") String status,
+                  @Param("delta") long delta);
+
+    /**
+     * Recompute every counter from the complaints table in one statement, so it works on a single
+     * snapshot and upserts row by row like increment does. Existing counters with no complaints
+     * left are set to zero (see deleteZeroCounts); only rows whose value differs are touched.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO complaint_daily_stats
+            (stat_date, government_agency, governorate, complaint_type, status, complaint_count)
+        SELECT source.stat_date, source.government_agency, source.governorate, source.complaint_type, source.status,
+               CAST(SUM(source.complaint_count) AS BIGINT)
+        FROM (
+            SELECT CAST(c.created_at AS DATE) AS stat_date, c.government_agency, c.governorate,
+                   c.complaint_type, c.status, COUNT(*) AS complaint_count
+            FROM complaints c
+            GROUP BY CAST(c.created_at AS DATE), c.government_agency, c.governorate, c.complaint_type, c.status
+            UNION ALL
+            SELECT s.stat_date, s.government_agency, s.governorate, s.complaint_type, s.status, 0
+            FROM complaint_daily_stats s
+        ) source
+        GROUP BY source.stat_date, source.government_agency, source.governorate, source.complaint_type, source.status
+        ON CONFLICT (stat_date, government_agency, governorate, complaint_type, status)
+        DO UPDATE SET complaint_count = EXCLUDED.complaint_count
+        WHERE complaint_daily_stats.complaint_count <> EXCLUDED.complaint_count
+        """, nativeQuery = true)
+    int reconcileCounts();
+
+    /**
+     * Remove counters left at zero by decrements or by reconcileCounts. A concurrent increment
+     * of a removed key simply inserts the row again.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM complaint_daily_stats WHERE complaint_count = 0", nativeQuery = true)
+    int deleteZeroCounts();
+}
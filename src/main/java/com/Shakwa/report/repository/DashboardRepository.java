@@ -0,0 +1,18 @@
+package com.Shakwa.report.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.Shakwa.complaint.entity.Complaint;
+
+/**
+ * Repository for admin dashboard queries.
+ *
+ * Note: All dashboard statistics are computed by grouped queries in
+ * DashboardRepositoryCustomImpl, so only aggregates leave the database.
+ */
+@Repository
+public interface DashboardRepository extends JpaRepository<Complaint, Long>, DashboardRepositoryCustom {
+
+    // All aggregate query methods are in DashboardRepositoryCustom/DashboardRepositoryCustomImpl
+}
@@ -0,0 +1,57 @@
+package com.Shakwa.report.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.entity.Complaint;
+
+/**
+ * Custom repository interface for admin dashboard queries.
+ * Every method returns aggregates (or a bounded subset) so memory use does not
+ * grow with the number of complaints.
+ */
+public interface DashboardRepositoryCustom {
+
+    /**
+     * Count complaints grouped by status for a date range.
+     * Each row is [ComplaintStatus, Long].
+     */
+    List<Object[]> countComplaintsGroupedByStatus(
+        LocalDateTime fromDate,
+        LocalDateTime toDate
+    );
+
+    /**
+     * Get the agencies with the most complaints for a date range, busiest first.
+     * Each row is [GovernmentAgencyType, Long].
+     */
+    List<Object[]> findTopAgenciesByComplaintCount(
+        LocalDateTime fromDate,
+        LocalDateTime toDate,
+        int limit
+    );
+
+    /**
+     * Get the most common complaint types for a date range, most common first.
+     * Each row is [ComplaintType, Long].
+     */
+    List<Object[]> findTopComplaintTypesByCount(
+        LocalDateTime fromDate,
+        LocalDateTime toDate,
+        int limit
+    );
+
+    /**
+     * Get the longest-idle complaints for a date range: in one of the given (open)
+     * statuses and with no activity since the given time, oldest activity first.
+     * Served by the partial index on last_activity_at for open statuses.
+     */
+    List<Complaint> findOverdueComplaints(
+        List<ComplaintStatus> openStatuses,
+        LocalDateTime lastActivityBefore,
+        LocalDateTime fromDate,
+        LocalDateTime toDate,
+        int limit
+    );
+}
@@ -0,0 +1,141 @@
+package com.Shakwa.report.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.entity.Complaint;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Custom repository implementation for admin dashboard queries.
+ * Uses Criteria API grouped queries so the database returns only aggregates
+ * instead of loading every complaint into memory.
+ */
+@Repository
+public class DashboardRepositoryCustomImpl implements DashboardRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> countComplaintsGroupedByStatus(
+            LocalDateTime fromDate,
+            LocalDateTime toDate) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Complaint> root = query.from(Complaint.class);
+
+        List<Predicate> predicates = buildDateRangePredicates(cb, root, fromDate, toDate);
+
+        query.multiselect(root.get("status"), cb.count(root))
+             .where(predicates.toArray(new Predicate[0]))
+             .groupBy(root.get("status"));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findTopAgenciesByComplaintCount(
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            int limit) {
+
+        return findTopGroupsByCount("governmentAgency", fromDate, toDate, limit);
+    }
+
+    @Override
+    public List<Object[]> findTopComplaintTypesByCount(
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            int limit) {
+
+        return findTopGroupsByCount("complaintType", fromDate, toDate, limit);
+    }
+
+    @Override
+    public List<Complaint> findOverdueComplaints(
+            List<ComplaintStatus> openStatuses,
+            LocalDateTime lastActivityBefore,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            int limit) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Complaint> query = cb.createQuery(Complaint.class);
+        Root<Complaint> root = query.from(Complaint.class);
+
+        List<Predicate> predicates = buildDateRangePredicates(cb, root, fromDate, toDate);
+        predicates.add(root.get("status").in(openStatuses));
+        predicates.add(cb.lessThan(root.get("lastActivityAt"), lastActivityBefore));
+
+        query.select(root)
+             .where(predicates.toArray(new Predicate[0]))
+             .orderBy(cb.asc(root.get("lastActivityAt")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Group complaints by a single attribute and return the top groups by count.
+     * The ordering and limit are applied in the database.
+     */
+    private List<Object[]> findTopGroupsByCount(
+            String attribute,
+            LocalDateTime fromDate,
+            LocalDateTime toDate,
+            int limit) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Complaint> root = query.from(Complaint.class);
+
+        List<Predicate> predicates = buildDateRangePredicates(cb, root, fromDate, toDate);
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(root.get(attribute), count)
+             .where(predicates.toArray(new Predicate[0]))
+             .groupBy(root.get(attribute))
+             .orderBy(cb.desc(count));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Build date range predicates on createdAt (both bounds inclusive).
+     * Only adds predicates for non-null values, avoiding PostgreSQL type inference issues.
+     */
+    private List<Predicate> buildDateRangePredicates(
+            CriteriaBuilder cb,
+            Root<Complaint> root,
+            LocalDateTime fromDate,
+            LocalDateTime toDate) {
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (fromDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), fromDate));
+        }
+
+        if (toDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), toDate));
+        }
+
+        return predicates;
+    }
+}
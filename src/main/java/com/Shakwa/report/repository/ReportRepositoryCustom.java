@@ -1,5 +1,6 @@
 package com.Shakwa.report.repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -59,4 +60,37 @@ public interface ReportRepositoryCustom {
         LocalDateTime fromDate,
         LocalDateTime toDate
     );
+    
+    /**
+     * Compute resolution time statistics (in whole days) for resolved complaints
+     * in a single query. The resolution time of each complaint is taken from its
+     * first STATUS_CHANGED -> RESOLVED history row, falling back to respondedAt,
+     * then updatedAt.
+     * Row is [count, avg, min, max, p50, p90, p99]; aggregates are null when count is 0.
+     */
+    Object[] computeResolutionTimeStats(
+        GovernmentAgencyType agency,
+        LocalDateTime fromDate,
+        LocalDateTime toDate
+    );
+    
+    /**
+     * Count complaints by status from the daily rollup (whole days only)
+     * Each row is [ComplaintStatus, Long]
+     */
+    List<Object[]> countComplaintsByStatusFromRollup(
+        GovernmentAgencyType agency,
+        LocalDate fromDate,
+        LocalDate toDate
+    );
+    
+    /**
+     * Count complaints by type from the daily rollup (whole days only), most common first
+     * Each row is [ComplaintType, Long]
+     */
+    List<Object[]> countComplaintsByTypeFromRollup(
+        GovernmentAgencyType agency,
+        LocalDate fromDate,
+        LocalDate toDate
+    );
 }
@@ -1,5 +1,6 @@
 package com.Shakwa.report.repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -8,12 +9,15 @@ import org.springframework.stereotype.Repository;
 
 import com.Shakwa.complaint.Enum.ComplaintStatus;
 import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.report.entity.ComplaintDailyStat;
 import com.Shakwa.user.Enum.GovernmentAgencyType;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
@@ -136,6 +140,121 @@ public class ReportRepositoryCustomImpl implements ReportRepositoryCustom {
         return entityManager.createQuery(query).getResultList();
     }
     
+    @Override
+    public Object[] computeResolutionTimeStats(
+            GovernmentAgencyType agency,
+            LocalDateTime fromDate,
+            LocalDateTime toDate) {
+        
+        // Native SQL: percentile_cont has no JPQL/Criteria equivalent.
+        // Conditions are appended only for non-null values (same reason as buildCommonPredicates).
+        StringBuilder sql = new StringBuilder("""
+            WITH first_resolved AS (
+                SELECT h.complaint_id, MIN(h.created_at) AS resolved_at
+                FROM complaint_history h
+                WHERE h.action_type = 'STATUS_CHANGED' AND h.new_value = 'RESOLVED'
+                GROUP BY h.complaint_id
+            ),
+            durations AS (
+                SELECT TRUNC(EXTRACT(EPOCH FROM (
+                           COALESCE(fr.resolved_at, c.responded_at, c.updated_at, LOCALTIMESTAMP) - c.created_at
+                       )) / 86400) AS days
+                FROM complaints c
+                LEFT JOIN first_resolved fr ON fr.complaint_id = c.id
+                WHERE c.status = :status
+            """);
+        
+        if (agency != null) {
+            sql.append(" AND c.government_agency = :agency");
+        }
+        if (fromDate != null) {
+            sql.append(" AND c.created_at >= :fromDate");
+        }
+        if (toDate != null) {
+            sql.append(" AND c.created_at <= :toDate");
+        }
+        
+        sql.append("""
+            )
+            SELECT COUNT(*),
+                   AVG(days),
+                   MIN(days),
+                   MAX(days),
+                   PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY days),
+                   PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY days),
+                   PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY days)
+            FROM durations
+            """);
+        
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("status", ComplaintStatus.RESOLVED.name());
+        if (agency != null) {
+            query.setParameter("agency", agency.name());
+        }
+        if (fromDate != null) {
+            query.setParameter("fromDate", fromDate);
+        }
+        if (toDate != null) {
+            query.setParameter("toDate", toDate);
+        }
+        
+        return (Object[]) query.getSingleResult();
+    }
+    
+    @Override
+    public List<Object[]> countComplaintsByStatusFromRollup(
+            GovernmentAgencyType agency,
+            LocalDate fromDate,
+            LocalDate toDate) {
+        
+        return sumRollupGroupedBy("status", agency, fromDate, toDate);
+    }
+    
+    @Override
+    public List<Object[]> countComplaintsByTypeFromRollup(
+            GovernmentAgencyType agency,
+            LocalDate fromDate,
+            LocalDate toDate) {
+        
+        return sumRollupGroupedBy("complaintType", agency, fromDate, toDate);
+    }
+    
+    /**
+     * Sum rollup counters grouped by a single attribute, largest first.
+     */
+    private List<Object[]> sumRollupGroupedBy(
+            String attribute,
+            GovernmentAgencyType agency,
+            LocalDate fromDate,
+            LocalDate toDate) {
+        
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<ComplaintDailyStat> root = query.from(ComplaintDailyStat.class);
+        
+        // Only add predicates for non-null values (same reason as buildCommonPredicates)
+        List<Predicate> predicates = new ArrayList<>();
+        if (agency != null) {
+            predicates.add(cb.equal(root.get("governmentAgency"), agency));
+        }
+        if (fromDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("statDate"), fromDate));
+        }
+        if (toDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("statDate"), toDate));
+        }
+        
+        Expression<Long> total = cb.sum(root.<Long>get("complaintCount"));
+        
+        query.multiselect(root.get(attribute), total)
+             .where(predicates.toArray(new Predicate[0]))
+             .groupBy(root.get(attribute))
+             .having(cb.greaterThan(total, 0L))
+             .orderBy(cb.desc(total));
+        
+        return entityManager.createQuery(query).getResultList();
+    }
+    
     /**
      * Build common predicates for agency and date range filtering.
      * Only adds predicates for non-null values, avoiding PostgreSQL type inference issues.
@@ -0,0 +1,150 @@
+package com.Shakwa.report.service;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.Enum.ComplaintType;
+import com.Shakwa.complaint.Enum.Governorate;
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.report.repository.ComplaintDailyStatRepository;
+import com.Shakwa.user.Enum.GovernmentAgencyType;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the complaint_daily_stats rollup.
+ * Counters are updated in the caller's transaction on complaint creation, on any change of
+ * status, agency, governorate or type, and on deletion, and fully reconciled from the
+ * complaints table every night.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintStatsRollupService {
+
+    private final ComplaintDailyStatRepository complaintDailyStatRepository;
+
+    @Value("${reports.rollup.enabled:true}")
+    private boolean enabled;
+
+    // false حتى يتم بناء الـ rollup لأول مرة - التقارير تقرأ من الجداول الأصلية حتى ذلك الحين
+    private volatile boolean ready = false;
+
+    /**
+     * Whether reports can read from the rollup
+     */
+    public boolean isAvailable() {
+        return enabled && ready;
+    }
+
+    /**
+     * Count a newly created complaint
+     */
+    @Transactional
+    public void recordCreated(Complaint complaint) {
+        if (!enabled) {
+            return;
+        }
+        increment(StatKey.of(complaint), 1);
+    }
+
+    /**
+     * Move a complaint from its old status counter to the new one
+     */
+    @Transactional
+    public void recordStatusChange(Complaint complaint, ComplaintStatus oldStatus, ComplaintStatus newStatus) {
+        recordMove(StatKey.of(complaint, oldStatus), StatKey.of(complaint, newStatus));
+    }
+
+    /**
+     * Move a complaint from the counter it was in (captured before the change) to its current one
+     */
+    @Transactional
+    public void recordMove(StatKey oldKey, StatKey newKey) {
+        if (!enabled || oldKey.equals(newKey)) {
+            return;
+        }
+        if (oldKey.status() != null) {
+            increment(oldKey, -1);
+        }
+        if (newKey.status() != null) {
+            increment(newKey, 1);
+        }
+    }
+
+    /**
+     * Uncount a deleted complaint from its current status counter
+     */
+    @Transactional
+    public void recordDeleted(Complaint complaint) {
+        if (!enabled || complaint.getStatus() == null) {
+            return;
+        }
+        increment(StatKey.of(complaint), -1);
+    }
+
+    /**
+     * Build the rollup on startup when it is empty, otherwise trust the existing counters
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        if (complaintDailyStatRepository.count() == 0) {
+            reconcile();
+        }
+        ready = true;
+    }
+
+    /**
+     * Nightly reconciliation: repairs any drift between the rollup and the complaints table
+     */
+    @Scheduled(cron = "${reports.rollup.reconcile-cron:0 30 2 * * *}")
+    @Transactional
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int updated = complaintDailyStatRepository.reconcileCounts();
+        int deleted = complaintDailyStatRepository.deleteZeroCounts();
+        log.info("Complaint stats rollup reconciled: {} counters updated, {} removed in {} ms",
+                updated, deleted, System.currentTimeMillis() - start);
+    }
+
+    private void increment(StatKey key, long delta) {
+        complaintDailyStatRepository.increment(
+                key.day(),
+                key.agency().name(),
+                key.governorate().name(),
+                key.type().name(),
+                key.status().name(),
+                delta);
+    }
+
+    /**
+     * The counter a complaint is counted in
+     */
+    public record StatKey(LocalDate day, GovernmentAgencyType agency, Governorate governorate,
+                          ComplaintType type, ComplaintStatus status) {
+
+        public static StatKey of(Complaint complaint) {
+            return of(complaint, complaint.getStatus());
+        }
+
+        static StatKey of(Complaint complaint, ComplaintStatus status) {
+            return new StatKey(complaint.getCreatedAt().toLocalDate(), complaint.getGovernmentAgency(),
+                    complaint.getGovernorate(), complaint.getComplaintType(), status);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.Shakwa.report.service;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
@@ -35,6 +39,9 @@ public class ExportService {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
+    // Streamed CSV exports are flushed to the client every this many rows
+    private static final int CSV_FLUSH_ROWS = 1000;
+    
     // Fonts for PDF (using default fonts, can be enhanced with Arabic font support)
     private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
     private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
@@ -162,37 +169,46 @@ public class ExportService {
     }
     
     /**
-     * Export audit log to CSV
+     * Export audit log to CSV, writing each event as it arrives from the source.
+     * Nothing is buffered beyond the writer's own buffer, so memory use does not depend on
+     * the number of events; the caller decides when the stream is closed.
+     *
+     * @param auditEvents called once with a sink that receives the events in order
      */
-    public byte[] exportAuditLogToCSV(List<AuditEventDTO> auditEvents) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-        
-        try (CSVWriter csvWriter = new CSVWriter(writer)) {
-            csvWriter.writeNext(new String[]{"Audit Log Export", "", "", "", "", "", ""});
-            csvWriter.writeNext(new String[]{"", "", "", "", "", "", ""});
-            
+    public void exportAuditLogToCSV(OutputStream outputStream, Consumer<Consumer<AuditEventDTO>> auditEvents)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CSVWriter csvWriter = new CSVWriter(writer);
+
+        csvWriter.writeNext(new String[]{"Audit Log Export", "", "", "", "", "", ""});
+        csvWriter.writeNext(new String[]{"", "", "", "", "", "", ""});
+
+        csvWriter.writeNext(new String[]{
+            "ID", "Action", "Target Type", "Target ID", "Actor", "Status", "IP Address", "Created At"
+        });
+
+        long[] rows = {0};
+        auditEvents.accept(event -> {
             csvWriter.writeNext(new String[]{
-                "ID", "Action", "Target Type", "Target ID", "Actor", "Status", "IP Address", "Created At"
+                String.valueOf(event.getId()),
+                event.getAction(),
+                event.getTargetType(),
+                event.getTargetId() != null ? String.valueOf(event.getTargetId()) : "",
+                event.getActorName() != null ? event.getActorName() : "",
+                event.getStatus(),
+                event.getIpAddress() != null ? event.getIpAddress() : "",
+                event.getCreatedAt() != null ? event.getCreatedAt().toString() : ""
             });
-            
-            if (auditEvents != null) {
-                for (AuditEventDTO event : auditEvents) {
-                    csvWriter.writeNext(new String[]{
-                        String.valueOf(event.getId()),
-                        event.getAction(),
-                        event.getTargetType(),
-                        event.getTargetId() != null ? String.valueOf(event.getTargetId()) : "",
-                        event.getActorName() != null ? event.getActorName() : "",
-                        event.getStatus(),
-                        event.getIpAddress() != null ? event.getIpAddress() : "",
-                        event.getCreatedAt() != null ? event.getCreatedAt().toString() : ""
-                    });
-                }
+            // CSVWriter swallows IO errors: check (and flush) periodically so a closed
+            // connection stops the export instead of reading the rest of the table
+            if (++rows[0] % CSV_FLUSH_ROWS == 0 && csvWriter.checkError()) {
+                throw new UncheckedIOException(csvWriter.getException());
             }
+        });
+
+        if (csvWriter.checkError()) {
+            throw new IOException("Failed to write audit log CSV", csvWriter.getException());
         }
-        
-        return outputStream.toByteArray();
     }
     
     // ========== PDF Export Methods ==========
@@ -2,7 +2,7 @@ package com.Shakwa.report.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,10 +11,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.Shakwa.complaint.Enum.ComplaintStatus;
 import com.Shakwa.complaint.Enum.ComplaintType;
-import com.Shakwa.complaint.Enum.HistoryActionType;
-import com.Shakwa.complaint.entity.Complaint;
-import com.Shakwa.complaint.entity.ComplaintHistory;
-import com.Shakwa.complaint.repository.ComplaintHistoryRepository;
 import com.Shakwa.report.dto.AverageResolutionTimeReportDTO;
 import com.Shakwa.report.dto.ComplaintStatusReportDTO;
 import com.Shakwa.report.dto.ComplaintTypeDistributionDTO;
@@ -36,16 +32,19 @@ import com.Shakwa.utils.exception.UnAuthorizedException;
 public class ReportService extends BaseSecurityService {
     
     private final ReportRepository reportRepository;
-    private final ComplaintHistoryRepository complaintHistoryRepository;
+    private final ComplaintStatsRollupService complaintStatsRollupService;
+    
+    // آخر ثانية في اليوم كما يبنيها toDate.atTime(23, 59, 59)
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
     
     public ReportService(ReportRepository reportRepository,
-                        ComplaintHistoryRepository complaintHistoryRepository,
+                        ComplaintStatsRollupService complaintStatsRollupService,
                         UserRepository userRepository,
                         CitizenRepo citizenRepo,
                         EmployeeRepository employeeRepository) {
         super(userRepository, citizenRepo, employeeRepository);
         this.reportRepository = reportRepository;
-        this.complaintHistoryRepository = complaintHistoryRepository;
+        this.complaintStatsRollupService = complaintStatsRollupService;
     }
     
     /**
@@ -66,9 +65,10 @@ public class ReportService extends BaseSecurityService {
         LocalDateTime fromDateTime = fromDate != null ? fromDate.atStartOfDay() : null;
         LocalDateTime toDateTime = toDate != null ? toDate.atTime(23, 59, 59) : null;
         
-        // Get counts by status
-        List<Object[]> statusCounts = reportRepository.countComplaintsByStatus(
-            userAgency, fromDateTime, toDateTime);
+        // Get counts by status (daily rollup for whole-day ranges, raw scan otherwise)
+        List<Object[]> statusCounts = useRollup(fromDateTime, toDateTime)
+            ? reportRepository.countComplaintsByStatusFromRollup(userAgency, fromDate, toDate)
+            : reportRepository.countComplaintsByStatus(userAgency, fromDateTime, toDateTime);
         
         // Initialize counts
         long total = 0;
@@ -113,7 +113,8 @@ public class ReportService extends BaseSecurityService {
     
     /**
      * Get average resolution time report
-     * Calculates average time taken to resolve complaints using ComplaintHistory
+     * Calculates resolution time statistics (avg, min, max, p50/p90/p99) from ComplaintHistory
+     * in a single aggregate query
      * 
      * @param agency Government agency (null = all agencies, only for admins)
      * @param fromDate Start date (optional)
@@ -129,87 +130,25 @@ public class ReportService extends BaseSecurityService {
         LocalDateTime fromDateTime = fromDate != null ? fromDate.atStartOfDay() : null;
         LocalDateTime toDateTime = toDate != null ? toDate.atTime(23, 59, 59) : null;
         
-        // Get all resolved complaints for the agency and date range
-        // Use repository query for better performance
-        List<Complaint> resolvedComplaints = reportRepository.findResolvedComplaints(
-            ComplaintStatus.RESOLVED,
+        // Count, avg, min, max and percentiles are computed in one database query
+        Object[] stats = reportRepository.computeResolutionTimeStats(
             userAgency,
             fromDateTime,
             toDateTime
         );
         
-        if (resolvedComplaints.isEmpty()) {
-            return AverageResolutionTimeReportDTO.builder()
-                .averageDays(0.0)
-                .averageHours(0.0)
-                .minResolutionDays(0L)
-                .maxResolutionDays(0L)
-                .totalResolvedComplaints(0L)
-                .agency(userAgency)
-                .fromDate(fromDate)
-                .toDate(toDate)
-                .build();
-        }
-        
-        // Calculate resolution times using ComplaintHistory
-        List<Long> resolutionDays = new ArrayList<>();
-        
-        for (Complaint complaint : resolvedComplaints) {
-            // Find when the complaint was created
-            LocalDateTime createdTime = complaint.getCreatedAt();
-            
-            // Find when status was changed to RESOLVED in ComplaintHistory
-            List<ComplaintHistory> histories = complaintHistoryRepository
-                .findByComplaintIdOrderByCreatedAtDesc(complaint.getId());
-            
-            LocalDateTime resolvedTime = null;
-            for (ComplaintHistory history : histories) {
-                if (history.getActionType() == HistoryActionType.STATUS_CHANGED &&
-                    "RESOLVED".equals(history.getNewValue())) {
-                    resolvedTime = history.getCreatedAt();
-                    break;
-                }
-            }
-            
-            // If not found in history, use respondedAt or current time
-            if (resolvedTime == null) {
-                if (complaint.getRespondedAt() != null) {
-                    resolvedTime = complaint.getRespondedAt();
-                } else {
-                    resolvedTime = complaint.getUpdatedAt() != null ? 
-                        complaint.getUpdatedAt() : LocalDateTime.now();
-                }
-            }
-            
-            // Calculate days between creation and resolution
-            long days = ChronoUnit.DAYS.between(createdTime, resolvedTime);
-            resolutionDays.add(days);
-        }
-        
-        // Calculate statistics
-        double avgDays = resolutionDays.stream()
-            .mapToLong(Long::longValue)
-            .average()
-            .orElse(0.0);
-        
-        double avgHours = avgDays * 24;
-        
-        long minDays = resolutionDays.stream()
-            .mapToLong(Long::longValue)
-            .min()
-            .orElse(0L);
-        
-        long maxDays = resolutionDays.stream()
-            .mapToLong(Long::longValue)
-            .max()
-            .orElse(0L);
+        long totalResolved = ((Number) stats[0]).longValue();
+        double avgDays = stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0;
         
         return AverageResolutionTimeReportDTO.builder()
             .averageDays(avgDays)
-            .averageHours(avgHours)
-            .minResolutionDays(minDays)
-            .maxResolutionDays(maxDays)
-            .totalResolvedComplaints((long) resolvedComplaints.size())
+            .averageHours(avgDays * 24)
+            .minResolutionDays(stats[2] != null ? ((Number) stats[2]).longValue() : 0L)
+            .maxResolutionDays(stats[3] != null ? ((Number) stats[3]).longValue() : 0L)
+            .p50ResolutionDays(stats[4] != null ? ((Number) stats[4]).doubleValue() : 0.0)
+            .p90ResolutionDays(stats[5] != null ? ((Number) stats[5]).doubleValue() : 0.0)
+            .p99ResolutionDays(stats[6] != null ? ((Number) stats[6]).doubleValue() : 0.0)
+            .totalResolvedComplaints(totalResolved)
             .agency(userAgency)
             .fromDate(fromDate)
             .toDate(toDate)
@@ -234,12 +173,17 @@ public class ReportService extends BaseSecurityService {
         LocalDateTime fromDateTime = fromDate != null ? fromDate.atStartOfDay() : null;
         LocalDateTime toDateTime = toDate != null ? toDate.atTime(23, 59, 59) : null;
         
-        // Get counts by type
-        List<Object[]> typeCounts = reportRepository.countComplaintsByType(
-            userAgency, fromDateTime, toDateTime);
-        
-        // Get total count
-        Long total = reportRepository.countTotalComplaints(userAgency, fromDateTime, toDateTime);
+        // Get counts by type (daily rollup for whole-day ranges, raw scan otherwise)
+        Long total;
+        List<Object[]> typeCounts;
+        if (useRollup(fromDateTime, toDateTime)) {
+            typeCounts = reportRepository.countComplaintsByTypeFromRollup(userAgency, fromDate, toDate);
+            // Every complaint has exactly one type, so the type counts add up to the total
+            total = typeCounts.stream().mapToLong(row -> (Long) row[1]).sum();
+        } else {
+            typeCounts = reportRepository.countComplaintsByType(userAgency, fromDateTime, toDateTime);
+            total = reportRepository.countTotalComplaints(userAgency, fromDateTime, toDateTime);
+        }
         
         // Build distribution list
         List<TypeCount> distribution = new ArrayList<>();
@@ -265,6 +209,15 @@ public class ReportService extends BaseSecurityService {
             .build();
     }
     
+    /**
+     * The rollup is keyed by day, so it can only answer ranges made of whole days
+     */
+    private boolean useRollup(LocalDateTime fromDateTime, LocalDateTime toDateTime) {
+        return complaintStatsRollupService.isAvailable()
+            && (fromDateTime == null || fromDateTime.toLocalTime().equals(LocalTime.MIDNIGHT))
+            && (toDateTime == null || !toDateTime.toLocalTime().isBefore(END_OF_DAY));
+    }
+    
     /**
      * Validate agency access and return the agency to use
      * Employees can only access their own agency's reports
@@ -0,0 +1,29 @@
+package com.Shakwa.user.Enum;
+
+import com.Shakwa.user.entity.BaseUser;
+import com.Shakwa.user.entity.Citizen;
+import com.Shakwa.user.entity.Employee;
+import com.Shakwa.user.entity.User;
+
+/**
+ * The concrete account table a principal lives in (users, employees or citizens).
+ * Carried in the JWT so the principal can be rebuilt without probing every table.
+ */
+public enum UserType {
+    USER,
+    EMPLOYEE,
+    CITIZEN;
+
+    public static UserType of(BaseUser user) {
+        if (user instanceof User) {
+            return USER;
+        }
+        if (user instanceof Employee) {
+            return EMPLOYEE;
+        }
+        if (user instanceof Citizen) {
+            return CITIZEN;
+        }
+        throw new IllegalArgumentException("Unknown user type: " + user.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,21 @@
+package com.Shakwa.user.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cursor (keyset) page for infinite-scroll clients.
+ * Unlike PaginationDTO there is no total count: pass nextCursor back to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -30,6 +30,18 @@ public abstract class BaseUser extends BaseEntity implements UserDetails, HasRol
     @Column(nullable = false)
     protected String password;
 
+    // يُزاد عند تغيير الدور أو الصلاحيات أو الحالة لإبطال التوكنات الصادرة سابقاً
+    @Column(name = "token_version")
+    protected Long tokenVersion;
+
+    public long currentTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0L;
+    }
+
+    public void incrementTokenVersion() {
+        tokenVersion = currentTokenVersion() + 1;
+    }
+
     @Override
     public List<GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_USER"));
@@ -20,7 +20,7 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "otp_verification_seq", sequenceName = "otp_verification_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "otp_verification_seq", sequenceName = "otp_verification_id_seq", allocationSize = 50)
 public class OtpVerification extends BaseEntity {
     
     @Override
@@ -14,7 +14,7 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "permission_seq", sequenceName = "permissions_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "permission_seq", sequenceName = "permissions_id_seq", allocationSize = 50)
 public class Permission extends BaseEntity {
     
     @Override
@@ -16,7 +16,7 @@ import com.Shakwa.utils.entity.BaseEntity;
 @SuperBuilder
 @NoArgsConstructor
 @AllArgsConstructor
-@SequenceGenerator(name = "role_seq", sequenceName = "roles_id_seq", allocationSize = 1)
+@SequenceGenerator(name = "role_seq", sequenceName = "roles_id_seq", allocationSize = 50)
 public class Role extends BaseEntity {
     
     @Override
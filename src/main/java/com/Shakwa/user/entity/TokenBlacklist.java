@@ -8,9 +8,15 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Blacklisted (logged out) token, keyed by the SHA-256 hex of its jti
+ * (or of the full token for tokens issued without a jti).
+ * The table is range-partitioned by expiry_date (daily, see V12) so expired
+ * entries are dropped a partition at a time.
+ */
 @Entity
 @Table(name = "token_blacklist", indexes = {
-    @Index(name = "idx_token_blacklist_token", columnList = "token"),
+    @Index(name = "idx_token_blacklist_token_hash", columnList = "tokenHash"),
     @Index(name = "idx_token_blacklist_expiry", columnList = "expiryDate")
 })
 @Data
@@ -23,8 +29,8 @@ public class TokenBlacklist {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 500)
-    private String token;
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
 
     @Column(nullable = false)
     private String userEmail;
@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,4 +26,11 @@ public interface CitizenRepo extends JpaRepository<Citizen, Long> {
     // Pagination methods
     @Query("SELECT c FROM Citizen c WHERE (LOWER(c.firstName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :name, '%')) OR LOWER(CONCAT(c.firstName, ' ', c.lastName)) LIKE LOWER(CONCAT('%', :name, '%')))")
     Page<Citizen> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
-} 
\ No newline at end of file
+
+    @Query("SELECT COALESCE(c.tokenVersion, 0) FROM Citizen c WHERE c.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Citizen c SET c.tokenVersion = COALESCE(c.tokenVersion, 0) + 1 WHERE c.role.id = :roleId")
+    int incrementTokenVersionByRoleId(@Param("roleId") Long roleId);
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,4 +23,11 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Lock(value = PESSIMISTIC_WRITE)
     @Query("SELECT e FROM Employee e WHERE e.email = :email")
     Optional<Employee> findByEmailWithGovernmentAgency(@Param("email") String email);
-} 
\ No newline at end of file
+
+    @Query("SELECT COALESCE(e.tokenVersion, 0) FROM Employee e WHERE e.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Employee e SET e.tokenVersion = COALESCE(e.tokenVersion, 0) + 1 WHERE e.role.id = :roleId")
+    int incrementTokenVersionByRoleId(@Param("roleId") Long roleId);
+}
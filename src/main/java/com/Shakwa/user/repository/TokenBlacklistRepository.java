@@ -5,17 +5,29 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.Shakwa.user.entity.TokenBlacklist;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
-public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, Long> {
+public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, Long>, TokenBlacklistRepositoryCustom {
 
-    boolean existsByToken(String token);
+    boolean existsByTokenHash(String tokenHash);
+
+    @Query("SELECT t.tokenHash FROM TokenBlacklist t WHERE t.expiryDate >= :now")
+    List<String> findActiveTokenHashes(@Param("now") LocalDateTime now);
+
+    /**
+     * Tokens blacklisted (on any instance) since the given time that have not expired yet
+     */
+    @Query("SELECT t.tokenHash FROM TokenBlacklist t WHERE t.blacklistedAt >= :since AND t.expiryDate >= :now")
+    List<String> findActiveTokenHashesBlacklistedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
 
     @Modifying
+    @Transactional
     @Query("DELETE FROM TokenBlacklist t WHERE t.expiryDate < :now")
     void deleteExpiredTokens(@Param("now") LocalDateTime now);
 }
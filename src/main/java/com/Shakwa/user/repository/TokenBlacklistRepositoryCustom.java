@@ -0,0 +1,20 @@
+package com.Shakwa.user.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Partition maintenance for the token_blacklist table (daily range partitions on expiry_date)
+ */
+public interface TokenBlacklistRepositoryCustom {
+
+    /**
+     * Create the daily partitions for [fromDate, fromDate + days) if missing
+     */
+    void ensureDailyPartitions(LocalDate fromDate, int days);
+
+    /**
+     * Drop daily partitions whose whole range expires before the given date
+     * @return number of partitions dropped
+     */
+    int dropPartitionsBefore(LocalDate date);
+}
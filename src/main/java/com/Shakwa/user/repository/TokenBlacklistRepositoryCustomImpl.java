@@ -0,0 +1,73 @@
+package com.Shakwa.user.repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Native DDL for token_blacklist partitions.
+ * Partitions are named token_blacklist_pYYYYMMDD and cover one expiry day each;
+ * rows outside every daily range land in token_blacklist_default.
+ */
+@Repository
+@Slf4j
+public class TokenBlacklistRepositoryCustomImpl implements TokenBlacklistRepositoryCustom {
+
+    private static final String PARTITION_PREFIX = "token_blacklist_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void ensureDailyPartitions(LocalDate fromDate, int days) {
+        for (int i = 0; i < days; i++) {
+            LocalDate day = fromDate.plusDays(i);
+            // Names and bounds come from LocalDate only, never from user input
+            entityManager.createNativeQuery(
+                    "CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(PARTITION_SUFFIX)
+                    + " PARTITION OF token_blacklist FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')")
+                .executeUpdate();
+        }
+    }
+
+    @Override
+    @Transactional
+    public int dropPartitionsBefore(LocalDate date) {
+        @SuppressWarnings("unchecked")
+        List<String> partitions = entityManager.createNativeQuery("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'token_blacklist' AND c.relname LIKE 'token_blacklist_p%'
+                """)
+            .getResultList();
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            LocalDate day;
+            try {
+                day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            } catch (DateTimeParseException e) {
+                log.warn("Skipping token blacklist partition with unexpected name: {}", partition);
+                continue;
+            }
+            if (day.plusDays(1).isAfter(date)) {
+                continue;
+            }
+            entityManager.createNativeQuery("DROP TABLE IF EXISTS " + partition).executeUpdate();
+            dropped++;
+        }
+        return dropped;
+    }
+}
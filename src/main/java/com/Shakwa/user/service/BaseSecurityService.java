@@ -1,15 +1,20 @@
 package com.Shakwa.user.service;
 
 import com.Shakwa.user.repository.EmployeeRepository;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.user.Enum.UserType;
 import com.Shakwa.user.entity.BaseUser;
 import com.Shakwa.user.entity.Citizen;
 import com.Shakwa.user.entity.Employee;
-import com.Shakwa.user.entity.User;
 import com.Shakwa.user.repository.CitizenRepo;
 import com.Shakwa.user.repository.UserRepository;
 import com.Shakwa.utils.exception.ResourceNotFoundException;
@@ -28,20 +33,89 @@ public abstract class BaseSecurityService {
         this.employeeRepository = employeeRepository;
     }
 
+    // Request-scoped proxy; only usable while a request is bound to the thread
+    private CurrentUserContext currentUserContext;
+
+    @Autowired
+    void setCurrentUserContext(CurrentUserContext currentUserContext) {
+        this.currentUserContext = currentUserContext;
+    }
+
+    /**
+     * Returns the request's principal holder, or null outside a web request
+     * (scheduled jobs, startup listeners), where the helpers fall back to a lookup.
+     */
+    private CurrentUserContext requestContext() {
+        if (currentUserContext == null || RequestContextHolder.getRequestAttributes() == null) {
+            return null;
+        }
+        return currentUserContext;
+    }
+
     /**
      * 
      * Gets the currently authenticated user (can be User, Citizen, or Employee)
+     * Loaded by the id resolved once per request (normally by JwtAuthenticationFilter), so the
+     * entity belongs to the caller's persistence context and its lazy associations can be read;
+     * repeated calls within that context are answered from it.
      * @return The current user as BaseUser
      * @throws ResourceNotFoundException if the user is not found
      */
     protected BaseUser getCurrentUser() {
+        String email = getAuthenticatedEmail();
+
+        CurrentUserContext context = requestContext();
+        if (context != null && context.isResolved() && email.equals(context.getPrincipal().getEmail())) {
+            return findUserById(context.getUserType(), context.getUserId());
+        }
+
+        BaseUser user = findUserByEmail(email);
+        if (context != null) {
+            context.resolve(user);
+        }
+        return user;
+    }
+
+    /**
+     * Gets the identity of the current user (id, type, agency, role) without loading the account
+     * when the token carried it. Only use it for access checks and ids - profile fields
+     * (name, phone, ...) may be missing; use getCurrentUser() for those.
+     */
+    protected BaseUser getCurrentPrincipal() {
+        String email = getAuthenticatedEmail();
+
+        CurrentUserContext context = requestContext();
+        if (context != null && context.isResolved() && email.equals(context.getPrincipal().getEmail())) {
+            return context.getPrincipal();
+        }
+        return getCurrentUser();
+    }
+
+    /**
+     * Gets the id of the current user (in its own table: users, employees or citizens)
+     */
+    protected Long getCurrentUserId() {
+        return getCurrentPrincipal().getId();
+    }
+
+    private String getAuthenticatedEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new ResourceNotFoundException("User not authenticated");
         }
+        return authentication.getName();
+    }
 
-        String email = authentication.getName();
-        
+    private BaseUser findUserById(UserType userType, Long userId) {
+        Optional<? extends BaseUser> user = switch (userType) {
+            case USER -> userRepository.findById(userId);
+            case EMPLOYEE -> employeeRepository.findById(userId);
+            case CITIZEN -> citizenRepo.findById(userId);
+        };
+        return user.orElseThrow(() -> new ResourceNotFoundException("User not found: " + userId));
+    }
+
+    private BaseUser findUserByEmail(String email) {
         // Try User (Platform Admins) first
         BaseUser user = userRepository.findByEmail(email).orElse(null);
         if (user != null) {
@@ -55,10 +129,22 @@ public abstract class BaseSecurityService {
         }
         
         // Try Employee
-        user = employeeRepository.findByEmail(email).orElseThrow(
+        return employeeRepository.findByEmail(email).orElseThrow(
                 ()-> new ResourceNotFoundException("User not found: " + email)
         );
-        return user;
+    }
+
+    /**
+     * Role name of the current user (from the principal, no account load needed)
+     */
+    private String getCurrentUserRoleName() {
+        BaseUser principal = getCurrentPrincipal();
+        CurrentUserContext context = requestContext();
+        if (context != null && context.getPrincipal() == principal) {
+            // Captured when the principal was resolved; its role association may be detached by now
+            return context.getRoleName();
+        }
+        return principal.getRole() != null ? principal.getRole().getName() : null;
     }
 
     /**
@@ -66,8 +152,7 @@ public abstract class BaseSecurityService {
      * @return true if the user is a platform admin
      */
     protected boolean isAdmin() {
-        BaseUser currentUser = getCurrentUser();
-        return currentUser.getRole() != null && currentUser.getRole().getName().equals("PLATFORM_ADMIN");
+        return "PLATFORM_ADMIN".equals(getCurrentUserRoleName());
     }
 
     /**
@@ -76,8 +161,8 @@ public abstract class BaseSecurityService {
      * @return true if the user has the specified role
      */
     protected boolean hasRole(String roleName) {
-        BaseUser currentUser = getCurrentUser();
-        return currentUser.getRole() != null && currentUser.getRole().getName().equals(roleName);
+        String currentRoleName = getCurrentUserRoleName();
+        return currentRoleName != null && currentRoleName.equals(roleName);
     }
 
     /**
@@ -86,7 +171,7 @@ public abstract class BaseSecurityService {
      * @throws UnAuthorizedException if user is not an employee or has no governmentAgency
      */
     protected GovernmentAgencyType getCurrentUserGovernmentAgency() {
-        BaseUser currentUser = getCurrentUser();
+        BaseUser currentUser = getCurrentPrincipal();
         if (currentUser instanceof Employee employee) {
             if (employee.getGovernmentAgency() == null) {
                 throw new UnAuthorizedException("User is not associated with any governmentAgency");
@@ -126,8 +211,7 @@ public abstract class BaseSecurityService {
      */
     protected boolean isCurrentUserEmployee() {
         try {
-            BaseUser currentUser = getCurrentUser();
-            return currentUser instanceof Employee;
+            return getCurrentPrincipal() instanceof Employee;
         } catch (Exception e) {
             return false;
         }
@@ -144,9 +228,10 @@ public abstract class BaseSecurityService {
             throw new UnAuthorizedException("User not authenticated");
         }
         
-        String email = authentication.getName();
-        return citizenRepo.findByEmail(email)
-                .orElseThrow(() -> new UnAuthorizedException("Current user is not a citizen"));
+        if (getCurrentUser() instanceof Citizen citizen) {
+            return citizen;
+        }
+        throw new UnAuthorizedException("Current user is not a citizen");
     }
 
     /**
@@ -159,8 +244,7 @@ public abstract class BaseSecurityService {
             if (authentication == null || !authentication.isAuthenticated()) {
                 return false;
             }
-            String email = authentication.getName();
-            return citizenRepo.findByEmail(email).isPresent();
+            return getCurrentPrincipal() instanceof Citizen;
         } catch (Exception e) {
             return false;
         }
@@ -60,6 +60,7 @@ public class CitizenService extends BaseSecurityService {
     private static final SecureRandom random = new SecureRandom();
     private final EmployeeRepository employeeRepository;
     private final SecurityNotificationService securityNotificationService;
+    private final TokenVersionService tokenVersionService;
 
     public CitizenService(CitizenRepo citizenRepo, CitizenMapper citizenMapper,
                           UserRepository userRepository,
@@ -71,7 +72,8 @@ public class CitizenService extends BaseSecurityService {
                           EmailService emailService,
                           OtpVerificationRepository otpRepository, 
                           EmployeeRepository employeeRepository,
-                          SecurityNotificationService securityNotificationService) {
+                          SecurityNotificationService securityNotificationService,
+                          TokenVersionService tokenVersionService) {
         super(userRepository, citizenRepo ,employeeRepository);
         this.citizenRepo = citizenRepo;
         this.citizenMapper = citizenMapper;
@@ -83,6 +85,7 @@ public class CitizenService extends BaseSecurityService {
         this.emailService = emailService;
         this.otpRepository = otpRepository;
         this.employeeRepository = employeeRepository;
+        this.tokenVersionService = tokenVersionService;
         this.securityNotificationService = securityNotificationService;
     }
 
@@ -253,6 +256,7 @@ public class CitizenService extends BaseSecurityService {
                 .orElseThrow(() -> new EntityNotFoundException("Citizen not found with ID: " + citizenId));
         
         citizen.setStatus(UserStatus.INACTIVE);
+        tokenVersionService.revokeTokens(citizen);
         citizenRepo.save(citizen);
         logger.info("Citizen suspended: {} - Reason: {}", citizenId, reason);
     }
@@ -271,6 +275,7 @@ public class CitizenService extends BaseSecurityService {
                 .orElseThrow(() -> new EntityNotFoundException("Citizen not found with ID: " + citizenId));
         
         citizen.setStatus(UserStatus.ACTIVE);
+        tokenVersionService.revokeTokens(citizen);
         citizenRepo.save(citizen);
         logger.info("Citizen unsuspended: {}", citizenId);
     }
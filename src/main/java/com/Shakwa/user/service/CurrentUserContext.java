@@ -0,0 +1,43 @@
+package com.Shakwa.user.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.Shakwa.user.Enum.GovernmentAgencyType;
+import com.Shakwa.user.Enum.UserType;
+import com.Shakwa.user.entity.BaseUser;
+import com.Shakwa.user.entity.Employee;
+
+import lombok.Getter;
+
+/**
+ * The authenticated principal of the current request, resolved once.
+ * Populated by JwtAuthenticationFilter, from the token claims or from the user it loaded, so the
+ * BaseSecurityService helpers can answer identity checks without querying the user tables again.
+ * Only the identity is kept: the filter runs outside any persistence context, so an entity held
+ * here would be detached; BaseSecurityService.getCurrentUser loads the account by id instead.
+ */
+@Component
+@RequestScope
+@Getter
+public class CurrentUserContext {
+
+    // Identity (id, type, agency, role) - may be built from token claims; never use its associations
+    private BaseUser principal;
+    private UserType userType;
+    private Long userId;
+    private GovernmentAgencyType governmentAgency;
+    private String roleName;
+
+    public void resolve(BaseUser principal) {
+        this.principal = principal;
+        this.userType = UserType.of(principal);
+        this.userId = principal.getId();
+        this.governmentAgency = principal instanceof Employee employee ? employee.getGovernmentAgency() : null;
+        this.roleName = principal.getRole() != null ? principal.getRole().getName() : null;
+    }
+
+    public boolean isResolved() {
+        return principal != null;
+    }
+}
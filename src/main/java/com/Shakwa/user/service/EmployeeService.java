@@ -2,6 +2,7 @@ package com.Shakwa.user.service;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +57,7 @@ public class EmployeeService extends BaseSecurityService {
     private final RateLimiterConfig rateLimiterConfig;
     private final RateLimiterRegistry rateLimiterRegistry;
     private final SecurityNotificationService securityNotificationService;
+    private final TokenVersionService tokenVersionService;
     
     public EmployeeService(EmployeeRepository employeeRepository,
                            RoleRepository roleRepository,
@@ -66,7 +68,8 @@ public class EmployeeService extends BaseSecurityService {
                            JwtService jwtService,
                            RateLimiterConfig rateLimiterConfig,
                            RateLimiterRegistry rateLimiterRegistry,
-                           SecurityNotificationService securityNotificationService) {
+                           SecurityNotificationService securityNotificationService,
+                           TokenVersionService tokenVersionService) {
         super(userRepository, citizenRepo , employeeRepository);
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
@@ -75,6 +78,7 @@ public class EmployeeService extends BaseSecurityService {
         this.rateLimiterConfig = rateLimiterConfig;
         this.rateLimiterRegistry = rateLimiterRegistry;
         this.securityNotificationService = securityNotificationService;
+        this.tokenVersionService = tokenVersionService;
     }
     
     Logger logger = Logger.getLogger(EmployeeService.class.getName());
@@ -196,6 +200,7 @@ public class EmployeeService extends BaseSecurityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
         
         employee.setStatus(com.Shakwa.user.Enum.UserStatus.INACTIVE);
+        tokenVersionService.revokeTokens(employee);
         employeeRepository.save(employee);
         logger.info("Employee disabled successfully: " + employeeId);
     }
@@ -214,6 +219,7 @@ public class EmployeeService extends BaseSecurityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
         
         employee.setStatus(com.Shakwa.user.Enum.UserStatus.ACTIVE);
+        tokenVersionService.revokeTokens(employee);
         employeeRepository.save(employee);
         logger.info("Employee enabled successfully: " + employeeId);
     }
@@ -239,6 +245,7 @@ public class EmployeeService extends BaseSecurityService {
         }
         
         employee.setRole(role);
+        tokenVersionService.revokeTokens(employee);
         employeeRepository.save(employee);
         logger.info("Employee role updated successfully: " + employeeId + " -> " + roleName);
     }
@@ -261,6 +268,7 @@ public class EmployeeService extends BaseSecurityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
         
         employee.setGovernmentAgency(agency);
+        tokenVersionService.revokeTokens(employee);
         employeeRepository.save(employee);
         logger.info("Employee agency updated successfully: " + employeeId + " -> " + agency.getLabel());
     }
@@ -490,6 +498,8 @@ public class EmployeeService extends BaseSecurityService {
     
     private void updateEmployeeFields(Employee employee, EmployeeUpdateRequestDTO dto) {
         logger.info("Updating employee fields...");
+        Role previousRole = employee.getRole();
+        GovernmentAgencyType previousAgency = employee.getGovernmentAgency();
         
         // Use the mapper to update the entity
         EmployeeMapper.updateEntity(employee, dto);
@@ -508,7 +518,12 @@ public class EmployeeService extends BaseSecurityService {
             employee.setRole(role);
         }
 
-        
+        // Role or agency are token claims, issued tokens must be re-issued
+        if (!Objects.equals(previousRole != null ? previousRole.getId() : null,
+                employee.getRole() != null ? employee.getRole().getId() : null)
+                || previousAgency != employee.getGovernmentAgency()) {
+            tokenVersionService.revokeTokens(employee);
+        }
     }
 
     @Audited(action = "LOGIN_EMPLOYEE", targetType = "EMPLOYEE", includeArgs = false)
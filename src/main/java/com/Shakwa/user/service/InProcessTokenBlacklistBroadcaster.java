@@ -0,0 +1,30 @@
+package com.Shakwa.user.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node stand-in: delivers published tokens to local subscribers only.
+ * Other instances pick the token up from the table on their next filter sync
+ * (TokenBlacklistService.syncRecentTokens, every few seconds). A distributed implementation
+ * that shortens that window replaces it by being declared as a @Primary bean.
+ */
+@Component
+public class InProcessTokenBlacklistBroadcaster implements TokenBlacklistBroadcaster {
+
+    private final List<BiConsumer<String, LocalDateTime>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String tokenHash, LocalDateTime expiryDate) {
+        listeners.forEach(listener -> listener.accept(tokenHash, expiryDate));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, LocalDateTime> listener) {
+        listeners.add(listener);
+    }
+}
@@ -24,6 +24,7 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final TokenVersionService tokenVersionService;
 
     public List<Role> getAllRoles() {
         return roleRepository.findAll();
@@ -75,10 +76,17 @@ public class RoleService {
             throw new IllegalArgumentException("Role with name " + roleDetails.getName() + " already exists");
         }
         
+        // The role name is a token claim; renamed or deactivated roles must not stay in old tokens
+        boolean claimChanged = !role.getName().equals(roleDetails.getName())
+                || role.isActive() != roleDetails.getIsActive();
+        
         role.setName(roleDetails.getName());
         role.setDescription(roleDetails.getDescription());
         role.setActive(roleDetails.getIsActive());
         
+        if (claimChanged) {
+            tokenVersionService.revokeTokensForRole(role.getId());
+        }
         return roleRepository.save(role);
     }
 
@@ -91,6 +99,8 @@ public class RoleService {
             throw new IllegalStateException("Cannot delete system role: " + role.getName());
         }
         
+        // Before the delete, while the accounts still reference the role
+        tokenVersionService.revokeTokensForRole(role.getId());
         roleRepository.delete(role);
     }
 
@@ -109,6 +119,7 @@ public class RoleService {
                 .collect(Collectors.toSet());
         
         role.setPermissions(permissions);
+        tokenVersionService.revokeTokensForRole(role.getId());
         return roleRepository.save(role);
     }
 
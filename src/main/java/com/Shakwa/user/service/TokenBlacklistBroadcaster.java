@@ -0,0 +1,22 @@
+package com.Shakwa.user.service;
+
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+/**
+ * Propagates blacklisted tokens to the other application instances so their in-memory
+ * filters stay in sync. The default implementation only delivers within this JVM;
+ * multi-node deployments provide their own bean (message broker, Postgres LISTEN/NOTIFY, ...).
+ */
+public interface TokenBlacklistBroadcaster {
+
+    /**
+     * Announce a newly blacklisted token (by its blacklist key, see TokenBlacklistService.blacklistKey)
+     */
+    void publish(String tokenHash, LocalDateTime expiryDate);
+
+    /**
+     * Register a listener for tokens blacklisted on any instance (including this one)
+     */
+    void subscribe(BiConsumer<String, LocalDateTime> listener);
+}
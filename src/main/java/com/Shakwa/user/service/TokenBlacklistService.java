@@ -1,20 +1,51 @@
 package com.Shakwa.user.service;
 
 import com.Shakwa.config.JwtService;
+import com.Shakwa.config.TokenClaims;
 import com.Shakwa.user.entity.TokenBlacklist;
 import com.Shakwa.user.repository.TokenBlacklistRepository;
+import com.Shakwa.utils.cache.BloomFilter;
 
-import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Token blacklist (logout).
+ * Entries are keyed by a fixed-width SHA-256 of the token's jti; tokens issued before
+ * jti existed are keyed by a hash of the whole token (V12 re-keyed the old rows the same way).
+ * Lookups are answered in memory: a Bloom filter built from the table at startup and
+ * rebuilt by the hourly cleanup, plus an exact map of entries added since the last build.
+ * A filter miss means "not blacklisted" without a database round trip; only possible
+ * hits are confirmed against the table. Additions from other instances arrive through
+ * the TokenBlacklistBroadcaster and, since the default broadcaster only reaches this JVM,
+ * through a periodic sync of the rows blacklisted since the last one. A logout on another
+ * node is therefore honoured here within security.token-blacklist.sync-interval-ms; if the
+ * sync stops succeeding for max-staleness-ms, every lookup goes to the database again.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,6 +53,49 @@ public class TokenBlacklistService {
 
     private final TokenBlacklistRepository tokenBlacklistRepository;
     private final JwtService jwtService;
+    private final TokenBlacklistBroadcaster tokenBlacklistBroadcaster;
+
+    // Tokens live 24h, so today's and the next days' partitions cover every new entry
+    private static final int PARTITIONS_AHEAD_DAYS = 3;
+
+    // Each sync re-reads this far back: rows whose transaction committed after the previous sync
+    // (blacklisted_at is set before commit) and clock differences between instances
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    @Value("${security.token-blacklist.expected-insertions:10000}")
+    private long expectedInsertions;
+
+    @Value("${security.token-blacklist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${security.token-blacklist.max-staleness-ms:30000}")
+    private long maxStalenessMillis;
+
+    // null until the first build; lookups go to the database meanwhile
+    private volatile BloomFilter filter;
+
+    // When the filter last caught up with the table (build or sync): wall clock for the query,
+    // System.nanoTime() for the staleness check
+    private volatile LocalDateTime syncedFrom;
+    private volatile long syncedAtNanos;
+
+    // Entries added since the filter was built: token hash -> expiry date
+    private final Map<String, LocalDateTime> recentTokens = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribe() {
+        tokenBlacklistBroadcaster.subscribe(this::remember);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            rebuildFilter();
+        } catch (Exception e) {
+            // Keep answering from the database until the next successful rebuild
+            log.warn("Could not build token blacklist filter: {}", e.getMessage());
+        }
+    }
 
     /**
      * Blacklists a JWT token to invalidate it
@@ -31,40 +105,147 @@ public class TokenBlacklistService {
     @Transactional
     public void blacklistToken(String token, String userEmail) {
         // Extract expiry date from token
-        Claims claims = jwtService.extractAllClaims(token);
-        Date expiration = claims.getExpiration();
+        TokenClaims claims = jwtService.parse(token);
+        String tokenHash = blacklistKey(claims, token);
+        Date expiration = claims.expiration();
         LocalDateTime expiryDate = expiration.toInstant()
                 .atZone(ZoneId.systemDefault())
                 .toLocalDateTime();
 
         TokenBlacklist blacklistedToken = TokenBlacklist.builder()
-                .token(token)
+                .tokenHash(tokenHash)
                 .userEmail(userEmail)
                 .blacklistedAt(LocalDateTime.now())
                 .expiryDate(expiryDate)
                 .build();
 
         tokenBlacklistRepository.save(blacklistedToken);
+        publishAfterCommit(tokenHash, expiryDate);
         log.info("Token blacklisted for user: {}", userEmail);
     }
 
     /**
      * Checks if a token is blacklisted
+     * @param claims The already parsed claims of the token
      * @param token The JWT token to check
      * @return true if the token is blacklisted, false otherwise
      */
-    public boolean isTokenBlacklisted(String token) {
-        return tokenBlacklistRepository.existsByToken(token);
+    public boolean isTokenBlacklisted(TokenClaims claims, String token) {
+        String tokenHash = blacklistKey(claims, token);
+        if (recentTokens.containsKey(tokenHash)) {
+            return true;
+        }
+        BloomFilter current = filter;
+        if (current != null && isFresh() && !current.mightContain(tokenHash)) {
+            return false;
+        }
+        return tokenBlacklistRepository.existsByTokenHash(tokenHash);
+    }
+
+    private boolean isFresh() {
+        return System.nanoTime() - syncedAtNanos <= TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+    }
+
+    /**
+     * Adds tokens blacklisted since the last sync (e.g. by another instance) to the filter
+     */
+    @Scheduled(fixedDelayString = "${security.token-blacklist.sync-interval-ms:5000}")
+    public void syncRecentTokens() {
+        BloomFilter current = filter;
+        LocalDateTime since = syncedFrom;
+        if (current == null || since == null) {
+            return;
+        }
+        long startedNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            tokenBlacklistRepository.findActiveTokenHashesBlacklistedSince(since.minus(SYNC_OVERLAP), now)
+                .forEach(current::put);
+            syncedFrom = now;
+            syncedAtNanos = startedNanos;
+        } catch (Exception e) {
+            // Lookups fall back to the database once the filter is older than max-staleness-ms
+            log.warn("Could not sync token blacklist filter: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Blacklist key of a token: SHA-256 hex of its jti, or of the whole token when it has none
+     */
+    static String blacklistKey(TokenClaims claims, String token) {
+        String source = claims.id() != null ? claims.id() : token;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     /**
      * Scheduled task to clean up expired tokens from the blacklist
-     * Runs every hour
+     * Runs every hour: keeps daily partitions ready ahead, drops fully expired ones,
+     * deletes the remaining expired rows and rebuilds the filter so they stop matching.
+     * Each step runs in its own transaction so a failed DDL does not abort the cleanup.
      */
     @Scheduled(fixedRate = 3600000) // Run every hour
-    @Transactional
     public void cleanupExpiredTokens() {
-        tokenBlacklistRepository.deleteExpiredTokens(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        try {
+            tokenBlacklistRepository.ensureDailyPartitions(today, PARTITIONS_AHEAD_DAYS);
+            int dropped = tokenBlacklistRepository.dropPartitionsBefore(today);
+            if (dropped > 0) {
+                log.info("Dropped {} expired token blacklist partitions", dropped);
+            }
+        } catch (Exception e) {
+            // e.g. the table is not partitioned yet (V12 not applied)
+            log.warn("Token blacklist partition maintenance failed: {}", e.getMessage());
+        }
+        tokenBlacklistRepository.deleteExpiredTokens(now);
+        rebuildFilter();
         log.debug("Cleaned up expired tokens from blacklist");
     }
+
+    private void rebuildFilter() {
+        long startedNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> tokens = new HashSet<>(tokenBlacklistRepository.findActiveTokenHashes(now));
+
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedInsertions, tokens.size() * 2L), falsePositiveRate);
+        tokens.forEach(rebuilt::put);
+        // Entries that arrived while loading may be missing from the snapshot
+        recentTokens.forEach((token, expiry) -> {
+            if (expiry.isAfter(now)) {
+                rebuilt.put(token);
+            }
+        });
+        filter = rebuilt;
+        syncedFrom = now;
+        syncedAtNanos = startedNanos;
+        recentTokens.entrySet().removeIf(entry -> !entry.getValue().isAfter(now) || tokens.contains(entry.getKey()));
+
+        log.info("Token blacklist filter built with {} active tokens", tokens.size());
+    }
+
+    private void remember(String tokenHash, LocalDateTime expiryDate) {
+        recentTokens.put(tokenHash, expiryDate);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenHash);
+        }
+    }
+
+    private void publishAfterCommit(String tokenHash, LocalDateTime expiryDate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenBlacklistBroadcaster.publish(tokenHash, expiryDate);
+                }
+            });
+        } else {
+            tokenBlacklistBroadcaster.publish(tokenHash, expiryDate);
+        }
+    }
 }
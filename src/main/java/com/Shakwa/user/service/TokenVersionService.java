@@ -0,0 +1,108 @@
+package com.Shakwa.user.service;
+
+import java.util.Optional;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Shakwa.user.Enum.UserType;
+import com.Shakwa.user.entity.BaseUser;
+import com.Shakwa.user.repository.CitizenRepo;
+import com.Shakwa.user.repository.EmployeeRepository;
+import com.Shakwa.user.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocation check for claim-based tokens.
+ * Each account has a token version that is embedded in the JWT at login; a token is
+ * accepted only while it still matches. Versions are cached briefly ("tokenVersions")
+ * so steady-state requests do not hit the user tables; changes evict after commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionService {
+
+    public static final String CACHE_NAME = "tokenVersions";
+
+    private final UserRepository userRepository;
+    private final EmployeeRepository employeeRepository;
+    private final CitizenRepo citizenRepo;
+    private final CacheManager cacheManager;
+
+    /**
+     * Current token version of an account, or empty if the account no longer exists
+     */
+    public Optional<Long> currentVersion(UserType userType, Long userId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        String key = cacheKey(userType, userId);
+        Long cached = cache != null ? cache.get(key, Long.class) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Long> version = switch (userType) {
+            case USER -> userRepository.findTokenVersionById(userId);
+            case EMPLOYEE -> employeeRepository.findTokenVersionById(userId);
+            case CITIZEN -> citizenRepo.findTokenVersionById(userId);
+        };
+        if (cache != null) {
+            version.ifPresent(value -> cache.put(key, value));
+        }
+        return version;
+    }
+
+    /**
+     * Invalidate all tokens of one account (role, permissions or status changed).
+     * The caller saves the entity; the cached version is evicted after commit.
+     */
+    public void revokeTokens(BaseUser user) {
+        user.incrementTokenVersion();
+        evictAfterCommit(cacheKey(UserType.of(user), user.getId()));
+    }
+
+    /**
+     * Invalidate the tokens of every account holding the given role (role renamed, deactivated, deleted or its permissions changed)
+     */
+    public void revokeTokensForRole(Long roleId) {
+        int updated = userRepository.incrementTokenVersionByRoleId(roleId)
+            + employeeRepository.incrementTokenVersionByRoleId(roleId)
+            + citizenRepo.incrementTokenVersionByRoleId(roleId);
+        log.info("Revoked tokens of {} accounts holding role {}", updated, roleId);
+        evictAfterCommit(null);
+    }
+
+    private void evictAfterCommit(String key) {
+        Runnable evict = () -> {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache == null) {
+                return;
+            }
+            if (key == null) {
+                cache.clear();
+            } else {
+                cache.evict(key);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private static String cacheKey(UserType userType, Long userId) {
+        return userType.name() + ":" + userId;
+    }
+}
@@ -56,6 +56,7 @@ public class UserService {
     private final CitizenRepo citizenRepo;
     private final EmployeeRepository employeeRepository;
     private final SecurityNotificationService securityNotificationService;
+    private final TokenVersionService tokenVersionService;
 
     /**
      * Create a new user with territory assignments using BASE entity IDs
@@ -137,6 +138,7 @@ public class UserService {
             user.setAdditionalPermissions(permissions);
         }
         
+        tokenVersionService.revokeTokens(user);
         return userMapper.toResponse(userRepository.save(user));
     }
 
@@ -282,6 +284,7 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         Set<Permission> permissions = new HashSet<>(permissionRepository.findAllById(permissionIds));
         user.setAdditionalPermissions(permissions);
+        tokenVersionService.revokeTokens(user);
         return userMapper.toResponse(userRepository.save(user));
     }
 } 
\ No newline at end of file
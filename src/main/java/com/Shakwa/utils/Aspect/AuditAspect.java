@@ -1,8 +1,10 @@
 package com.Shakwa.utils.Aspect;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -17,20 +19,20 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.Shakwa.utils.annotation.Audited;
-import com.Shakwa.audit.service.AuditService;
+import com.Shakwa.audit.dto.AuditRecord;
+import com.Shakwa.audit.service.AuditEventPipeline;
+import com.Shakwa.user.Enum.UserType;
 import com.Shakwa.user.entity.BaseUser;
-import com.Shakwa.user.entity.User;
-import com.Shakwa.user.entity.Citizen;
-import com.Shakwa.user.entity.Employee;
-import com.Shakwa.user.repository.UserRepository;
-import com.Shakwa.user.repository.CitizenRepo;
-import com.Shakwa.user.repository.EmployeeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 /**
  * Aspect for automatic audit event recording
  * Automatically records audit events for methods annotated with @Audited
+ * Only captures an immutable AuditRecord (actor taken from the authenticated principal,
+ * no user lookups) and hands it to AuditEventPipeline, which writes it asynchronously.
  */
 @Aspect
 @Component
@@ -38,19 +40,12 @@ public class AuditAspect {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditAspect.class);
     
-    private final AuditService auditService;
-    private final UserRepository userRepository;
-    private final CitizenRepo citizenRepo;
-    private final EmployeeRepository employeeRepository;
+    private final AuditEventPipeline auditEventPipeline;
+    private final ObjectMapper objectMapper;
     
-    public AuditAspect(AuditService auditService,
-                      UserRepository userRepository,
-                      CitizenRepo citizenRepo,
-                      EmployeeRepository employeeRepository) {
-        this.auditService = auditService;
-        this.userRepository = userRepository;
-        this.citizenRepo = citizenRepo;
-        this.employeeRepository = employeeRepository;
+    public AuditAspect(AuditEventPipeline auditEventPipeline, ObjectMapper objectMapper) {
+        this.auditEventPipeline = auditEventPipeline;
+        this.objectMapper = objectMapper;
     }
 
     @AfterReturning(
@@ -66,15 +61,7 @@ public class AuditAspect {
             String status = "SUCCESS";
             Map<String, Object> details = buildDetails(joinPoint, result, audited.includeArgs());
             
-            Long actorId = getCurrentUserId();
-            String ipAddress = getClientIpAddress();
-
-            // Record in audit service
-            if (actorId != null) {
-                auditService.record(action, targetType, targetId, actorId, status, details, ipAddress);
-            } else {
-                logger.warn("Cannot record audit event: no authenticated user found");
-            }
+            submit(action, targetType, targetId, status, details);
             
         } catch (Exception e) {
             // Don't break the main flow if audit fails
@@ -97,15 +84,7 @@ public class AuditAspect {
             details.put("error", exception.getClass().getSimpleName());
             details.put("errorMessage", exception.getMessage());
             
-            Long actorId = getCurrentUserId();
-            String ipAddress = getClientIpAddress();
-
-            // Record in audit service
-            if (actorId != null) {
-                auditService.record(action, targetType, targetId, actorId, status, details, ipAddress);
-            } else {
-                logger.warn("Cannot record audit event: no authenticated user found");
-            }
+            submit(action, targetType, targetId, status, details);
             
         } catch (Exception e) {
             // Don't break the main flow if audit fails
@@ -113,38 +92,45 @@ public class AuditAspect {
         }
     }
 
-    private Long getCurrentUserId() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated() && 
-                !"anonymousUser".equals(authentication.getPrincipal())) {
-                
-                String email = authentication.getName();
-                
-                // Try User (Platform Admins) first
-                BaseUser user = userRepository.findByEmail(email).orElse(null);
-                if (user != null) {
-                    return user.getId();
-                }
-                
-                // Try Citizen
-                user = citizenRepo.findByEmail(email).orElse(null);
-                if (user != null) {
-                    return user.getId();
-                }
-                
-                // Try Employee
-                user = employeeRepository.findByEmail(email).orElse(null);
-                if (user != null) {
-                    return user.getId();
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not get current user ID: {}", e.getMessage());
+    private void submit(String action, String targetType, Long targetId,
+                        String status, Map<String, Object> details) {
+        BaseUser actor = getCurrentPrincipal();
+        if (actor == null || actor.getId() == null) {
+            logger.warn("Cannot record audit event: no authenticated user found");
+            return;
+        }
+        auditEventPipeline.submit(new AuditRecord(
+            UUID.randomUUID(), action, targetType, targetId,
+            actor.getId(), UserType.of(actor).name(),
+            status, serializeDetails(details), getClientIpAddress(),
+            LocalDateTime.now()));
+    }
+
+    /**
+     * The principal set by JwtAuthenticationFilter already carries the id and account type
+     */
+    private BaseUser getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof BaseUser user) {
+            return user;
         }
         return null;
     }
 
+    // Serialized here so the queued record does not reference request objects
+    private String serializeDetails(Map<String, Object> details) {
+        if (details == null || details.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize audit details to JSON: {}", e.getMessage());
+            return details.toString();
+        }
+    }
+
     private String inferTargetType(JoinPoint joinPoint) {
         String className = joinPoint.getTarget().getClass().getSimpleName();
         // Remove "Service" or "Controller" suffix
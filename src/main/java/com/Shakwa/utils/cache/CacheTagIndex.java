@@ -0,0 +1,92 @@
+package com.Shakwa.utils.cache;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Reverse index from cache tags to cache keys.
+ * A key's tags describe the filter it was cached for (e.g. "agency:HEALTH", "status:PENDING");
+ * a key with no tags depends on everything and is matched by every lookup.
+ */
+public class CacheTagIndex {
+
+    private static final String UNTAGGED = "";
+
+    private final Function<Object, Set<String>> tagExtractor;
+    private final ConcurrentHashMap<Object, Set<String>> tagsByKey = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<Object>> keysByTag = new ConcurrentHashMap<>();
+
+    public CacheTagIndex(Function<Object, Set<String>> tagExtractor) {
+        this.tagExtractor = tagExtractor;
+    }
+
+    /**
+     * Index the key; a no-op if it is already indexed. Runs under the key's index entry, so it
+     * cannot interleave with remove/removeUnless for the same key.
+     */
+    public void add(Object key) {
+        tagsByKey.computeIfAbsent(key, k -> {
+            Set<String> tags = tagExtractor.apply(k);
+            for (String tag : bucketsOf(tags)) {
+                keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(k);
+            }
+            return tags;
+        });
+    }
+
+    public void remove(Object key) {
+        removeUnless(key, k -> false);
+    }
+
+    /**
+     * Remove the key unless stillCached says its entry is (again) in the cache. Decided under the
+     * key's index entry: a put that indexes the key after storing it either runs first and keeps
+     * it, or runs after and re-adds it.
+     */
+    public void removeUnless(Object key, Predicate<Object> stillCached) {
+        tagsByKey.computeIfPresent(key, (k, tags) -> {
+            if (stillCached.test(k)) {
+                return tags;
+            }
+            for (String tag : bucketsOf(tags)) {
+                keysByTag.computeIfPresent(tag, (t, keys) -> {
+                    keys.remove(k);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+            return null;
+        });
+    }
+
+    public void clear() {
+        tagsByKey.clear();
+        keysByTag.clear();
+    }
+
+    /**
+     * Keys whose every tag is contained in the given tags, i.e. entries whose filter
+     * matches an object described by those tags (untagged keys always match).
+     */
+    public Set<Object> keysCoveredBy(Set<String> tags) {
+        Set<Object> candidates = new HashSet<>(keysByTag.getOrDefault(UNTAGGED, Set.of()));
+        for (String tag : tags) {
+            candidates.addAll(keysByTag.getOrDefault(tag, Set.of()));
+        }
+        candidates.removeIf(key -> {
+            Set<String> keyTags = tagsByKey.get(key);
+            return keyTags != null && !tags.containsAll(keyTags);
+        });
+        return candidates;
+    }
+
+    public int size() {
+        return tagsByKey.size();
+    }
+
+    private static Set<String> bucketsOf(Set<String> tags) {
+        return tags.isEmpty() ? Set.of(UNTAGGED) : tags;
+    }
+}
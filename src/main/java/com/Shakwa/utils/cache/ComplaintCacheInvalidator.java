@@ -0,0 +1,157 @@
+package com.Shakwa.utils.cache;
+
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.complaint.entity.ComplaintAttachment;
+import com.Shakwa.user.entity.BaseUser;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evicts only the affected "complaintLists" entries after a complaint is inserted, updated or deleted.
+ * Runs as a Hibernate post-commit listener, so it sees the old and new column values and
+ * evicts after the transaction is visible to other readers.
+ * Attachment changes also evict the owning complaint's entries, since cached DTOs embed attachments.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Complaint.class.equals(persister.getMappedClass())
+            || ComplaintAttachment.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof ComplaintAttachment attachment) {
+            evictOwner(attachment);
+            return;
+        }
+        evict(tagsOf(event.getId(), event.getState(), event.getPersister()));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof ComplaintAttachment attachment) {
+            evictOwner(attachment);
+            return;
+        }
+        if (event.getOldState() == null) {
+            // Old values unknown (should not happen for managed entities) - fall back to a full clear
+            clearAll();
+            return;
+        }
+        evict(tagsOf(event.getId(), event.getOldState(), event.getPersister()));
+        evict(tagsOf(event.getId(), event.getState(), event.getPersister()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof ComplaintAttachment attachment) {
+            evictOwner(attachment);
+            return;
+        }
+        evict(tagsOf(event.getId(), event.getDeletedState(), event.getPersister()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was cached for an uncommitted complaint
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back - cached entries are still valid
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back - cached entries are still valid
+    }
+
+    private Set<String> tagsOf(Object id, Object[] state, EntityPersister persister) {
+        String[] names = persister.getPropertyNames();
+        Long citizenId = null;
+        Enum<?> agency = null;
+        Enum<?> status = null;
+        Enum<?> type = null;
+        Enum<?> governorate = null;
+
+        for (int i = 0; i < names.length; i++) {
+            switch (names[i]) {
+                case "citizen" -> citizenId = state[i] instanceof BaseUser citizen ? citizen.getId() : null;
+                case "governmentAgency" -> agency = (Enum<?>) state[i];
+                case "status" -> status = (Enum<?>) state[i];
+                case "complaintType" -> type = (Enum<?>) state[i];
+                case "governorate" -> governorate = (Enum<?>) state[i];
+                default -> { }
+            }
+        }
+        return ComplaintCacheTags.forComplaint((Long) id, citizenId, agency, status, type, governorate);
+    }
+
+    private void evictOwner(ComplaintAttachment attachment) {
+        Complaint complaint = attachment.getComplaint();
+        if (complaint == null || !Hibernate.isInitialized(complaint)) {
+            // Owner not loaded, its attribute values are unknown
+            clearAll();
+            return;
+        }
+        Long citizenId = complaint.getCitizen() != null ? complaint.getCitizen().getId() : null;
+        evict(ComplaintCacheTags.forComplaint(complaint.getId(), citizenId, complaint.getGovernmentAgency(),
+                complaint.getStatus(), complaint.getComplaintType(), complaint.getGovernorate()));
+    }
+
+    private void evict(Set<String> tags) {
+        Cache cache = cacheManager.getCache(ComplaintCacheTags.CACHE_NAME);
+        if (cache instanceof TaggedCache taggedCache) {
+            int evicted = taggedCache.evictCoveredBy(tags);
+            log.debug("Evicted {} complaintLists entries for tags {}", evicted, tags);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void clearAll() {
+        Cache cache = cacheManager.getCache(ComplaintCacheTags.CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
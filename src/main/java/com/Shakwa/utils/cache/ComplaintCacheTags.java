@@ -0,0 +1,61 @@
+package com.Shakwa.utils.cache;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tags for the "complaintLists" cache.
+ * Cache keys in ComplaintRepository are built as "complaints:agency:HEALTH:status:PENDING:page:0:size:10";
+ * each known dimension/value pair in the key becomes a tag ("agency:HEALTH", "status:PENDING").
+ * A complaint is described by the tags of all its dimension values.
+ */
+public final class ComplaintCacheTags {
+
+    public static final String CACHE_NAME = "complaintLists";
+
+    private static final Set<String> DIMENSIONS = Set.of(
+        "id", "citizen", "agency", "status", "type", "governorate"
+    );
+
+    private ComplaintCacheTags() {
+    }
+
+    /**
+     * Tags a cached key depends on; keys with no known dimension (e.g. "complaints:all") get none
+     */
+    public static Set<String> fromKey(Object key) {
+        Set<String> tags = new HashSet<>();
+        if (!(key instanceof String keyString)) {
+            return tags;
+        }
+        String[] parts = keyString.split(":");
+        for (int i = 0; i < parts.length - 1; i++) {
+            if (DIMENSIONS.contains(parts[i])) {
+                tags.add(parts[i] + ":" + parts[i + 1]);
+                i++;
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Tags describing one state of a complaint (null values are skipped)
+     */
+    public static Set<String> forComplaint(Long id, Long citizenId, Enum<?> agency, Enum<?> status,
+                                           Enum<?> type, Enum<?> governorate) {
+        Set<String> tags = new HashSet<>();
+        addTag(tags, "id", id);
+        addTag(tags, "citizen", citizenId);
+        addTag(tags, "agency", agency != null ? agency.name() : null);
+        addTag(tags, "status", status != null ? status.name() : null);
+        addTag(tags, "type", type != null ? type.name() : null);
+        addTag(tags, "governorate", governorate != null ? governorate.name() : null);
+        return tags;
+    }
+
+    private static void addTag(Set<String> tags, String dimension, Object value) {
+        if (value != null) {
+            tags.add(dimension + ":" + value);
+        }
+    }
+}
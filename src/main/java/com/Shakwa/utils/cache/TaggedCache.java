@@ -0,0 +1,107 @@
+package com.Shakwa.utils.cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Cache decorator that records the tags of every stored key in a CacheTagIndex,
+ * so writes can evict only the entries they affect instead of clearing the whole cache.
+ * Entries evicted by the underlying cache (size/TTL) must be reported via
+ * CacheTagIndex.removeUnless. Keys are indexed before the write, so a concurrent eviction by tag
+ * can always find them, and again after it, in case a size/TTL eviction of the previous entry
+ * dropped the key in between.
+ */
+public class TaggedCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheTagIndex index;
+
+    public TaggedCache(Cache delegate, CacheTagIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    /**
+     * Evict every entry whose tags are all contained in the given tags.
+     * @return number of keys evicted
+     */
+    public int evictCoveredBy(Set<String> tags) {
+        Set<Object> keys = index.keysCoveredBy(tags);
+        for (Object key : keys) {
+            evict(key);
+        }
+        return keys.size();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Index before loading so a concurrent write can always find the entry
+        index.add(key);
+        T value = delegate.get(key, valueLoader);
+        index.add(key);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        index.add(key);
+        delegate.put(key, value);
+        index.add(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        index.add(key);
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        index.add(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Unindex first: a put racing this evict re-indexes the key after storing it
+        index.remove(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        index.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        index.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = delegate.invalidate();
+        index.clear();
+        return hadEntries;
+    }
+}
@@ -12,11 +12,6 @@ import lombok.experimental.SuperBuilder;
 public abstract class BaseIdEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "global_seq")
-    @SequenceGenerator(
-            name = "global_seq",
-            sequenceName = "global_id_seq",
-            allocationSize = 1
-    )
+    @PooledSequence
     private Long id;
 }
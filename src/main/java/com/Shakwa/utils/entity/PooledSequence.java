@@ -0,0 +1,24 @@
+package com.Shakwa.utils.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Sequence-generated id with pooled allocation.
+ * The sequence is the sequenceName of the entity's class-level @SequenceGenerator
+ * (global_id_seq when it has none); Hibernate reserves allocationSize ids per nextval.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    /**
+     * Ids handed out per nextval; must match the INCREMENT BY of every mapped sequence
+     */
+    int allocationSize() default 50;
+}
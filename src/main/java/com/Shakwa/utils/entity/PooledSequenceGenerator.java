@@ -0,0 +1,46 @@
+package com.Shakwa.utils.entity;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import jakarta.persistence.SequenceGenerator;
+
+/**
+ * Generator behind @PooledSequence.
+ * Resolves the sequence per entity (the id is declared once in BaseIdEntity) and uses the
+ * pooled-lo optimizer: one nextval returns the first id of a block of allocationSize ids,
+ * so inserts need no sequence round trip of their own and can be JDBC-batched.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    // Shared by the account tables (users, citizens, employees) so their ids stay unique across them
+    static final String DEFAULT_SEQUENCE = "global_id_seq";
+
+    private final String sequenceName;
+    private final int allocationSize;
+
+    public PooledSequenceGenerator(PooledSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        Class<?> entityClass = context.getPersistentClass().getMappedClass();
+        SequenceGenerator declared = entityClass.getAnnotation(SequenceGenerator.class);
+        this.sequenceName = declared != null && !declared.sequenceName().isEmpty()
+            ? declared.sequenceName()
+            : DEFAULT_SEQUENCE;
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.setProperty(OptimizableGenerator.OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
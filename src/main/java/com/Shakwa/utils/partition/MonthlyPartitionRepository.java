@@ -0,0 +1,125 @@
+package com.Shakwa.utils.partition;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.Shakwa.config.PartitionMaintenanceProperties.RetentionAction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Native DDL for tables partitioned by month of created_at (audit_events, complaint_history).
+ * Partitions are named <table>_pYYYYMM; rows outside every monthly range land in <table>_default.
+ * Table names come from PartitionMaintenanceService constants, never from user input.
+ */
+@Repository
+@Slf4j
+public class MonthlyPartitionRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Create the monthly partitions for [fromMonth, fromMonth + months) if missing.
+     * Rows that already landed in the default partition for such a month are moved into it.
+     */
+    @Transactional
+    public void ensureMonthlyPartitions(String table, YearMonth fromMonth, int months) {
+        for (int i = 0; i < months; i++) {
+            YearMonth month = fromMonth.plusMonths(i);
+            String partition = partitionName(table, month);
+            Object existing = entityManager.createNativeQuery("SELECT CAST(to_regclass(:name) AS TEXT)")
+                .setParameter("name", partition)
+                .getSingleResult();
+            if (existing != null) {
+                continue;
+            }
+            String from = month.atDay(1).toString();
+            String to = month.plusMonths(1).atDay(1).toString();
+            String range = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+            String inRange = " WHERE created_at >= '" + from + "' AND created_at < '" + to + "'";
+
+            Number stray = (Number) entityManager.createNativeQuery(
+                    "SELECT COUNT(*) FROM " + table + "_default" + inRange)
+                .getSingleResult();
+            if (stray.longValue() == 0) {
+                entityManager.createNativeQuery(
+                        "CREATE TABLE " + partition + " PARTITION OF " + table + range)
+                    .executeUpdate();
+                continue;
+            }
+            // A month cannot be attached while the default partition holds rows for it
+            entityManager.createNativeQuery(
+                    "CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS)")
+                .executeUpdate();
+            entityManager.createNativeQuery(
+                    "WITH moved AS (DELETE FROM " + table + "_default" + inRange + " RETURNING *) "
+                    + "INSERT INTO " + partition + " SELECT * FROM moved")
+                .executeUpdate();
+            entityManager.createNativeQuery(
+                    "ALTER TABLE " + table + " ATTACH PARTITION " + partition + range)
+                .executeUpdate();
+            log.warn("Moved {} rows of {} from the default partition into {}", stray, table, partition);
+        }
+    }
+
+    /**
+     * Detach the monthly partitions that end before the given month, optionally moving them
+     * into archiveSchema. Detached tables keep their rows and can be dumped or dropped later.
+     * @return number of partitions detached
+     */
+    @Transactional
+    public int detachPartitionsBefore(String table, YearMonth month, RetentionAction action, String archiveSchema) {
+        String prefix = table + "_p";
+        @SuppressWarnings("unchecked")
+        List<String> partitions = entityManager.createNativeQuery("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = :table AND c.relname LIKE :prefix
+                """)
+            .setParameter("table", table)
+            .setParameter("prefix", prefix + "%")
+            .getResultList();
+
+        if (action == RetentionAction.ARCHIVE && !partitions.isEmpty()) {
+            entityManager.createNativeQuery("CREATE SCHEMA IF NOT EXISTS " + archiveSchema).executeUpdate();
+        }
+
+        int detached = 0;
+        for (String partition : partitions) {
+            YearMonth partitionMonth;
+            try {
+                partitionMonth = YearMonth.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+            } catch (DateTimeParseException e) {
+                log.warn("Skipping {} partition with unexpected name: {}", table, partition);
+                continue;
+            }
+            if (!partitionMonth.isBefore(month)) {
+                continue;
+            }
+            entityManager.createNativeQuery("ALTER TABLE " + table + " DETACH PARTITION " + partition)
+                .executeUpdate();
+            if (action == RetentionAction.ARCHIVE) {
+                entityManager.createNativeQuery("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema)
+                    .executeUpdate();
+            }
+            detached++;
+        }
+        return detached;
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(PARTITION_SUFFIX);
+    }
+}
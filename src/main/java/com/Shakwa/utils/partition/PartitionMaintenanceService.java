@@ -0,0 +1,70 @@
+package com.Shakwa.utils.partition;
+
+import java.time.YearMonth;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.Shakwa.config.PartitionMaintenanceProperties;
+import com.Shakwa.config.PartitionMaintenanceProperties.Retention;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the monthly partitions of audit_events and complaint_history in shape:
+ * the current and the next months-ahead months exist before rows arrive, and months past
+ * each table's retention are detached (or archived) so queries and vacuum no longer see them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final String AUDIT_EVENTS = "audit_events";
+    private static final String COMPLAINT_HISTORY = "complaint_history";
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final MonthlyPartitionRepository monthlyPartitionRepository;
+    private final PartitionMaintenanceProperties properties;
+
+    // Also at startup: the application may have been down when a month began
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        maintain(AUDIT_EVENTS, properties.getAuditEvents(), now);
+        maintain(COMPLAINT_HISTORY, properties.getComplaintHistory(), now);
+    }
+
+    /**
+     * Each table in its own transactions so a failure on one does not block the other
+     */
+    private void maintain(String table, Retention retention, YearMonth now) {
+        try {
+            monthlyPartitionRepository.ensureMonthlyPartitions(table, now, properties.getMonthsAhead() + 1);
+            if (retention.getRetentionMonths() > 0) {
+                String archiveSchema = properties.getArchiveSchema();
+                if (!IDENTIFIER.matcher(archiveSchema).matches()) {
+                    throw new IllegalStateException("Invalid partitioning.archive-schema: " + archiveSchema);
+                }
+                YearMonth oldestKept = now.minusMonths(retention.getRetentionMonths() - 1L);
+                int detached = monthlyPartitionRepository.detachPartitionsBefore(
+                    table, oldestKept, retention.getAction(), archiveSchema);
+                if (detached > 0) {
+                    log.info("Detached {} {} partitions before {} ({})", detached, table, oldestKept, retention.getAction());
+                }
+            }
+        } catch (Exception e) {
+            // e.g. the table is not partitioned yet (V15 not applied)
+            log.warn("Partition maintenance for {} failed: {}", table, e.getMessage());
+        }
+    }
+}
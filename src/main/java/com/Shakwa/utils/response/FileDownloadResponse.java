@@ -2,7 +2,8 @@ package com.Shakwa.utils.response;
 
 import org.springframework.core.io.Resource;
 
-public record FileDownloadResponse(Resource resource, String filename, String contentType, long size) {
+/**
+ * @param checksum SHA-256 of the content, served as the strong ETag (see FileDownloadWriter)
+ */
+public record FileDownloadResponse(Resource resource, String filename, String contentType, long size, String checksum) {
 }
-
-
@@ -0,0 +1,180 @@
+package com.Shakwa.utils.response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a FileDownloadResponse with validators and byte ranges:
+ * the checksum is the strong ETag, If-None-Match answers 304, and a single Range (guarded by
+ * If-Range) answers 206 with just that region. Several ranges get the whole file.
+ *
+ * Under Tomcat with sendfile enabled, a file region is handed to the connector, which sends it
+ * without copying it through the JVM. Otherwise the region is copied to the response output
+ * stream through a heap buffer: the response is not a FileChannel, so transferTo has no
+ * zero-copy path there and is only a positional read.
+ */
+public final class FileDownloadWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // attr-char of RFC 5987 besides letters and digits
+    private static final String ATTR_CHAR_SYMBOLS = "!#$&+-.^_`|~";
+
+    private FileDownloadWriter() {
+    }
+
+    public static void write(HttpServletRequest request, HttpServletResponse response, FileDownloadResponse download)
+            throws IOException {
+        Resource resource = download.resource();
+        Path file = resource.isFile() ? resource.getFile().toPath() : null;
+        long length = file != null ? Files.size(file) : download.size();
+        String etag = download.checksum() != null ? "\"" + download.checksum() + "\"" : null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Revalidate every time, but allow the browser to keep the file (the default is no-store)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (noneMatch(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // Malformed ranges are ignored
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(length);
+                if (start >= length) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                end = range.getRangeEnd(length);
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(download.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(download.filename()));
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the region after the handler returns (end is exclusive)
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        if (file != null) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                long remaining = count;
+                while (remaining > 0) {
+                    long sent = channel.transferTo(position, remaining, out);
+                    if (sent <= 0) {
+                        throw new IOException("File shrank while it was being sent: " + file);
+                    }
+                    position += sent;
+                    remaining -= sent;
+                }
+            }
+            return;
+        }
+        // Not a local file (e.g. object storage): ask for just the region when the resource can
+        if (resource instanceof RangeReadable ranged) {
+            try (InputStream in = ranged.getInputStream(start, end)) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            StreamUtils.copyRange(in, response.getOutputStream(), start, end);
+        }
+    }
+
+    /**
+     * Quoted ASCII fallback (other characters replaced, quotes and backslashes escaped) plus the
+     * RFC 5987 filename* form, so Arabic or other non-ASCII names survive
+     */
+    static String contentDisposition(String filename) {
+        String name = filename != null ? filename : "attachment";
+        StringBuilder fallback = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                fallback.append('\\').append(c);
+            } else {
+                fallback.append(c >= 0x20 && c < 0x7F ? c : '_');
+            }
+        }
+        StringBuilder encoded = new StringBuilder();
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || ATTR_CHAR_SYMBOLS.indexOf(c) >= 0) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return "attachment; filename=\"" + fallback + "\"; filename*=UTF-8''" + encoded;
+    }
+
+    // If-None-Match uses the weak comparison
+    private static boolean noneMatch(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Range uses the strong comparison; a date never matches since no Last-Modified is sent
+    private static boolean ifRangeMatches(String header, String etag) {
+        return header == null || (etag != null && header.trim().equals(etag));
+    }
+}
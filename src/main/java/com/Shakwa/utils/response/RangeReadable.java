@@ -0,0 +1,16 @@
+package com.Shakwa.utils.response;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A Resource that can open a byte range directly (e.g. a ranged GET on object storage),
+ * so FileDownloadWriter does not read and skip everything before the range
+ */
+public interface RangeReadable {
+
+    /**
+     * @param end last byte, inclusive
+     */
+    InputStream getInputStream(long start, long end) throws IOException;
+}
@@ -0,0 +1,60 @@
+-- Migration: Composite and partial indexes for complaint query shapes
+-- Feature: Index the access paths used by ComplaintRepository, reports and the admin dashboard
+-- Description: The complaints table is created by Hibernate (ddl-auto=update), which only creates the
+--              primary key and unique constraints. Index names are checked at startup by DatabaseIndexVerifier.
+
+-- ============================================
+-- complaints: employee listings (agency + filter)
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_complaints_agency_status
+    ON complaints (government_agency, status);
+
+CREATE INDEX IF NOT EXISTS idx_complaints_agency_type
+    ON complaints (government_agency, complaint_type);
+
+CREATE INDEX IF NOT EXISTS idx_complaints_agency_governorate
+    ON complaints (government_agency, governorate);
+
+-- ============================================
+-- complaints: citizen listings
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_complaints_citizen_status
+    ON complaints (citizen_id, status);
+
+-- ============================================
+-- complaints: date ranges (reports, dashboard) and keyset pagination
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_complaints_agency_created_at
+    ON complaints (government_agency, created_at);
+
+-- Matches ORDER BY created_at DESC, id DESC of the cursor listing
+CREATE INDEX IF NOT EXISTS idx_complaints_created_at_id
+    ON complaints (created_at DESC, id DESC);
+
+-- Resolution time statistics only read resolved complaints
+CREATE INDEX IF NOT EXISTS idx_complaints_resolved_agency_created_at
+    ON complaints (government_agency, created_at)
+    WHERE status = 'RESOLVED';
+
+-- ============================================
+-- complaint_history
+-- ============================================
+
+-- Timeline lookups (findByComplaintIdOrderByCreatedAtDesc)
+CREATE INDEX IF NOT EXISTS idx_complaint_history_complaint_created_at
+    ON complaint_history (complaint_id, created_at DESC);
+
+-- First RESOLVED transition per complaint (resolution time statistics)
+CREATE INDEX IF NOT EXISTS idx_complaint_history_resolved
+    ON complaint_history (complaint_id, created_at)
+    WHERE action_type = 'STATUS_CHANGED' AND new_value = 'RESOLVED';
+
+-- Declared in V3/V5, which are below the Flyway baseline on databases created by Hibernate
+CREATE INDEX IF NOT EXISTS idx_complaint_history_created_at
+    ON complaint_history (created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_info_request_complaint_status
+    ON information_requests (complaint_id, status);
@@ -0,0 +1,20 @@
+-- Migration: Add token version to account tables
+-- Feature: Stateless JWT principal (claims carry type, id, agency, role, permissions)
+-- Description: token_version is embedded in issued tokens; incrementing it revokes them (see TokenVersionService)
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version BIGINT DEFAULT 0;
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS token_version BIGINT DEFAULT 0;
+ALTER TABLE citizens ADD COLUMN IF NOT EXISTS token_version BIGINT DEFAULT 0;
+
+-- Columns added earlier by Hibernate (ddl-auto) have no default
+ALTER TABLE users ALTER COLUMN token_version SET DEFAULT 0;
+ALTER TABLE employees ALTER COLUMN token_version SET DEFAULT 0;
+ALTER TABLE citizens ALTER COLUMN token_version SET DEFAULT 0;
+
+UPDATE users SET token_version = 0 WHERE token_version IS NULL;
+UPDATE employees SET token_version = 0 WHERE token_version IS NULL;
+UPDATE citizens SET token_version = 0 WHERE token_version IS NULL;
+
+COMMENT ON COLUMN users.token_version IS 'Incremented on role/permission/status changes to revoke issued JWTs';
+COMMENT ON COLUMN employees.token_version IS 'Incremented on role/permission/status changes to revoke issued JWTs';
+COMMENT ON COLUMN citizens.token_version IS 'Incremented on role/permission/status changes to revoke issued JWTs';
@@ -0,0 +1,48 @@
+-- Migration: Key the token blacklist by a fixed-width hash and partition it by expiry
+-- Feature: Logout blacklist lookups become a 64-char indexed probe instead of a full JWT comparison
+-- Description: New tokens carry a jti and are keyed by SHA-256(jti); rows blacklisted by full token
+--              are carried over keyed by SHA-256(token), which is what TokenBlacklistService computes
+--              for tokens without a jti, so they stay blacklisted until they expire
+
+-- On a fresh schema Hibernate already created the table without the old column
+ALTER TABLE token_blacklist ADD COLUMN IF NOT EXISTS token VARCHAR(500);
+
+CREATE TABLE token_blacklist_partitioned (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64) NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    blacklisted_at TIMESTAMP NOT NULL,
+    expiry_date TIMESTAMP NOT NULL,
+    -- The partition key must be part of the primary key
+    PRIMARY KEY (id, expiry_date)
+) PARTITION BY RANGE (expiry_date);
+
+-- Catch-all for rows outside the daily partitions (TokenBlacklistService creates them ahead)
+CREATE TABLE token_blacklist_default PARTITION OF token_blacklist_partitioned DEFAULT;
+
+-- Today's and the next days' partitions (tokens are valid for 24h)
+DO $$
+DECLARE
+    d DATE;
+BEGIN
+    FOR i IN 0..2 LOOP
+        d := CURRENT_DATE + i;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF token_blacklist_partitioned FOR VALUES FROM (%L) TO (%L)',
+            'token_blacklist_p' || to_char(d, 'YYYYMMDD'), d, d + 1);
+    END LOOP;
+END $$;
+
+-- Carry over still-valid entries, re-keyed from the full token string
+INSERT INTO token_blacklist_partitioned (token_hash, user_email, blacklisted_at, expiry_date)
+SELECT encode(sha256(convert_to(token, 'UTF8')), 'hex'), user_email, blacklisted_at, expiry_date
+FROM token_blacklist
+WHERE token IS NOT NULL AND expiry_date >= LOCALTIMESTAMP;
+
+DROP TABLE token_blacklist;
+ALTER TABLE token_blacklist_partitioned RENAME TO token_blacklist;
+
+CREATE INDEX IF NOT EXISTS idx_token_blacklist_token_hash ON token_blacklist (token_hash);
+CREATE INDEX IF NOT EXISTS idx_token_blacklist_expiry ON token_blacklist (expiry_date);
+
+COMMENT ON COLUMN token_blacklist.token_hash IS 'SHA-256 hex of the JWT jti (or of the full token for tokens without jti)';
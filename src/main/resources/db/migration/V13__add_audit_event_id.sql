@@ -0,0 +1,12 @@
+-- Migration: Add event id to audit_events
+-- Feature: Durable audit write-ahead log (AuditWriteAheadLog)
+-- Description: event_id is assigned when an audit event is captured; inserts use
+-- ON CONFLICT (event_id) DO NOTHING so events replayed from the local WAL are written once
+
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS event_id UUID;
+
+-- Existing rows keep a NULL event_id (NULLs never conflict)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_audit_events_event_id
+    ON audit_events(event_id);
+
+COMMENT ON COLUMN audit_events.event_id IS 'Capture-time id; makes replays from the audit WAL idempotent';
@@ -0,0 +1,50 @@
+-- Migration: Pooled id allocation per sequence
+-- Feature: Hibernate pooled-lo id generation (@PooledSequence on BaseIdEntity)
+-- Description: Each nextval now reserves a block of 50 ids (allocationSize = 50), so inserts
+--              no longer pay a sequence round trip each and can be JDBC-batched.
+--              Entities with a class-level @SequenceGenerator move from global_id_seq to their
+--              own sequence; the account tables (users, citizens, employees) keep global_id_seq
+--              so their ids stay unique across the three tables.
+--              Every sequence is restarted above the highest id already in its table(s).
+
+-- Existing ids were taken from global_id_seq; keep it as the upper bound for the others
+ALTER SEQUENCE IF EXISTS global_id_seq INCREMENT BY 50;
+
+DO $$
+DECLARE
+    mapping TEXT[];
+    seq_name TEXT;
+    table_name TEXT;
+    max_id BIGINT;
+    last_id BIGINT;
+BEGIN
+    FOREACH mapping SLICE 1 IN ARRAY ARRAY[
+        ['complaint_id_seq', 'complaints'],
+        ['complaint_history_id_seq', 'complaint_history'],
+        ['complaint_attachment_id_seq', 'complaint_attachments'],
+        ['information_request_id_seq', 'information_requests'],
+        ['information_request_attachment_id_seq', 'information_request_attachments'],
+        ['audit_event_id_seq', 'audit_events'],
+        ['notification_id_seq', 'notifications'],
+        ['notification_token_id_seq', 'notification_tokens'],
+        ['roles_id_seq', 'roles'],
+        ['permissions_id_seq', 'permissions'],
+        ['otp_verification_id_seq', 'otp_verifications']
+    ]
+    LOOP
+        seq_name := mapping[1];
+        table_name := mapping[2];
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', seq_name);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', seq_name);
+
+        max_id := 0;
+        IF to_regclass(table_name) IS NOT NULL THEN
+            EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', table_name) INTO max_id;
+        END IF;
+        EXECUTE format('SELECT last_value FROM %I', seq_name) INTO last_id;
+
+        -- pooled-lo: the next nextval is the first id of a fresh block
+        PERFORM setval(seq_name, GREATEST(max_id, last_id) + 1, false);
+    END LOOP;
+END $$;
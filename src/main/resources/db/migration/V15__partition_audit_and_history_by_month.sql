@@ -0,0 +1,99 @@
+-- Migration: Partition audit_events and complaint_history by month
+-- Feature: Time-bucketed storage for the two append-only tables
+-- Description: Both tables become RANGE (created_at) partitioned with one partition per month
+--              (<table>_pYYYYMM) and a catch-all <table>_default. PartitionMaintenanceService
+--              creates the coming months ahead and detaches or archives months past retention.
+--              Queries filtered on created_at only scan the matching partitions.
+
+-- The old tables are dropped below; keep their id sequences (complaint_history used BIGSERIAL)
+ALTER SEQUENCE IF EXISTS audit_event_id_seq OWNED BY NONE;
+ALTER SEQUENCE IF EXISTS complaint_history_id_seq OWNED BY NONE;
+
+-- Same columns (whether created by V3/V6 or by Hibernate), defaults and column comments
+CREATE TABLE audit_events_partitioned (LIKE audit_events INCLUDING DEFAULTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+-- The partition key must be part of the primary key
+ALTER TABLE audit_events_partitioned ADD PRIMARY KEY (id, created_at);
+CREATE TABLE audit_events_default PARTITION OF audit_events_partitioned DEFAULT;
+
+CREATE TABLE complaint_history_partitioned (LIKE complaint_history INCLUDING DEFAULTS INCLUDING COMMENTS)
+    PARTITION BY RANGE (created_at);
+ALTER TABLE complaint_history_partitioned ADD PRIMARY KEY (id, created_at);
+CREATE TABLE complaint_history_default PARTITION OF complaint_history_partitioned DEFAULT;
+
+-- One partition per month from the oldest row up to three months ahead
+DO $$
+DECLARE
+    t TEXT;
+    m DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['audit_events', 'complaint_history'] LOOP
+        EXECUTE format('SELECT date_trunc(''month'', COALESCE(MIN(created_at), LOCALTIMESTAMP))::date FROM %I', t)
+            INTO m;
+        WHILE m <= last_month LOOP
+            EXECUTE format(
+                'CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                t || '_p' || to_char(m, 'YYYYMM'), t || '_partitioned', m, (m + INTERVAL '1 month')::date);
+            m := (m + INTERVAL '1 month')::date;
+        END LOOP;
+    END LOOP;
+END $$;
+
+-- Column order is identical (LIKE)
+INSERT INTO audit_events_partitioned SELECT * FROM audit_events;
+INSERT INTO complaint_history_partitioned SELECT * FROM complaint_history;
+
+DROP TABLE audit_events;
+ALTER TABLE audit_events_partitioned RENAME TO audit_events;
+ALTER TABLE audit_events RENAME CONSTRAINT audit_events_partitioned_pkey TO audit_events_pkey;
+
+DROP TABLE complaint_history;
+ALTER TABLE complaint_history_partitioned RENAME TO complaint_history;
+ALTER TABLE complaint_history RENAME CONSTRAINT complaint_history_partitioned_pkey TO complaint_history_pkey;
+
+-- ============================================
+-- audit_events
+-- ============================================
+
+-- No actor foreign key: actors can be users, citizens or employees (see V7)
+CREATE INDEX IF NOT EXISTS idx_audit_events_actor
+    ON audit_events (actor_id, actor_type);
+CREATE INDEX IF NOT EXISTS idx_audit_events_action
+    ON audit_events (action);
+CREATE INDEX IF NOT EXISTS idx_audit_events_target
+    ON audit_events (target_type, target_id);
+CREATE INDEX IF NOT EXISTS idx_audit_events_created_at
+    ON audit_events (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_events_status
+    ON audit_events (status);
+
+-- Unique indexes on a partitioned table must contain the partition key; a replayed event
+-- carries its original capture time, so (event_id, created_at) still detects it
+CREATE UNIQUE INDEX IF NOT EXISTS ux_audit_events_event_id
+    ON audit_events (event_id, created_at);
+
+COMMENT ON TABLE audit_events IS 'System-wide audit log for all operations, partitioned by month of created_at';
+
+-- ============================================
+-- complaint_history
+-- ============================================
+
+ALTER TABLE complaint_history
+    ADD CONSTRAINT fk_complaint_history_complaint
+        FOREIGN KEY (complaint_id) REFERENCES complaints(id)
+        ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_complaint_history_complaint_id
+    ON complaint_history (complaint_id);
+CREATE INDEX IF NOT EXISTS idx_complaint_history_action_type
+    ON complaint_history (action_type);
+CREATE INDEX IF NOT EXISTS idx_complaint_history_complaint_created_at
+    ON complaint_history (complaint_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_complaint_history_resolved
+    ON complaint_history (complaint_id, created_at)
+    WHERE action_type = 'STATUS_CHANGED' AND new_value = 'RESOLVED';
+CREATE INDEX IF NOT EXISTS idx_complaint_history_created_at
+    ON complaint_history (created_at DESC);
+
+COMMENT ON TABLE complaint_history IS 'Immutable timeline of all changes to complaints, partitioned by month of created_at';
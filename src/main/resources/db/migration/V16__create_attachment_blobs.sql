@@ -0,0 +1,22 @@
+-- Migration: Create attachment_blobs
+-- Feature: Content-addressed attachment storage (storage.complaints.layout=CONTENT_ADDRESSED)
+-- Description: One row per distinct attachment content, keyed by SHA-256. Attachments with the
+--              same content share one file under blobs/; ref_count counts the attachments using
+--              it and blobs left at zero are garbage-collected together with their file.
+
+CREATE TABLE IF NOT EXISTS attachment_blobs (
+    checksum VARCHAR(64) PRIMARY KEY,
+    storage_path VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Garbage collection sweep (ref_count = 0, oldest first)
+CREATE INDEX IF NOT EXISTS idx_attachment_blobs_unreferenced
+    ON attachment_blobs (ref_count, updated_at);
+
+COMMENT ON TABLE attachment_blobs IS 'Content-addressed attachment files shared by complaint_attachments with the same checksum';
+COMMENT ON COLUMN attachment_blobs.ref_count IS 'Number of complaint_attachments rows stored in this blob';
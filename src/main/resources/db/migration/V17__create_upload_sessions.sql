@@ -0,0 +1,36 @@
+-- Migration: Create upload_sessions
+-- Feature: Resumable chunked attachment uploads (api/v1/complaints/{id}/uploads)
+-- Description: One row per upload in progress. Chunks are staged in <storage root>/.uploads/<id>.part;
+--              received_size is the offset the next chunk must start at. Committing the session
+--              turns the staged file into a complaint attachment and deletes the row; expired
+--              sessions are deleted together with their staged file.
+
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    complaint_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    received_size BIGINT NOT NULL DEFAULT 0,
+    expected_checksum VARCHAR(64),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Separate statements: the table may already have been created by Hibernate (ddl-auto=update)
+ALTER TABLE upload_sessions DROP CONSTRAINT IF EXISTS fk_upload_sessions_complaint;
+ALTER TABLE upload_sessions ADD CONSTRAINT fk_upload_sessions_complaint
+    FOREIGN KEY (complaint_id) REFERENCES complaints(id) ON DELETE CASCADE;
+
+ALTER TABLE upload_sessions DROP CONSTRAINT IF EXISTS ck_upload_sessions_received;
+ALTER TABLE upload_sessions ADD CONSTRAINT ck_upload_sessions_received
+    CHECK (received_size BETWEEN 0 AND file_size);
+
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_complaint_id ON upload_sessions (complaint_id);
+
+-- Expiry sweep
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_expires_at ON upload_sessions (expires_at);
+
+COMMENT ON TABLE upload_sessions IS 'Chunked attachment uploads in progress';
+COMMENT ON COLUMN upload_sessions.received_size IS 'Bytes durably written to the staged file; the next chunk starts here';
@@ -0,0 +1,21 @@
+-- Migration: Add denormalized last activity timestamp to complaints
+-- Feature: Overdue complaint detection without scanning complaint_history
+-- Description: last_activity_at is moved forward by ComplaintHistoryService on every history record
+
+ALTER TABLE complaints
+    ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMP;
+
+-- Backfill from the latest history row, falling back to creation time
+UPDATE complaints c
+SET last_activity_at = COALESCE(
+    (SELECT MAX(h.created_at) FROM complaint_history h WHERE h.complaint_id = c.id),
+    c.created_at
+)
+WHERE c.last_activity_at IS NULL;
+
+-- Partial index: only open complaints can be overdue (statuses must match AdminDashboardService.OPEN_STATUSES)
+CREATE INDEX IF NOT EXISTS idx_complaints_open_last_activity
+    ON complaints (last_activity_at)
+    WHERE status IN ('PENDING', 'IN_PROGRESS', 'INFO_REQUESTED');
+
+COMMENT ON COLUMN complaints.last_activity_at IS 'Timestamp of the latest complaint_history entry (maintained by the application)';
@@ -0,0 +1,30 @@
+-- Migration: Create complaint daily statistics rollup
+-- Feature: Status/type reports read pre-aggregated daily counters instead of scanning complaints
+-- Description: One counter per (creation day, agency, governorate, type, status).
+--              Maintained incrementally by the application and reconciled nightly.
+
+CREATE TABLE IF NOT EXISTS complaint_daily_stats (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    government_agency VARCHAR(255) NOT NULL,
+    governorate VARCHAR(255) NOT NULL,
+    complaint_type VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    complaint_count BIGINT NOT NULL,
+    CONSTRAINT uk_complaint_daily_stats_key
+        UNIQUE (stat_date, government_agency, governorate, complaint_type, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_complaint_daily_stats_agency_date
+    ON complaint_daily_stats (government_agency, stat_date);
+
+-- Initial fill (the application also rebuilds the rollup on startup when it is empty)
+INSERT INTO complaint_daily_stats
+    (stat_date, government_agency, governorate, complaint_type, status, complaint_count)
+SELECT CAST(c.created_at AS DATE), c.government_agency, c.governorate, c.complaint_type, c.status, COUNT(*)
+FROM complaints c
+GROUP BY CAST(c.created_at AS DATE), c.government_agency, c.governorate, c.complaint_type, c.status
+ON CONFLICT (stat_date, government_agency, governorate, complaint_type, status)
+DO UPDATE SET complaint_count = EXCLUDED.complaint_count;
+
+COMMENT ON TABLE complaint_daily_stats IS 'Daily complaint counters keyed by creation day, agency, governorate, type and status';
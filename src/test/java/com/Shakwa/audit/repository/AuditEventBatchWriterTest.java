@@ -0,0 +1,97 @@
+package com.Shakwa.audit.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.Shakwa.audit.dto.AuditRecord;
+
+class AuditEventBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AuditEventBatchWriter writer = new AuditEventBatchWriter(jdbcTemplate);
+
+    @Test
+    void usesOneIdPerNextvalWhenTheSequenceIncrementsByOne() throws Exception {
+        // A schema created without Flyway keeps V6's INCREMENT BY 1
+        givenIncrement(1L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(3))).thenReturn(List.of(10L, 11L, 12L));
+
+        assertThat(insert(3)).containsExactly(10L, 11L, 12L);
+    }
+
+    @Test
+    void splitsPooledBlocksByTheSequenceIncrement() throws Exception {
+        givenIncrement(50L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2))).thenReturn(List.of(101L, 151L));
+
+        List<Long> ids = insert(52);
+
+        assertThat(ids.subList(0, 50)).isEqualTo(IntStream.range(101, 151).mapToObj(Long::valueOf).toList());
+        assertThat(ids.subList(50, 52)).containsExactly(151L, 152L);
+    }
+
+    @Test
+    void readsTheIncrementOnce() throws Exception {
+        givenIncrement(50L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyInt())).thenReturn(List.of(1L));
+
+        insert(1);
+        insert(1);
+
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    void refusesAnUnusableIncrement() {
+        givenIncrement(-1L);
+
+        assertThatThrownBy(() -> writer.insertBatch(List.of(record())))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("audit_event_id_seq");
+    }
+
+    private void givenIncrement(Long increment) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(increment);
+    }
+
+    private List<Long> insert(int count) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doAnswer(call -> ids.add(call.getArgument(1))).when(statement).setLong(eq(1), any(Long.class));
+        doAnswer(call -> {
+            BatchPreparedStatementSetter setter = call.getArgument(1);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                setter.setValues(statement, i);
+            }
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+
+        writer.insertBatch(IntStream.range(0, count).mapToObj(i -> record()).toList());
+        return ids;
+    }
+
+    private static AuditRecord record() {
+        return new AuditRecord(UUID.randomUUID(), "LOGIN", "USER", 1L, 1L, "USER", "SUCCESS", null, null,
+            LocalDateTime.now());
+    }
+}
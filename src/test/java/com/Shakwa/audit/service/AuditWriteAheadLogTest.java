@@ -0,0 +1,167 @@
+package com.Shakwa.audit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.Shakwa.audit.dto.AuditRecord;
+import com.Shakwa.config.AuditPipelineProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+class AuditWriteAheadLogTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path directory;
+
+    private final List<AuditWriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeAll() {
+        opened.forEach(AuditWriteAheadLog::close);
+    }
+
+    @Test
+    void readsBackAppendedRecordsInOrder() throws IOException {
+        AuditWriteAheadLog wal = open(DataSize.ofMegabytes(1));
+        AuditRecord first = record();
+        AuditRecord second = record();
+        wal.append(first);
+        long end = wal.append(second);
+
+        List<AuditRecord> read = new ArrayList<>();
+        assertThat(wal.read(wal.checkpoint(), wal.endPosition(), 10, read)).isEqualTo(end);
+        assertThat(read).extracting(AuditRecord::eventId).containsExactly(first.eventId(), second.eventId());
+    }
+
+    @Test
+    void discardsTornTailOnRecovery() throws IOException {
+        AuditWriteAheadLog wal = open(DataSize.ofMegabytes(1));
+        AuditRecord intact = record();
+        long afterIntact = wal.append(intact);
+        wal.append(record());
+        wal.close();
+        opened.remove(wal);
+        corruptPayloadAt(0, (int) afterIntact);
+
+        AuditWriteAheadLog recovered = open(DataSize.ofMegabytes(1));
+        assertThat(recovered.endPosition()).isEqualTo(afterIntact);
+        List<AuditRecord> read = new ArrayList<>();
+        recovered.read(recovered.checkpoint(), recovered.endPosition(), 10, read);
+        assertThat(read).extracting(AuditRecord::eventId).containsExactly(intact.eventId());
+    }
+
+    @Test
+    void clampsCheckpointPastTheRecoveredTail() throws IOException {
+        AuditWriteAheadLog wal = open(DataSize.ofMegabytes(1));
+        long afterIntact = wal.append(record());
+        long afterTorn = wal.append(record());
+        wal.advanceCheckpoint(afterTorn);
+        wal.close();
+        opened.remove(wal);
+        corruptPayloadAt(0, (int) afterIntact);
+
+        AuditWriteAheadLog recovered = open(DataSize.ofMegabytes(1));
+        assertThat(recovered.checkpoint()).isEqualTo(afterIntact);
+        // A record appended now must not count as already checkpointed
+        assertThat(recovered.append(record())).isGreaterThan(recovered.checkpoint());
+        assertThat(checkpointOnDisk()).isEqualTo(afterIntact);
+    }
+
+    @Test
+    void replaysAcrossSegmentRolls() throws IOException {
+        AuditWriteAheadLog wal = open(DataSize.ofKilobytes(4));
+        List<UUID> appended = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            AuditRecord record = record();
+            wal.append(record);
+            appended.add(record.eventId());
+        }
+        assertThat(segmentCount()).isGreaterThan(2);
+        wal.close();
+        opened.remove(wal);
+
+        AuditWriteAheadLog reopened = open(DataSize.ofKilobytes(4));
+        List<AuditRecord> read = new ArrayList<>();
+        long position = reopened.checkpoint();
+        while (position < reopened.endPosition()) {
+            List<AuditRecord> batch = new ArrayList<>();
+            position = reopened.read(position, reopened.endPosition(), 7, batch);
+            read.addAll(batch);
+        }
+        assertThat(read).extracting(AuditRecord::eventId).containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    void checkpointDeletesConsumedSegments() throws IOException {
+        AuditWriteAheadLog wal = open(DataSize.ofKilobytes(4));
+        for (int i = 0; i < 60; i++) {
+            wal.append(record());
+        }
+        assertThat(segmentCount()).isGreaterThan(2);
+
+        wal.advanceCheckpoint(wal.endPosition());
+
+        assertThat(segmentCount()).isEqualTo(1);
+        assertThat(wal.backlogBytes()).isZero();
+        assertThat(wal.read(wal.checkpoint(), wal.endPosition(), 10, new ArrayList<>())).isEqualTo(wal.endPosition());
+    }
+
+    private AuditWriteAheadLog open(DataSize segmentSize) throws IOException {
+        AuditPipelineProperties properties = new AuditPipelineProperties();
+        properties.getWal().setDirectory(directory.toString());
+        properties.getWal().setSegmentSize(segmentSize);
+        properties.getWal().setFsyncInterval(Duration.ofMillis(10));
+        AuditWriteAheadLog wal = new AuditWriteAheadLog(properties, OBJECT_MAPPER);
+        wal.open();
+        opened.add(wal);
+        return wal;
+    }
+
+    private static AuditRecord record() {
+        return new AuditRecord(UUID.randomUUID(), "UPDATE_COMPLAINT", "COMPLAINT", 42L, 7L, "CITIZEN",
+            "SUCCESS", "{\"field\":\"status\"}", "127.0.0.1", LocalDateTime.now());
+    }
+
+    // Flips a payload byte of the record starting at offset, as if its pages never reached disk
+    private void corruptPayloadAt(long segment, int offset) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentPath(segment).toFile(), "rw")) {
+            file.seek(offset + 8L);
+            int value = file.read();
+            file.seek(offset + 8L);
+            file.write(value ^ 0xFF);
+        }
+    }
+
+    private long checkpointOnDisk() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("audit-wal.checkpoint").toFile(), "r")) {
+            return file.readLong();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("audit-wal-%010d.seg", segment));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+}
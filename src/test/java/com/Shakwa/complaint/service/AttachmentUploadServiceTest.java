@@ -0,0 +1,254 @@
+package com.Shakwa.complaint.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Shakwa.complaint.entity.UploadSession;
+import com.Shakwa.complaint.repository.ComplaintRepository;
+import com.Shakwa.complaint.repository.UploadSessionRepository;
+import com.Shakwa.complaint.service.AttachmentUploadService.ClaimedUpload;
+import com.Shakwa.complaint.storage.ComplaintStorageProperties;
+import com.Shakwa.user.repository.CitizenRepo;
+import com.Shakwa.user.repository.EmployeeRepository;
+import com.Shakwa.user.repository.UserRepository;
+import com.Shakwa.utils.exception.ConflictException;
+
+class AttachmentUploadServiceTest {
+
+    private static final Long COMPLAINT_ID = 7L;
+    private static final Long OWNER_ID = 42L;
+    private static final String UPLOAD_ID = "upload-1";
+    private static final byte[] CONTENT = "%PDF-1.7 body".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private final UploadSessionRepository uploadSessionRepository = mock(UploadSessionRepository.class);
+    private AttachmentUploadService service;
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ComplaintStorageProperties properties = new ComplaintStorageProperties();
+        properties.setRoot(root);
+        Files.createDirectories(properties.getUploadDirectory());
+        service = new AttachmentUploadService(mock(ComplaintRepository.class), uploadSessionRepository, properties,
+                mock(PlatformTransactionManager.class), mock(UserRepository.class), mock(CitizenRepo.class),
+                mock(EmployeeRepository.class)) {
+            @Override
+            protected boolean isCurrentUserCitizen() {
+                return true;
+            }
+
+            @Override
+            protected Long getCurrentUserId() {
+                return OWNER_ID;
+            }
+        };
+        session = session(0);
+        Files.createFile(service.stagedFile(UPLOAD_ID));
+        when(uploadSessionRepository.findByIdAndComplaintId(UPLOAD_ID, COMPLAINT_ID)).thenAnswer(call -> Optional.of(session));
+        when(uploadSessionRepository.findByIdAndComplaintIdForUpdate(UPLOAD_ID, COMPLAINT_ID)).thenAnswer(call -> Optional.of(session));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void appendsChunksAtTheSessionOffset() throws IOException {
+        service.appendChunk(COMPLAINT_ID, UPLOAD_ID, 0, new ByteArrayInputStream(CONTENT, 0, 5));
+        var progress = service.appendChunk(COMPLAINT_ID, UPLOAD_ID, 5, new ByteArrayInputStream(CONTENT, 5, CONTENT.length - 5));
+
+        assertThat(progress.getOffset()).isEqualTo(CONTENT.length);
+        assertThat(progress.isComplete()).isTrue();
+        assertThat(Files.readAllBytes(service.stagedFile(UPLOAD_ID))).isEqualTo(CONTENT);
+        assertThat(chunkFiles()).isZero();
+    }
+
+    @Test
+    void rejectsAChunkAtTheWrongOffset() throws IOException {
+        assertThatThrownBy(() -> service.appendChunk(COMPLAINT_ID, UPLOAD_ID, 3, new ByteArrayInputStream(CONTENT)))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(session.getReceivedSize()).isZero();
+        assertThat(Files.size(service.stagedFile(UPLOAD_ID))).isZero();
+    }
+
+    @Test
+    void doesNotOverwriteAChunkAppliedByAConcurrentRequest() throws IOException {
+        // Both requests read offset 0; the other one was applied while this body was being received
+        Files.write(service.stagedFile(UPLOAD_ID), "%PDF-".getBytes(StandardCharsets.US_ASCII));
+        session.setReceivedSize(5);
+        when(uploadSessionRepository.findByIdAndComplaintId(UPLOAD_ID, COMPLAINT_ID)).thenReturn(Optional.of(session(0)));
+
+        assertThatThrownBy(() -> service.appendChunk(COMPLAINT_ID, UPLOAD_ID, 0, new ByteArrayInputStream("XXXXX".getBytes())))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(Files.readString(service.stagedFile(UPLOAD_ID))).isEqualTo("%PDF-");
+        assertThat(session.getReceivedSize()).isEqualTo(5);
+        assertThat(chunkFiles()).isZero();
+    }
+
+    @Test
+    void keepsTheBytesThatArrivedBeforeTheConnectionDropped() throws IOException {
+        InputStream dropped = new InputStream() {
+            private int sent;
+
+            @Override
+            public int read() throws IOException {
+                if (sent == 3) {
+                    throw new IOException("Connection reset");
+                }
+                return CONTENT[sent++];
+            }
+        };
+
+        assertThatThrownBy(() -> service.appendChunk(COMPLAINT_ID, UPLOAD_ID, 0, dropped))
+                .isInstanceOf(UncheckedIOException.class);
+
+        assertThat(session.getReceivedSize()).isEqualTo(3);
+        assertThat(Files.readAllBytes(service.stagedFile(UPLOAD_ID))).isEqualTo(new byte[] {CONTENT[0], CONTENT[1], CONTENT[2]});
+    }
+
+    @Test
+    void rejectsAChunkPastTheDeclaredSize() {
+        byte[] tooLong = new byte[CONTENT.length + 1];
+
+        assertThatThrownBy(() -> service.appendChunk(COMPLAINT_ID, UPLOAD_ID, 0, new ByteArrayInputStream(tooLong)))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(session.getReceivedSize()).isZero();
+        verify(uploadSessionRepository, never()).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    void claimsAVerifiedUploadAndDropsTheStagedDataOnCommit() throws Exception {
+        completeUpload(CONTENT, sha256(CONTENT));
+        TransactionSynchronizationManager.initSynchronization();
+
+        ClaimedUpload claimed = service.claim(COMPLAINT_ID, UPLOAD_ID);
+
+        assertThat(claimed.session()).isSameAs(session);
+        assertThat(claimed.file()).hasBinaryContent(CONTENT);
+        verify(uploadSessionRepository).delete(session);
+        assertThat(service.stagedFile(UPLOAD_ID)).exists();
+
+        // The storage consumes the hand-off, then the caller's transaction commits
+        Files.delete(claimed.file());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(service.stagedFile(UPLOAD_ID)).doesNotExist();
+    }
+
+    @Test
+    void keepsTheStagedDataWhenTheCommitRollsBack() throws Exception {
+        completeUpload(CONTENT, sha256(CONTENT));
+        TransactionSynchronizationManager.initSynchronization();
+
+        ClaimedUpload claimed = service.claim(COMPLAINT_ID, UPLOAD_ID);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(service.stagedFile(UPLOAD_ID)).hasBinaryContent(CONTENT);
+        assertThat(claimed.file()).doesNotExist();
+    }
+
+    @Test
+    void discardsAnUploadWhoseChecksumDoesNotMatch() throws Exception {
+        completeUpload(CONTENT, sha256("something else".getBytes()));
+
+        assertThatThrownBy(() -> service.claim(COMPLAINT_ID, UPLOAD_ID))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Checksum mismatch");
+
+        verify(uploadSessionRepository).deleteById(UPLOAD_ID);
+        verify(uploadSessionRepository, never()).findByIdAndComplaintIdForUpdate(UPLOAD_ID, COMPLAINT_ID);
+        assertThat(service.stagedFile(UPLOAD_ID)).doesNotExist();
+    }
+
+    @Test
+    void discardsAnUploadOfAnUnsupportedType() throws Exception {
+        byte[] text = "plain text....".getBytes(StandardCharsets.US_ASCII);
+        session.setSize(text.length);
+        completeUpload(text, null);
+
+        assertThatThrownBy(() -> service.claim(COMPLAINT_ID, UPLOAD_ID))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Unsupported file type");
+
+        assertThat(service.stagedFile(UPLOAD_ID)).doesNotExist();
+    }
+
+    @Test
+    void refusesToClaimAnIncompleteUpload() {
+        assertThatThrownBy(() -> service.claim(COMPLAINT_ID, UPLOAD_ID))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("incomplete");
+
+        verify(uploadSessionRepository, never()).delete(ArgumentMatchers.any());
+        verify(uploadSessionRepository, never()).deleteById(ArgumentMatchers.any());
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private void completeUpload(byte[] content, String checksum) throws IOException {
+        Files.write(service.stagedFile(UPLOAD_ID), content);
+        session.setReceivedSize(content.length);
+        session.setExpectedChecksum(checksum);
+    }
+
+    private UploadSession session(long receivedSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return UploadSession.builder()
+                .id(UPLOAD_ID)
+                .complaintId(COMPLAINT_ID)
+                .ownerId(OWNER_ID)
+                .originalFilename("report.pdf")
+                .size(CONTENT.length)
+                .receivedSize(receivedSize)
+                .createdAt(now)
+                .updatedAt(now)
+                .expiresAt(now.plusHours(1))
+                .build();
+    }
+
+    private long chunkFiles() throws IOException {
+        try (Stream<Path> files = Files.list(root.resolve(".uploads"))) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".chunk")).count();
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
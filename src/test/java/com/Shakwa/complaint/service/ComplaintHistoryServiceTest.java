@@ -0,0 +1,101 @@
+package com.Shakwa.complaint.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.complaint.entity.ComplaintHistory;
+import com.Shakwa.complaint.repository.ComplaintHistoryRepository;
+import com.Shakwa.complaint.repository.ComplaintRepository;
+import com.Shakwa.user.entity.Citizen;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ComplaintHistoryServiceTest {
+
+    private final ComplaintHistoryRepository historyRepository = mock(ComplaintHistoryRepository.class);
+    private final ComplaintRepository complaintRepository = mock(ComplaintRepository.class);
+    private final ComplaintHistoryService service =
+        new ComplaintHistoryService(historyRepository, complaintRepository, new ObjectMapper());
+    private final Citizen actor = new Citizen();
+    private final Complaint complaint = new Complaint();
+
+    @BeforeEach
+    void setUp() {
+        actor.setId(42L);
+        actor.setFirstName("Sara");
+        actor.setLastName("Haddad");
+        complaint.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(ComplaintHistoryService.class.getName() + ".pending");
+    }
+
+    @Test
+    void insertsTheEntriesOfATransactionInOneBatchBeforeCommit() {
+        // The buffer is cleared once flushed, so the batch is copied when saveAll is called
+        List<List<ComplaintHistory>> batches = new ArrayList<>();
+        doAnswer(call -> {
+            batches.add(new ArrayList<>(call.<List<ComplaintHistory>>getArgument(0)));
+            return call.getArgument(0);
+        }).when(historyRepository).saveAll(any());
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.recordCreation(complaint, actor);
+        service.recordStatusChange(complaint, actor, ComplaintStatus.PENDING, ComplaintStatus.IN_PROGRESS);
+        service.recordLocked(complaint, actor);
+
+        verify(historyRepository, never()).save(any());
+        verify(historyRepository, never()).saveAll(any());
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+        assertThat(batches).singleElement().satisfies(batch -> assertThat(batch).hasSize(3));
+        verify(complaintRepository, times(1)).touchLastActivity(eq(7L), eq(complaint.getLastActivityAt()));
+    }
+
+    @Test
+    void discardsTheEntriesOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.recordCreation(complaint, actor);
+
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(historyRepository, never()).saveAll(any());
+        verify(complaintRepository, never()).touchLastActivity(anyLong(), any());
+        assertThat(TransactionSynchronizationManager.hasResource(ComplaintHistoryService.class.getName() + ".pending"))
+            .isFalse();
+    }
+
+    @Test
+    void savesImmediatelyOutsideATransaction() {
+        service.recordCreation(complaint, actor);
+
+        verify(historyRepository).save(any(ComplaintHistory.class));
+        verify(complaintRepository).touchLastActivity(eq(7L), any(LocalDateTime.class));
+    }
+}
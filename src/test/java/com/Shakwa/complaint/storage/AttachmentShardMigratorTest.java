@@ -0,0 +1,79 @@
+package com.Shakwa.complaint.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Shakwa.complaint.repository.ComplaintAttachmentRepository;
+
+class AttachmentShardMigratorTest {
+
+    @TempDir
+    Path root;
+
+    private final ComplaintAttachmentRepository repository = mock(ComplaintAttachmentRepository.class);
+    private AttachmentShardMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        ComplaintStorageProperties properties = new ComplaintStorageProperties();
+        properties.setRoot(root);
+        migrator = new AttachmentShardMigrator(repository, properties, mock(PlatformTransactionManager.class));
+        // The mocked transaction manager does not set up synchronization itself
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void finishesWhenOnlyRowsWithoutAFileAreLeft() {
+        when(repository.findUnshardedForUpdate(anyLong(), anyInt()))
+            .thenReturn(List.<Object[]>of(new Object[] {1L, "CMP-1/missing.pdf"}));
+
+        migrator.migrate();
+        migrator.migrate();
+
+        verify(repository, times(1)).findUnshardedForUpdate(anyLong(), anyInt());
+        verify(repository, never()).updateStoragePath(anyLong(), anyString());
+    }
+
+    @Test
+    void linksFilesIntoTheirShardAndKeepsGoingUntilNoneAreLeft() throws IOException {
+        Files.createDirectories(root.resolve("CMP-2"));
+        Files.writeString(root.resolve("CMP-2/a.pdf"), "%PDF-");
+        when(repository.findUnshardedForUpdate(anyLong(), anyInt()))
+            .thenReturn(List.<Object[]>of(new Object[] {2L, "CMP-2/a.pdf"}, new Object[] {3L, "CMP-3/missing.pdf"}))
+            .thenReturn(List.of());
+
+        migrator.migrate();
+        migrator.migrate();
+        migrator.migrate();
+
+        String target = StorageShards.shardedPath("CMP-2") + "/a.pdf";
+        verify(repository).updateStoragePath(2L, target);
+        assertThat(root.resolve(target)).hasContent("%PDF-");
+        // Second run saw nothing left and finished; the third does not query
+        verify(repository, times(2)).findUnshardedForUpdate(anyLong(), anyInt());
+    }
+}
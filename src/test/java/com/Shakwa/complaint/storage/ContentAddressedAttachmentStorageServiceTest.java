@@ -0,0 +1,171 @@
+package com.Shakwa.complaint.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.Shakwa.complaint.repository.AttachmentBlobRepository;
+import com.Shakwa.complaint.storage.AttachmentStorageService.StoredFile;
+
+class ContentAddressedAttachmentStorageServiceTest {
+
+    private static final byte[] PDF = "%PDF-1.7 shared body".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private final AttachmentBlobRepository repository = mock(AttachmentBlobRepository.class);
+    private final AttachmentBlobCollector collector = mock(AttachmentBlobCollector.class);
+    private ComplaintStorageProperties properties;
+    private ContentAddressedAttachmentStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ComplaintStorageProperties();
+        properties.setRoot(root);
+        service = new ContentAddressedAttachmentStorageService(properties, repository, collector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void storesDuplicateContentOnceAndAcquiresAReferencePerAttachment() throws Exception {
+        StoredFile first = service.store(upload("a.pdf"), "CMP-1");
+        StoredFile second = service.store(upload("copy of a.pdf"), "CMP-2");
+
+        String checksum = sha256(PDF);
+        assertThat(first.relativePath()).isEqualTo(second.relativePath())
+            .isEqualTo("blobs/" + checksum.substring(0, 2) + "/" + checksum.substring(2, 4) + "/" + checksum);
+        verify(repository, times(2)).acquire(checksum, first.relativePath(), PDF.length, "application/pdf");
+        assertThat(root.resolve(first.relativePath())).hasBinaryContent(PDF);
+        assertThat(files(root.resolve(".incoming"))).isEmpty();
+    }
+
+    @Test
+    void restoresABlobWhoseFileWasLost() throws IOException {
+        StoredFile stored = service.store(upload("a.pdf"), "CMP-1");
+        Files.delete(root.resolve(stored.relativePath()));
+
+        service.store(upload("a.pdf"), "CMP-1");
+
+        assertThat(root.resolve(stored.relativePath())).hasBinaryContent(PDF);
+    }
+
+    @Test
+    void releasesTheReferenceAndCollectsTheBlobAfterCommit() throws Exception {
+        String checksum = sha256(PDF);
+        when(repository.release(checksum)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.delete(ContentAddressedAttachmentStorageService.blobLocation(checksum));
+
+        verify(repository).release(checksum);
+        verify(collector, never()).collect(anyString());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(collector).collect(checksum);
+    }
+
+    @Test
+    void doesNotCollectWhenNoReferenceWasReleased() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.delete(ContentAddressedAttachmentStorageService.blobLocation(sha256(PDF)));
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void deletesFilesOfThePerComplaintLayoutDirectly() throws IOException {
+        Files.createDirectories(root.resolve("CMP-1"));
+        Files.write(root.resolve("CMP-1/old.pdf"), PDF);
+
+        service.delete("CMP-1/old.pdf");
+
+        assertThat(root.resolve("CMP-1/old.pdf")).doesNotExist();
+        verify(repository, never()).release(anyString());
+    }
+
+    @Test
+    void sweepsUnreferencedBlobsAndOldOrphanFiles() throws Exception {
+        StoredFile referenced = service.store(upload("a.pdf"), "CMP-1");
+        String orphan = "f".repeat(64);
+        Path orphanFile = root.resolve(ContentAddressedAttachmentStorageService.blobLocation(orphan));
+        Files.createDirectories(orphanFile.getParent());
+        Files.write(orphanFile, PDF);
+        FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(orphanFile, old);
+        Files.setLastModifiedTime(root.resolve(referenced.relativePath()), old);
+        when(repository.findUnreferenced(any(), anyInt())).thenReturn(List.of("e".repeat(64)));
+        when(repository.existsById(sha256(PDF))).thenReturn(true);
+
+        service.collectGarbage();
+
+        verify(collector).collect("e".repeat(64));
+        assertThat(orphanFile).doesNotExist();
+        assertThat(root.resolve(referenced.relativePath())).exists();
+    }
+
+    @Test
+    void collectorRemovesTheFileOnlyWithTheLastReference() throws Exception {
+        AttachmentBlobCollector realCollector = new AttachmentBlobCollector(repository, properties);
+        String checksum = sha256(PDF);
+        Path blob = root.resolve(ContentAddressedAttachmentStorageService.blobLocation(checksum));
+        Files.createDirectories(blob.getParent());
+        Files.write(blob, PDF);
+
+        when(repository.deleteIfUnreferenced(checksum)).thenReturn(0);
+        assertThat(realCollector.collect(checksum)).isFalse();
+        assertThat(blob).exists();
+
+        when(repository.deleteIfUnreferenced(checksum)).thenReturn(1);
+        assertThat(realCollector.collect(checksum)).isTrue();
+        assertThat(blob).doesNotExist();
+        verify(repository, times(2)).deleteIfUnreferenced(eq(checksum));
+    }
+
+    private static MockMultipartFile upload(String filename) {
+        return new MockMultipartFile("file", filename, "application/pdf", PDF);
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,53 @@
+package com.Shakwa.complaint.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InMemoryObjectStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryObjectStore store = new InMemoryObjectStore();
+
+    @Test
+    void readsBackRangesOfAStoredObject() throws IOException {
+        store.put("a/b.txt", file("0123456789"), "text/plain", null);
+
+        assertThat(store.size("a/b.txt")).hasValue(10);
+        assertThat(read(store.get("a/b.txt", 0, 9))).isEqualTo("0123456789");
+        assertThat(read(store.get("a/b.txt", 2, 4))).isEqualTo("234");
+        // An end past the object is clamped like an HTTP range
+        assertThat(read(store.get("a/b.txt", 8, 100))).isEqualTo("89");
+    }
+
+    @Test
+    void reportsMissingObjects() throws IOException {
+        store.put("a/b.txt", file("x"), "text/plain", null);
+        store.delete("a/b.txt");
+        store.delete("never/stored");
+
+        assertThat(store.size("a/b.txt")).isEmpty();
+        assertThatThrownBy(() -> store.get("a/b.txt", 0, 0)).isInstanceOf(NoSuchFileException.class);
+    }
+
+    private Path file(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "object", ".txt"), content);
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
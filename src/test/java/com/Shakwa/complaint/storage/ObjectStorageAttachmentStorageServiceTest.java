@@ -0,0 +1,114 @@
+package com.Shakwa.complaint.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.Shakwa.complaint.storage.AttachmentStorageService.StoredFile;
+import com.Shakwa.utils.exception.ConflictException;
+import com.Shakwa.utils.exception.ResourceNotFoundException;
+import com.Shakwa.utils.response.RangeReadable;
+
+class ObjectStorageAttachmentStorageServiceTest {
+
+    private static final String TRACKING_NUMBER = "CMP-2025-000001";
+    private static final byte[] PDF = "%PDF-1.7 attachment body".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private final InMemoryObjectStore objectStore = new InMemoryObjectStore();
+    private ObjectStorageAttachmentStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        ComplaintStorageProperties properties = new ComplaintStorageProperties();
+        properties.setRoot(root);
+        properties.getObjectStorage().setKeyPrefix("attachments/");
+        service = new ObjectStorageAttachmentStorageService(properties, objectStore);
+    }
+
+    @Test
+    void storesAnUploadAsAShardedObject() throws IOException {
+        StoredFile stored = service.store(new MockMultipartFile("file", "report.pdf", "application/pdf", PDF), TRACKING_NUMBER);
+
+        assertThat(stored.relativePath())
+            .startsWith("objects/" + StorageShards.shardedPath(TRACKING_NUMBER) + "/")
+            .endsWith(".pdf");
+        assertThat(stored.contentType()).isEqualTo("application/pdf");
+        assertThat(stored.size()).isEqualTo(PDF.length);
+        assertThat(objectStore.size("attachments/" + stored.relativePath())).hasValue(PDF.length);
+        // The spooled copy is gone
+        try (var staged = Files.list(root.resolve(".incoming"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    void servesTheObjectWithRanges() throws IOException {
+        StoredFile stored = service.store(new MockMultipartFile("file", "report.pdf", "application/pdf", PDF), TRACKING_NUMBER);
+
+        Resource resource = service.loadAsResource(stored.relativePath());
+
+        assertThat(resource.contentLength()).isEqualTo(PDF.length);
+        assertThat(read(resource.getInputStream())).isEqualTo(PDF);
+        assertThat(read(((RangeReadable) resource).getInputStream(0, 4))).isEqualTo("%PDF-".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void storesAStagedUploadAndConsumesIt() throws IOException {
+        Path staged = Files.write(root.resolve("upload.part"), PDF);
+
+        StoredFile stored = service.storeStaged(staged, "scan.pdf", TRACKING_NUMBER);
+
+        assertThat(staged).doesNotExist();
+        assertThat(objectStore.size("attachments/" + stored.relativePath())).hasValue(PDF.length);
+    }
+
+    @Test
+    void rejectsUnsupportedTypesWithoutStoringAnything() {
+        MockMultipartFile text = new MockMultipartFile("file", "notes.pdf", "application/pdf", "just text".getBytes());
+
+        assertThatThrownBy(() -> service.store(text, TRACKING_NUMBER)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void deletesObjectsOutsideATransactionImmediately() {
+        StoredFile stored = service.store(new MockMultipartFile("file", "report.pdf", "application/pdf", PDF), TRACKING_NUMBER);
+
+        service.delete(stored.relativePath());
+
+        assertThat(objectStore.size("attachments/" + stored.relativePath())).isEmpty();
+        assertThatThrownBy(() -> service.loadAsResource(stored.relativePath())).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void readsLocationsOfTheLocalLayoutsFromDisk() throws IOException {
+        String location = StorageShards.shardedPath(TRACKING_NUMBER) + "/old.pdf";
+        Files.createDirectories(root.resolve(location).getParent());
+        Files.write(root.resolve(location), PDF);
+
+        Resource resource = service.loadAsResource(location);
+
+        assertThat(resource).isInstanceOf(FileSystemResource.class);
+        assertThat(read(resource.getInputStream())).isEqualTo(PDF);
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
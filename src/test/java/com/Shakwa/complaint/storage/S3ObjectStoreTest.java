@@ -0,0 +1,29 @@
+package com.Shakwa.complaint.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class S3ObjectStoreTest {
+
+    // "GET Object" example of the AWS Signature Version 4 documentation for Amazon S3
+    private static final String SECRET_KEY = "wJalrXUtnFEMI/K7MDENG/bPxRfiCYEXAMPLEKEY";
+    private static final String CANONICAL_REQUEST = """
+        GET
+        /test.txt
+
+        host:examplebucket.s3.amazonaws.com
+        range:bytes=0-9
+        x-amz-content-sha256:e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855
+        x-amz-date:20130524T000000Z
+
+        host;range;x-amz-content-sha256;x-amz-date
+        e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855""";
+
+    @Test
+    void signsTheAwsExampleRequest() {
+        String signature = S3ObjectStore.signature(SECRET_KEY, "us-east-1", "20130524T000000Z", CANONICAL_REQUEST);
+
+        assertThat(signature).isEqualTo("f0e8bdb87c964420e857bd35b5d6ed310bd44f0170aba48dd91039c6036bdb41");
+    }
+}
@@ -0,0 +1,36 @@
+package com.Shakwa.complaint.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class StorageShardsTest {
+
+    @Test
+    void prefixesTheNameWithTheFirstTwoBytesOfItsSha256() {
+        // sha256("abc") = ba7816bf...
+        assertThat(StorageShards.shardedPath("abc")).isEqualTo("ba/78/abc");
+    }
+
+    @Test
+    void isStableForAName() {
+        String trackingNumber = "CMP-2025-000123";
+
+        assertThat(StorageShards.shardedPath(trackingNumber))
+            .isEqualTo(StorageShards.shardedPath(trackingNumber))
+            .matches("[0-9a-f]{2}/[0-9a-f]{2}/" + trackingNumber);
+    }
+
+    @Test
+    void spreadsSequentialNamesOverTheFirstLevel() {
+        Set<String> firstLevel = new HashSet<>();
+        for (int i = 0; i < 2_000; i++) {
+            firstLevel.add(StorageShards.shardedPath(String.format("CMP-2025-%06d", i)).substring(0, 2));
+        }
+        // 256 buckets; sequential numbers must not cluster in a few of them
+        assertThat(firstLevel).hasSizeGreaterThan(240);
+    }
+}
@@ -0,0 +1,90 @@
+package com.Shakwa.report.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.Shakwa.complaint.Enum.ComplaintStatus;
+import com.Shakwa.complaint.Enum.ComplaintType;
+import com.Shakwa.complaint.Enum.Governorate;
+import com.Shakwa.complaint.entity.Complaint;
+import com.Shakwa.report.repository.ComplaintDailyStatRepository;
+import com.Shakwa.report.service.ComplaintStatsRollupService.StatKey;
+import com.Shakwa.user.Enum.GovernmentAgencyType;
+
+class ComplaintStatsRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+    private static final GovernmentAgencyType HEALTH = GovernmentAgencyType.values()[5];
+    private static final GovernmentAgencyType EDUCATION = GovernmentAgencyType.values()[6];
+    private static final Governorate GOVERNORATE = Governorate.values()[0];
+    private static final ComplaintType TYPE = ComplaintType.values()[0];
+
+    private final ComplaintDailyStatRepository repository = mock(ComplaintDailyStatRepository.class);
+    private final ComplaintStatsRollupService service = new ComplaintStatsRollupService(repository);
+    private final Complaint complaint = new Complaint();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        complaint.setCreatedAt(DAY.atTime(9, 30));
+        complaint.setGovernmentAgency(HEALTH);
+        complaint.setGovernorate(GOVERNORATE);
+        complaint.setComplaintType(TYPE);
+        complaint.setStatus(ComplaintStatus.PENDING);
+    }
+
+    @Test
+    void movesTheCountFromTheOldKeyWhenAgencyAndStatusChangeTogether() {
+        StatKey before = StatKey.of(complaint);
+        complaint.setGovernmentAgency(EDUCATION);
+        complaint.setStatus(ComplaintStatus.IN_PROGRESS);
+
+        service.recordMove(before, StatKey.of(complaint));
+
+        verify(repository).increment(DAY, HEALTH.name(), GOVERNORATE.name(), TYPE.name(), "PENDING", -1);
+        verify(repository).increment(DAY, EDUCATION.name(), GOVERNORATE.name(), TYPE.name(), "IN_PROGRESS", 1);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void movesTheCountWhenOnlyTheAgencyChanges() {
+        StatKey before = StatKey.of(complaint);
+        complaint.setGovernmentAgency(EDUCATION);
+
+        service.recordMove(before, StatKey.of(complaint));
+
+        verify(repository).increment(DAY, HEALTH.name(), GOVERNORATE.name(), TYPE.name(), "PENDING", -1);
+        verify(repository).increment(DAY, EDUCATION.name(), GOVERNORATE.name(), TYPE.name(), "PENDING", 1);
+    }
+
+    @Test
+    void leavesTheCountersAloneWhenNoKeyDimensionChanges() {
+        StatKey before = StatKey.of(complaint);
+        complaint.setDescription("edited");
+
+        service.recordMove(before, StatKey.of(complaint));
+
+        verify(repository, never()).increment(any(), anyString(), anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void movesOnlyTheStatusOnAStatusChange() {
+        complaint.setStatus(ComplaintStatus.RESOLVED);
+
+        service.recordStatusChange(complaint, ComplaintStatus.PENDING, ComplaintStatus.RESOLVED);
+
+        verify(repository).increment(DAY, HEALTH.name(), GOVERNORATE.name(), TYPE.name(), "PENDING", -1);
+        verify(repository).increment(DAY, HEALTH.name(), GOVERNORATE.name(), TYPE.name(), "RESOLVED", 1);
+    }
+}
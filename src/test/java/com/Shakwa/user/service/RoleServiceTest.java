@@ -0,0 +1,81 @@
+package com.Shakwa.user.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.Shakwa.user.dto.RoleRequestDTO;
+import com.Shakwa.user.entity.Role;
+import com.Shakwa.user.repository.PermissionRepository;
+import com.Shakwa.user.repository.RoleRepository;
+
+class RoleServiceTest {
+
+    private static final Long ROLE_ID = 5L;
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final TokenVersionService tokenVersionService = mock(TokenVersionService.class);
+    private final RoleService service = new RoleService(roleRepository, mock(PermissionRepository.class), tokenVersionService);
+    private final Role role = new Role();
+
+    @BeforeEach
+    void setUp() {
+        role.setId(ROLE_ID);
+        role.setName("INSPECTOR");
+        role.setDescription("Field inspector");
+        role.setActive(true);
+        when(roleRepository.findById(ROLE_ID)).thenReturn(Optional.of(role));
+        when(roleRepository.save(any(Role.class))).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void revokesTokensWhenTheRoleIsRenamed() {
+        service.updateRole(ROLE_ID, request("SENIOR_INSPECTOR", true));
+
+        verify(tokenVersionService).revokeTokensForRole(ROLE_ID);
+    }
+
+    @Test
+    void revokesTokensWhenTheRoleIsDeactivated() {
+        service.updateRole(ROLE_ID, request("INSPECTOR", false));
+
+        verify(tokenVersionService).revokeTokensForRole(ROLE_ID);
+    }
+
+    @Test
+    void keepsTokensWhenOnlyTheDescriptionChanges() {
+        RoleRequestDTO request = request("INSPECTOR", true);
+        request.setDescription("Inspects sites");
+
+        service.updateRole(ROLE_ID, request);
+
+        verify(tokenVersionService, never()).revokeTokensForRole(anyLong());
+    }
+
+    @Test
+    void revokesTokensBeforeDeletingTheRole() {
+        service.deleteRole(ROLE_ID);
+
+        InOrder order = inOrder(tokenVersionService, roleRepository);
+        order.verify(tokenVersionService).revokeTokensForRole(ROLE_ID);
+        order.verify(roleRepository).delete(role);
+    }
+
+    private RoleRequestDTO request(String name, boolean active) {
+        RoleRequestDTO request = new RoleRequestDTO();
+        request.setName(name);
+        request.setDescription(role.getDescription());
+        request.setIsActive(active);
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com.Shakwa.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        String[] values = new String[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+
+        // Twice the expected insertions: more false positives, still no false negatives
+        for (String value : values) {
+            assertThat(filter.mightContain(value)).as(value).isTrue();
+        }
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateNearTheTargetAtCapacity() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("token-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void sizesBitsAndHashesForTheExpectedInsertions() {
+        // m = -n ln p / (ln 2)^2, k = m / n ln 2
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        assertThat(filter.bitCount()).isEqualTo(9_586);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void clampsDegenerateArguments() {
+        BloomFilter empty = BloomFilter.create(0, 0.01);
+        BloomFilter loose = BloomFilter.create(1_000, 0.9);
+
+        assertThat(empty.bitCount()).isEqualTo(64);
+        assertThat(empty.hashCount()).isPositive();
+        // Probability capped at 0.5
+        assertThat(loose.bitCount()).isEqualTo(BloomFilter.create(1_000, 0.5).bitCount());
+        empty.put("value");
+        assertThat(empty.mightContain("value")).isTrue();
+    }
+}
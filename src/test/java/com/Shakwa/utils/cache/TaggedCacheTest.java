@@ -0,0 +1,57 @@
+package com.Shakwa.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class TaggedCacheTest {
+
+    // Keys are "tag,tag,..."; an empty key is untagged
+    private final CacheTagIndex index = new CacheTagIndex(key -> Arrays.stream(((String) key).split(","))
+        .filter(tag -> !tag.isEmpty())
+        .collect(Collectors.toSet()));
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder().build();
+    private final TaggedCache cache = new TaggedCache(new CaffeineCache("complaintLists", nativeCache, false), index);
+
+    @Test
+    void evictsOnlyEntriesCoveredByTheTags() {
+        cache.put("agency:HEALTH", "health");
+        cache.put("agency:HEALTH,status:PENDING", "pending health");
+        cache.put("agency:EDUCATION", "education");
+        cache.put("", "everything");
+
+        int evicted = cache.evictCoveredBy(Set.of("agency:HEALTH", "status:RESOLVED"));
+
+        assertThat(evicted).isEqualTo(2);
+        assertThat(nativeCache.asMap()).containsOnlyKeys("agency:HEALTH,status:PENDING", "agency:EDUCATION");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsTheKeyIndexedWhenItWasStoredAgainBeforeTheEvictionWasReported() {
+        cache.put("agency:HEALTH", "old");
+        // Size eviction of the old entry, then a put of the same key, then the eviction notice
+        nativeCache.invalidate("agency:HEALTH");
+        cache.put("agency:HEALTH", "new");
+        index.removeUnless("agency:HEALTH", key -> nativeCache.asMap().containsKey(key));
+
+        assertThat(index.keysCoveredBy(Set.of("agency:HEALTH"))).containsExactly("agency:HEALTH");
+    }
+
+    @Test
+    void dropsTheKeyWhenItsEvictedEntryIsStillGone() {
+        cache.put("agency:HEALTH", "old");
+        nativeCache.invalidate("agency:HEALTH");
+        index.removeUnless("agency:HEALTH", key -> nativeCache.asMap().containsKey(key));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.keysCoveredBy(Set.of("agency:HEALTH"))).isEmpty();
+    }
+}
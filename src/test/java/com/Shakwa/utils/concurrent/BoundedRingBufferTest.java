@@ -0,0 +1,103 @@
+package com.Shakwa.utils.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new BoundedRingBuffer<>(3).capacity()).isEqualTo(4);
+        assertThat(new BoundedRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new BoundedRingBuffer<>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndReturnsNullWhenEmpty() {
+        BoundedRingBuffer<Integer> ring = new BoundedRingBuffer<>(4);
+        assertThat(ring.poll()).isNull();
+        assertThat(ring.peek()).isNull();
+        assertThat(ring.isEmpty()).isTrue();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+        assertThat(ring.peek()).isZero();
+
+        assertThat(ring.poll()).isZero();
+        assertThat(ring.offer(4)).isTrue();
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+
+    @Test
+    void wrapsAroundManyLaps() {
+        BoundedRingBuffer<Integer> ring = new BoundedRingBuffer<>(2);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(ring.offer(i)).isTrue();
+            assertThat(ring.poll()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void deliversEveryElementOnceWithConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 5_000;
+        BoundedRingBuffer<long[]> ring = new BoundedRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        long[] element = {producer, i};
+                        while (!ring.offer(element)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long[] nextExpected = new long[producers];
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < producers * perProducer && System.nanoTime() < deadline) {
+                long[] element = ring.poll();
+                if (element == null) {
+                    Thread.yield();
+                    continue;
+                }
+                // Each producer's elements arrive exactly once and in its own order
+                assertThat(element[1]).isEqualTo(nextExpected[(int) element[0]]);
+                nextExpected[(int) element[0]]++;
+                received++;
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertThat(received).isEqualTo(producers * perProducer);
+            assertThat(ring.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
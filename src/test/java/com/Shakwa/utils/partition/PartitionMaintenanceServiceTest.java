@@ -0,0 +1,83 @@
+package com.Shakwa.utils.partition;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.Shakwa.config.PartitionMaintenanceProperties;
+import com.Shakwa.config.PartitionMaintenanceProperties.RetentionAction;
+
+class PartitionMaintenanceServiceTest {
+
+    private final MonthlyPartitionRepository repository = mock(MonthlyPartitionRepository.class);
+    private final PartitionMaintenanceProperties properties = new PartitionMaintenanceProperties();
+    private final PartitionMaintenanceService service = new PartitionMaintenanceService(repository, properties);
+    private YearMonth now;
+
+    @BeforeEach
+    void setUp() {
+        now = YearMonth.now();
+    }
+
+    @Test
+    void createsTheCurrentAndTheNextMonthsAndKeepsEverythingByDefault() {
+        service.maintainPartitions();
+
+        verify(repository).ensureMonthlyPartitions("audit_events", now, 4);
+        verify(repository).ensureMonthlyPartitions("complaint_history", now, 4);
+        verify(repository, never()).detachPartitionsBefore(anyString(), any(), any(), anyString());
+    }
+
+    @Test
+    void detachesMonthsPastEachTablesRetention() {
+        properties.getAuditEvents().setRetentionMonths(24);
+        properties.getComplaintHistory().setRetentionMonths(1);
+        properties.getComplaintHistory().setAction(RetentionAction.DETACH);
+
+        service.maintainPartitions();
+
+        // The retention counts the current month
+        verify(repository).detachPartitionsBefore("audit_events", now.minusMonths(23), RetentionAction.ARCHIVE, "archive");
+        verify(repository).detachPartitionsBefore("complaint_history", now, RetentionAction.DETACH, "archive");
+    }
+
+    @Test
+    void continuesWithTheOtherTableWhenOneFails() {
+        doThrow(new IllegalStateException("audit_events is not partitioned"))
+            .when(repository).ensureMonthlyPartitions(eq("audit_events"), any(), anyInt());
+
+        service.maintainPartitions();
+
+        verify(repository).ensureMonthlyPartitions("complaint_history", now, 4);
+    }
+
+    @Test
+    void refusesAnArchiveSchemaThatIsNotAPlainIdentifier() {
+        properties.setArchiveSchema("archive; DROP TABLE users");
+        properties.getAuditEvents().setRetentionMonths(12);
+
+        service.maintainPartitions();
+
+        verify(repository, never()).detachPartitionsBefore(anyString(), any(), any(), anyString());
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        service.maintainPartitions();
+
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,208 @@
+package com.Shakwa.utils.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FileDownloadWriterTest {
+
+    private static final String CONTENT = "0123456789";
+    private static final String CHECKSUM = "abc123";
+    private static final String ETAG = "\"" + CHECKSUM + "\"";
+
+    @TempDir
+    Path directory;
+
+    private FileDownloadResponse download;
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/attachments/1");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.writeString(directory.resolve("report.pdf"), CONTENT);
+        download = new FileDownloadResponse(new FileSystemResource(file), "report.pdf", "application/pdf",
+                CONTENT.length(), CHECKSUM);
+    }
+
+    @Test
+    void sendsTheWholeFileWithValidators() throws IOException {
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void answersNotModifiedWhenTheEtagMatches() throws IOException {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG);
+
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void sendsASingleRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-4/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(3);
+        assertThat(response.getContentAsString()).isEqualTo("234");
+    }
+
+    @Test
+    void sendsASuffixRange() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void rejectsARangePastTheEnd() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void sendsTheWholeFileForSeveralOrMalformedRanges() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+        FileDownloadWriter.write(request, response, download);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/attachments/1");
+        MockHttpServletResponse malformedResponse = new MockHttpServletResponse();
+        malformed.addHeader(HttpHeaders.RANGE, "bytes=abc");
+        FileDownloadWriter.write(malformed, malformedResponse, download);
+        assertThat(malformedResponse.getStatus()).isEqualTo(200);
+        assertThat(malformedResponse.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void honoursTheRangeOnlyWhileIfRangeMatches() throws IOException {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        FileDownloadWriter.write(request, response, download);
+        assertThat(response.getStatus()).isEqualTo(206);
+
+        MockHttpServletRequest changed = new MockHttpServletRequest("GET", "/attachments/1");
+        MockHttpServletResponse changedResponse = new MockHttpServletResponse();
+        changed.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        changed.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        FileDownloadWriter.write(changed, changedResponse, download);
+        assertThat(changedResponse.getStatus()).isEqualTo(200);
+        assertThat(changedResponse.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void ignoresTheRangeForAnIfRangeDate() throws IOException {
+        // No Last-Modified is sent, so a date validator can never match
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        request.addHeader(HttpHeaders.IF_RANGE, "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void handsTheRegionToTomcatSendfileWhenSupported() throws IOException {
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+
+        FileDownloadWriter.write(request, response, download);
+
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(directory.resolve("report.pdf").toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(5L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void readsOnlyTheRangeOfARangeReadableResource() throws IOException {
+        RangeResource resource = new RangeResource(CONTENT.getBytes(StandardCharsets.US_ASCII));
+        FileDownloadResponse remote = new FileDownloadResponse(resource, "report.pdf", "application/pdf",
+                CONTENT.length(), CHECKSUM);
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-");
+
+        FileDownloadWriter.write(request, response, remote);
+
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+        assertThat(resource.requested).isEqualTo("5-9");
+    }
+
+    @Test
+    void sendsOnlyHeadersForHead() throws IOException {
+        MockHttpServletRequest head = new MockHttpServletRequest("HEAD", "/attachments/1");
+
+        FileDownloadWriter.write(head, response, download);
+
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void encodesTheFilenameForContentDisposition() {
+        assertThat(FileDownloadWriter.contentDisposition("report.pdf"))
+                .isEqualTo("attachment; filename=\"report.pdf\"; filename*=UTF-8''report.pdf");
+        assertThat(FileDownloadWriter.contentDisposition("a \"b\"\\c.pdf"))
+                .isEqualTo("attachment; filename=\"a \\\"b\\\"\\\\c.pdf\"; filename*=UTF-8''a%20%22b%22%5Cc.pdf");
+        assertThat(FileDownloadWriter.contentDisposition("شكوى.pdf"))
+                .isEqualTo("attachment; filename=\"____.pdf\"; filename*=UTF-8''%D8%B4%D9%83%D9%88%D9%89.pdf");
+    }
+
+    private static final class RangeResource extends AbstractResource implements RangeReadable {
+
+        private final byte[] content;
+        private String requested;
+
+        RangeResource(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public InputStream getInputStream(long start, long end) {
+            requested = start + "-" + end;
+            return new ByteArrayInputStream(content, (int) start, (int) (end - start + 1));
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public String getDescription() {
+            return "test resource";
+        }
+    }
+}